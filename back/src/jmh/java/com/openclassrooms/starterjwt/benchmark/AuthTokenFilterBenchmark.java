@@ -0,0 +1,71 @@
+package com.openclassrooms.starterjwt.benchmark;
+
+import com.openclassrooms.starterjwt.security.jwt.AuthTokenFilter;
+import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
+import com.openclassrooms.starterjwt.security.services.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.FilterChain;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full pass through the JWT filter; the user lookup is stubbed so that only the filter's own cost is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthTokenFilterBenchmark {
+    private AuthTokenFilter filter;
+
+    private String authorization;
+
+    private final FilterChain chain = (request, response) -> {
+    };
+
+    @Setup
+    public void setup() {
+        JwtUtils jwtUtils = Fixtures.jwtUtils();
+        UserDetails userDetails = Fixtures.userDetails();
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(null) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return userDetails;
+            }
+        };
+
+        this.filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(this.filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(this.filter, "userDetailsService", userDetailsService);
+        this.authorization = "Bearer " + jwtUtils.generateJwtToken(Fixtures.authentication());
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticated() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/session");
+        request.addHeader("Authorization", this.authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.filter.doFilter(request, response, this.chain);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse anonymous() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/session");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.filter.doFilter(request, response, this.chain);
+        return response;
+    }
+}
@@ -0,0 +1,87 @@
+package com.openclassrooms.starterjwt.benchmark;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+final class Fixtures {
+    static final String EMAIL = "yoga@studio.com";
+
+    private Fixtures() {
+    }
+
+    static JwtUtils jwtUtils() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "openclassrooms");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        return jwtUtils;
+    }
+
+    static UserDetailsImpl userDetails() {
+        return UserDetailsImpl.builder()
+                .id(1L)
+                .username(EMAIL)
+                .firstName("Admin")
+                .lastName("Admin")
+                .password("password")
+                .build();
+    }
+
+    static Authentication authentication() {
+        UserDetailsImpl userDetails = userDetails();
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    static Teacher teacher() {
+        return new Teacher(1L, "Delahaye", "Margot", LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    static User user(long id) {
+        return new User(id, "user" + id + "@studio.com", "User", "Yoga", "password", false,
+                LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    static Session session(long id, int participants) {
+        List<User> users = LongStream.rangeClosed(1, participants).mapToObj(Fixtures::user)
+                .collect(Collectors.toCollection(ArrayList::new));
+        return Session.builder()
+                .id(id)
+                .name("Session " + id)
+                .date(new Date())
+                .description("Hatha yoga for every level, bring your own mat.")
+                .teacher(teacher())
+                .users(users)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    static SessionDto sessionDto(long id, int participants) {
+        List<Long> users = LongStream.rangeClosed(1, participants).boxed().collect(Collectors.toList());
+        return new SessionDto(id, "Session " + id, new Date(), 60, 1L,
+                "Hatha yoga for every level, bring your own mat.", users, null, LocalDateTime.now(),
+                LocalDateTime.now());
+    }
+
+    static List<SessionDto> sessionDtos(int sessions, int participants) {
+        List<SessionDto> dtos = new ArrayList<>(sessions);
+        for (long id = 1; id <= sessions; id++) {
+            dtos.add(sessionDto(id, participants));
+        }
+        return Collections.unmodifiableList(dtos);
+    }
+}
@@ -0,0 +1,43 @@
+package com.openclassrooms.starterjwt.benchmark;
+
+import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+    private JwtUtils jwtUtils;
+
+    private Authentication authentication;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        this.jwtUtils = Fixtures.jwtUtils();
+        this.authentication = Fixtures.authentication();
+        this.token = this.jwtUtils.generateJwtToken(this.authentication);
+    }
+
+    @Benchmark
+    public String generate() {
+        return this.jwtUtils.generateJwtToken(this.authentication);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return this.jwtUtils.validateJwtToken(this.token);
+    }
+
+    @Benchmark
+    public String parseUserName() {
+        return this.jwtUtils.getUserNameFromJwtToken(this.token);
+    }
+}
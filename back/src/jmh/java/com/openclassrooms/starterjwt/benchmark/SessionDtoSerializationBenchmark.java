@@ -0,0 +1,41 @@
+package com.openclassrooms.starterjwt.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a {@code GET /api/session} response body, with the ObjectMapper defaults Spring Boot applies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionDtoSerializationBenchmark {
+    @Param({ "10", "100", "1000" })
+    public int sessions;
+
+    @Param({ "0", "20" })
+    public int participants;
+
+    private ObjectMapper objectMapper;
+
+    private List<SessionDto> sessionDtos;
+
+    @Setup
+    public void setup() {
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        this.sessionDtos = Fixtures.sessionDtos(this.sessions, this.participants);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return this.objectMapper.writeValueAsBytes(this.sessionDtos);
+    }
+}
@@ -0,0 +1,67 @@
+package com.openclassrooms.starterjwt.benchmark;
+
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.mapper.SessionMapper;
+import com.openclassrooms.starterjwt.mapper.SessionMapperImpl;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.services.TeacherService;
+import com.openclassrooms.starterjwt.services.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of one session with {@code participants} users. The services used by {@code toEntity}
+ * answer from memory, so the figures exclude the database round trips.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionMapperBenchmark {
+    @Param({ "10", "100", "1000" })
+    public int participants;
+
+    private SessionMapper mapper;
+
+    private Session session;
+
+    private SessionDto sessionDto;
+
+    @Setup
+    public void setup() {
+        Teacher teacher = Fixtures.teacher();
+        TeacherService teacherService = new TeacherService(null, null) {
+            @Override
+            public Teacher findById(Long id) {
+                return teacher;
+            }
+        };
+        UserService userService = new UserService(null, null) {
+            @Override
+            public com.openclassrooms.starterjwt.models.User findById(Long id) {
+                return Fixtures.user(id);
+            }
+        };
+
+        this.mapper = new SessionMapperImpl();
+        ReflectionTestUtils.setField(this.mapper, "teacherService", teacherService);
+        ReflectionTestUtils.setField(this.mapper, "userService", userService);
+        this.session = Fixtures.session(1L, this.participants);
+        this.sessionDto = Fixtures.sessionDto(1L, this.participants);
+    }
+
+    @Benchmark
+    public SessionDto toDto() {
+        return this.mapper.toDto(this.session);
+    }
+
+    @Benchmark
+    public Session toEntity() {
+        return this.mapper.toEntity(this.sessionDto);
+    }
+}
@@ -0,0 +1,5 @@
+package com.openclassrooms.starterjwt.audit;
+
+public enum AuditAction {
+    SESSION_CREATED, SESSION_UPDATED, SESSION_DELETED, USER_DELETED
+}
@@ -0,0 +1,262 @@
+package com.openclassrooms.starterjwt.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Write-behind audit trail: the writes only add a record to a bounded queue, which a background
+ * thread flushes into AUDIT_LOG by JDBC batches. The actor is taken from the security context of
+ * the writing thread, and the record is only queued once the write has committed.
+ * <p>
+ * When the queue is full, the writing thread waits up to {@code offerTimeoutMs} and then inserts its
+ * record itself: writes slow down to the audit throughput instead of losing records. Each batch is
+ * inserted in a transaction of its own, the caller's having already committed. A batch that
+ * cannot be inserted, and the records still queued at shutdown when the database is gone, are
+ * appended to {@code fallbackFile}, which is loaded back into the table on the next start, in one
+ * transaction so that a failed load leaves the file whole for the next attempt.
+ * <p>
+ * Counted by {@code audit.records}, tagged with {@code result=written|fallback}.
+ */
+@Component
+@Slf4j
+public class AuditLog {
+    static final String INSERT = "INSERT INTO AUDIT_LOG (occurred_at, actor, action, target_id) VALUES (?, ?, ?, ?)";
+
+    private static final String SYSTEM = "system";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final BlockingQueue<AuditRecord> queue;
+
+    private final int batchSize;
+
+    private final long flushMs;
+
+    private final long offerTimeoutMs;
+
+    private final Path fallbackFile;
+
+    // Held during the file I/O, which may run on a virtual thread: a monitor would pin its carrier.
+    private final ReentrantLock fallbackLock = new ReentrantLock();
+
+    private final Counter written;
+
+    private final Counter fallback;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    public AuditLog(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                    ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                    @Value("${oc.app.audit.queueSize:10000}") int queueSize,
+                    @Value("${oc.app.audit.batchSize:500}") int batchSize,
+                    @Value("${oc.app.audit.flushMs:1000}") long flushMs,
+                    @Value("${oc.app.audit.offerTimeoutMs:100}") long offerTimeoutMs,
+                    @Value("${oc.app.audit.fallbackFile:audit-fallback.jsonl}") String fallbackFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+        this.flushMs = flushMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.fallbackFile = Paths.get(fallbackFile);
+        this.written = meterRegistry.counter("audit.records", "result", "written");
+        this.fallback = meterRegistry.counter("audit.records", "result", "fallback");
+        meterRegistry.gaugeCollectionSize("audit.queue.size", Collections.emptyList(), this.queue);
+    }
+
+    /**
+     * Audits {@code action} on {@code targetId} by the current user, once the current transaction
+     * commits, or right away outside of one.
+     */
+    public void record(AuditAction action, Long targetId) {
+        record(action, Collections.singletonList(targetId));
+    }
+
+    /**
+     * One record per target, e.g. for the occurrences of a series created or deleted together.
+     */
+    public void record(AuditAction action, Collection<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return;
+        }
+        long occurredAt = System.currentTimeMillis();
+        String actor = currentActor();
+        List<AuditRecord> records = targetIds.stream()
+                .map(targetId -> new AuditRecord(occurredAt, actor, action, targetId))
+                .collect(Collectors.toList());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    records.forEach(AuditLog.this::enqueue);
+                }
+            });
+        } else {
+            records.forEach(this::enqueue);
+        }
+    }
+
+    private void enqueue(AuditRecord record) {
+        try {
+            if (this.queue.offer(record, this.offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        write(Collections.singletonList(record));
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? SYSTEM : authentication.getName();
+    }
+
+    @PostConstruct
+    public void start() {
+        replayFallback();
+        this.running = true;
+        this.writer = new Thread(this::flushLoop, "audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    private void flushLoop() {
+        List<AuditRecord> batch = new ArrayList<>(this.batchSize);
+        while (this.running) {
+            try {
+                AuditRecord first = this.queue.poll(this.flushMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                this.queue.drainTo(batch, this.batchSize - 1);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<AuditRecord> records) {
+        try {
+            // From afterCommit, the caller's resources may still be bound: never rely on their state
+            this.transactionTemplate.executeWithoutResult(status -> insert(records));
+            this.written.increment(records.size());
+        } catch (RuntimeException e) {
+            log.warn("Audit records kept in the fallback file {} {}", kv("count", records.size()),
+                    kv("error", e.toString()));
+            appendToFallback(records);
+        }
+    }
+
+    private void insert(List<AuditRecord> records) {
+        this.jdbcTemplate.batchUpdate(INSERT, records.stream()
+                .map(record -> new Object[] { new Timestamp(record.getOccurredAt()), record.getActor(),
+                        record.getAction().name(), record.getTargetId() })
+                .collect(Collectors.toList()));
+    }
+
+    private void appendToFallback(List<AuditRecord> records) {
+        this.fallbackLock.lock();
+        try (BufferedWriter out = Files.newBufferedWriter(this.fallbackFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (AuditRecord record : records) {
+                out.write(this.objectMapper.writeValueAsString(record));
+                out.newLine();
+            }
+            this.fallback.increment(records.size());
+        } catch (IOException e) {
+            log.error("Audit records lost {} {}", kv("count", records.size()), kv("error", e.toString()));
+        } finally {
+            this.fallbackLock.unlock();
+        }
+    }
+
+    private void replayFallback() {
+        this.fallbackLock.lock();
+        try {
+            if (!Files.exists(this.fallbackFile)) {
+                return;
+            }
+            List<AuditRecord> records = new ArrayList<>();
+            for (String line : Files.readAllLines(this.fallbackFile, StandardCharsets.UTF_8)) {
+                if (!line.isEmpty()) {
+                    records.add(this.objectMapper.readValue(line, AuditRecord.class));
+                }
+            }
+            this.transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < records.size(); from += this.batchSize) {
+                    insert(records.subList(from, Math.min(from + this.batchSize, records.size())));
+                }
+            });
+            Files.delete(this.fallbackFile);
+            log.info("Audit records loaded from the fallback file {}", kv("count", records.size()));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Audit fallback file kept for the next start {} {}", kv("file", this.fallbackFile),
+                    kv("error", e.toString()));
+        } finally {
+            this.fallbackLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes what is still queued, to the database if it is still there, to the fallback file otherwise.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        this.running = false;
+        if (this.writer != null) {
+            this.writer.join(TimeUnit.SECONDS.toMillis(5) + this.flushMs);
+        }
+        List<AuditRecord> remaining = new ArrayList<>();
+        this.queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += this.batchSize) {
+            write(remaining.subList(from, Math.min(from + this.batchSize, remaining.size())));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.openclassrooms.starterjwt.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Who did what, and when: one row of AUDIT_LOG, or one line of the fallback file.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditRecord {
+    private long occurredAt;
+
+    private String actor;
+
+    private AuditAction action;
+
+    private Long targetId;
+}
@@ -0,0 +1,107 @@
+package com.openclassrooms.starterjwt.concurrency;
+
+import com.openclassrooms.starterjwt.monitoring.RequestTrace;
+import com.openclassrooms.starterjwt.monitoring.SqlStatementCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the slow write endpoints off the request thread, on a small pool with a bounded queue:
+ * request threads stay free for the reads while writes wait for a connection. Once the queue is
+ * full, further writes fail with a {@link java.util.concurrent.RejectedExecutionException}.
+ * The caller's security context and MDC follow the write to the pool thread, and the write's
+ * statements and phases are added to the caller's {@link SqlStatementCounter} and {@link RequestTrace}.
+ */
+@Component
+@Slf4j
+public class AsyncWrites {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final ThreadPoolExecutor pool;
+
+    private final Executor executor;
+
+    @Autowired
+    public AsyncWrites(@Value("${oc.app.writes.async:true}") boolean async,
+                       @Value("${oc.app.writes.threads:4}") int threads,
+                       @Value("${oc.app.writes.queueSize:100}") int queueSize) {
+        if (async) {
+            this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueSize), new CustomizableThreadFactory("write-"),
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.executor = this.pool::execute;
+        } else {
+            this.pool = null;
+            this.executor = Runnable::run;
+        }
+    }
+
+    /**
+     * Writes run on the caller thread, e.g. to stay in the caller's transaction.
+     */
+    public static AsyncWrites inline() {
+        return new AsyncWrites(false, 0, 0);
+    }
+
+    /**
+     * Runs {@code write} on the write pool; a failure completes the future exceptionally.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> write) {
+        return CompletableFuture.supplyAsync(this.pool != null ? propagateContext(write) : write, this.executor);
+    }
+
+    // Wraps the supplier rather than the task: the counts are complete before the future completes.
+    private static <T> Supplier<T> propagateContext(Supplier<T> write) {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        SqlStatementCounter counter = SqlStatementCounter.current();
+        RequestTrace trace = RequestTrace.current();
+        return () -> {
+            SecurityContextHolder.setContext(securityContext);
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            SqlStatementCounter previous = SqlStatementCounter.attach(counter);
+            RequestTrace fork = trace != null ? RequestTrace.fork(trace) : null;
+            try {
+                return write.get();
+            } finally {
+                if (fork != null) {
+                    RequestTrace.stop(fork);
+                }
+                SqlStatementCounter.detach(previous);
+                MDC.clear();
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    /**
+     * Lets the accepted writes finish before the connection pool closes.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (this.pool == null) {
+            return;
+        }
+        this.pool.shutdown();
+        if (!this.pool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("{} writes dropped at shutdown", this.pool.shutdownNow().size());
+        }
+    }
+}
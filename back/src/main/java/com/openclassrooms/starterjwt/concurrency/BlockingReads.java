@@ -0,0 +1,59 @@
+package com.openclassrooms.starterjwt.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.IntFunction;
+
+/**
+ * Adapts the blocking JPA reads to Reactor. The reads run on a bounded scheduler sized like the
+ * connection pool, so that request threads are released while the database works; once its
+ * queue is full, further reads fail with a {@link java.util.concurrent.RejectedExecutionException}.
+ * <p>
+ * The reads themselves are timed by {@code reactive.read}: the controllers return before they run.
+ */
+@Component
+public class BlockingReads {
+    private final Scheduler scheduler;
+
+    private final Timer timer;
+
+    public BlockingReads(MeterRegistry meterRegistry,
+                         @Value("${oc.app.reactive.threads:10}") int threads,
+                         @Value("${oc.app.reactive.queueSize:1000}") int queueSize) {
+        this.scheduler = Schedulers.newBoundedElastic(threads, queueSize, "jpa-read");
+        this.timer = Timer.builder("reactive.read").publishPercentileHistogram().register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code read} on the read scheduler; a {@code null} result completes empty.
+     */
+    public <T> Mono<T> mono(Callable<T> read) {
+        return Mono.fromCallable(() -> this.timer.recordCallable(read)).subscribeOn(this.scheduler);
+    }
+
+    /**
+     * Emits the items of consecutive pages, querying the next page only once the subscriber has
+     * asked for more items than the previous pages held.
+     */
+    public <T> Flux<T> pages(IntFunction<List<T>> page, int pageSize) {
+        return Flux.range(0, Integer.MAX_VALUE)
+                .concatMap(index -> mono(() -> page.apply(index)), 1)
+                .takeUntil(items -> items.size() < pageSize)
+                .concatMapIterable(items -> items, 1);
+    }
+
+    @PreDestroy
+    public void dispose() {
+        this.scheduler.dispose();
+    }
+}
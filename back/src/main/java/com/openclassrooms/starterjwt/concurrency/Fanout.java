@@ -0,0 +1,236 @@
+package com.openclassrooms.starterjwt.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Delivers each published event to every subscriber without a thread per subscriber: an event is
+ * only added to the subscribers' bounded buffers, which a small dispatcher pool drains when they
+ * have something to send. An idle subscriber costs its buffer and nothing else.
+ * <p>
+ * A subscriber whose buffer is full is too slow to keep up: it is dropped and its sink closed,
+ * so that it cannot hold back the others nor grow the heap. A sink that fails is removed too, and
+ * so is one whose send has blocked for more than {@code sendTimeoutMs} when
+ * {@link #evictStalled()} runs: it stops receiving events at once, and its sink is failed by the
+ * dispatcher thread once the send gives up, on the server's write timeout or the sink's own. The
+ * dispatcher threads are pooled and never interrupted.
+ * <p>
+ * Counted by {@code fanout.published} and {@code fanout.dropped}, tagged with the name; the
+ * {@code fanout.subscribers} gauge follows the subscriber count.
+ */
+@Slf4j
+public class Fanout<T> {
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final String name;
+
+    private final Executor dispatcher;
+
+    private final int bufferSize;
+
+    private final long sendTimeoutNanos;
+
+    private final Counter published;
+
+    private final Counter dropped;
+
+    public Fanout(MeterRegistry meterRegistry, String name, Executor dispatcher, int bufferSize, long sendTimeoutMs) {
+        this.name = name;
+        this.dispatcher = dispatcher;
+        this.bufferSize = bufferSize;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.published = meterRegistry.counter("fanout.published", "name", name);
+        this.dropped = meterRegistry.counter("fanout.dropped", "name", name);
+        meterRegistry.gaugeCollectionSize("fanout.subscribers", Tags.of("name", name), this.subscribers);
+    }
+
+    public Subscription subscribe(Sink<T> sink) {
+        Subscriber subscriber = new Subscriber(sink);
+        this.subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    /**
+     * Never blocks: the event is buffered for each subscriber and sent by the dispatcher pool.
+     */
+    public void publish(T event) {
+        this.published.increment();
+        for (Subscriber subscriber : this.subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    public int subscribers() {
+        return this.subscribers.size();
+    }
+
+    /**
+     * Drops the subscribers whose current send started more than {@code sendTimeoutMs} ago, so that
+     * a client that stopped reading gets no more events. Meant to run periodically.
+     *
+     * @return the number of subscribers dropped
+     */
+    public int evictStalled() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Subscriber subscriber : this.subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > this.sendTimeoutNanos && subscriber.evict()) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public interface Sink<T> {
+        void send(T event) throws Exception;
+
+        void close();
+
+        /**
+         * Ends a subscriber dropped for blocking its sends, from the thread whose send has returned.
+         */
+        void fail(Throwable cause);
+    }
+
+    public interface Subscription {
+        void cancel();
+    }
+
+    private final class Subscriber implements Subscription, Runnable {
+        final Sink<T> sink;
+
+        final Queue<T> buffer = new ArrayBlockingQueue<>(bufferSize);
+
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        volatile boolean cancelled;
+
+        volatile boolean stalled;
+
+        volatile long sendingSince;
+
+        volatile Thread sender;
+
+        Subscriber(Sink<T> sink) {
+            this.sink = sink;
+        }
+
+        void offer(T event) {
+            if (this.cancelled) {
+                return;
+            }
+            if (!this.buffer.offer(event)) {
+                dropped.increment();
+                log.warn("Slow subscriber dropped {} {}", kv("fanout", name), kv("buffered", bufferSize));
+                close();
+                return;
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (!this.scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                dispatcher.execute(this);
+            } catch (RejectedExecutionException e) {
+                this.scheduled.set(false);
+                close();
+            }
+        }
+
+        @Override
+        public void run() {
+            this.sender = Thread.currentThread();
+            try {
+                T event;
+                while (!this.cancelled && (event = this.buffer.poll()) != null) {
+                    this.sendingSince = System.nanoTime();
+                    this.sink.send(event);
+                    this.sendingSince = 0;
+                }
+            } catch (Exception e) {
+                close();
+            } finally {
+                this.sendingSince = 0;
+                this.sender = null;
+                this.scheduled.set(false);
+            }
+            // Evicted during the send: the sink can only be failed once the send has returned
+            if (this.stalled) {
+                failSink();
+                return;
+            }
+            // An event offered after the last poll found the drain still scheduled
+            if (!this.cancelled && !this.buffer.isEmpty()) {
+                schedule();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            remove();
+        }
+
+        void close() {
+            if (remove()) {
+                closeSink();
+            }
+        }
+
+        boolean evict() {
+            if (!remove()) {
+                return false;
+            }
+            dropped.increment();
+            log.warn("Stalled subscriber dropped {} {}", kv("fanout", name),
+                    kv("send_timeout_ms", TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos)));
+            this.stalled = true;
+            // An SseEmitter holds its lock while sending: the sending thread fails it, see run()
+            if (this.sender == null) {
+                failSink();
+            }
+            return true;
+        }
+
+        private void closeSink() {
+            if (this.closed.compareAndSet(false, true)) {
+                this.sink.close();
+            }
+        }
+
+        private void failSink() {
+            if (this.closed.compareAndSet(false, true)) {
+                this.sink.fail(new TimeoutException("Send blocked for more than "
+                        + TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos) + " ms"));
+            }
+        }
+
+        private boolean remove() {
+            if (!subscribers.remove(this)) {
+                return false;
+            }
+            this.cancelled = true;
+            this.buffer.clear();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.openclassrooms.starterjwt.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller runs the call and the
+ * callers arriving while it runs wait for and share its result, or its exception. Nothing is
+ * kept once the call returns, so this is not a cache.
+ * <p>
+ * {@link #invalidate()} stops new callers from joining the calls already running, whose result
+ * may predate a write; they start a call of their own instead.
+ * <p>
+ * Counted by {@code singleflight.calls}, tagged with the name and {@code result=leader|collapsed}.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter leaders;
+
+    private final Counter collapsed;
+
+    public SingleFlight(MeterRegistry meterRegistry, String name) {
+        this.leaders = meterRegistry.counter("singleflight.calls", "name", name, "result", "leader");
+        this.collapsed = meterRegistry.counter("singleflight.calls", "name", name, "result", "collapsed");
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        long current = this.generation.get();
+        Flight<V> flight = new Flight<>(current);
+        Flight<V> running = this.flights.compute(key,
+                (k, existing) -> existing != null && existing.generation == current ? existing : flight);
+        if (running != flight) {
+            this.collapsed.increment();
+            return running.await();
+        }
+
+        this.leaders.increment();
+        try {
+            V value = call.get();
+            flight.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.flights.remove(key, flight);
+        }
+    }
+
+    public void invalidate() {
+        this.generation.incrementAndGet();
+    }
+
+    private static final class Flight<V> {
+        final long generation;
+
+        final CompletableFuture<V> result = new CompletableFuture<>();
+
+        Flight(long generation) {
+            this.generation = generation;
+        }
+
+        V await() {
+            try {
+                return this.result.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
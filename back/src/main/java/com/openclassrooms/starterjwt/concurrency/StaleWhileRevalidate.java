@@ -0,0 +1,134 @@
+package com.openclassrooms.starterjwt.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * A single cached value served without waiting for the database: once older than
+ * {@code refreshAfterNanos}, it is still returned while one background refresh replaces it.
+ * Only a value older than {@code maxStaleNanos} is reloaded by the caller, so a slow or failing
+ * database shows up as staleness, bounded, not latency. A value outdated by a write, through
+ * {@link #invalidate()}, is never served: the next read reloads it.
+ * <p>
+ * Reads are counted by {@code swr.reads}, tagged with the name and {@code result=fresh|stale|miss};
+ * failed background refreshes by {@code swr.refresh.failures}.
+ */
+@Slf4j
+public class StaleWhileRevalidate<V> {
+    private final String name;
+
+    private final Executor refresher;
+
+    private final long refreshAfterNanos;
+
+    private final long maxStaleNanos;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile Entry<V> entry;
+
+    private final Counter fresh;
+
+    private final Counter stale;
+
+    private final Counter miss;
+
+    private final Counter refreshFailures;
+
+    public StaleWhileRevalidate(MeterRegistry meterRegistry, String name, Executor refresher,
+                                long refreshAfterNanos, long maxStaleNanos) {
+        this.name = name;
+        this.refresher = refresher;
+        this.refreshAfterNanos = refreshAfterNanos;
+        this.maxStaleNanos = maxStaleNanos;
+        this.fresh = meterRegistry.counter("swr.reads", "name", name, "result", "fresh");
+        this.stale = meterRegistry.counter("swr.reads", "name", name, "result", "stale");
+        this.miss = meterRegistry.counter("swr.reads", "name", name, "result", "miss");
+        this.refreshFailures = meterRegistry.counter("swr.refresh.failures", "name", name);
+    }
+
+    public V get(Supplier<V> load) {
+        Entry<V> current = this.entry;
+        long now = System.nanoTime();
+        if (current == null || current.generation != this.generation.get()
+                || now - current.loadedAt > this.maxStaleNanos) {
+            this.miss.increment();
+            return load(load);
+        }
+        if (now - current.loadedAt > this.refreshAfterNanos) {
+            this.stale.increment();
+            refreshInBackground(load);
+        } else {
+            this.fresh.increment();
+        }
+        return current.value;
+    }
+
+    /**
+     * The cached value is outdated by a write: the next read reloads it instead of serving it.
+     * A load already running when this is called stores a value that is outdated as well.
+     */
+    public void invalidate() {
+        this.generation.incrementAndGet();
+    }
+
+    private V load(Supplier<V> load) {
+        long generation = this.generation.get();
+        long loadedAt = System.nanoTime();
+        V value = load.get();
+        store(new Entry<>(value, loadedAt, generation));
+        return value;
+    }
+
+    private synchronized void store(Entry<V> loaded) {
+        if (this.entry == null || loaded.loadedAt - this.entry.loadedAt > 0) {
+            this.entry = loaded;
+        }
+    }
+
+    private void refreshInBackground(Supplier<V> load) {
+        if (!this.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            this.refresher.execute(() -> {
+                try {
+                    load(load);
+                } catch (RuntimeException e) {
+                    this.refreshFailures.increment();
+                    log.warn("Background refresh failed, serving stale data {} {}", kv("cache", this.name),
+                            kv("error", e.toString()));
+                } finally {
+                    this.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.refreshing.set(false);
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+
+        final long loadedAt;
+
+        final long generation;
+
+        Entry(V value, long loadedAt, long generation) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.generation = generation;
+        }
+    }
+}
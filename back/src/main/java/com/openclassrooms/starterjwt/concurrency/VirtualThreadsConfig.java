@@ -0,0 +1,29 @@
+package com.openclassrooms.starterjwt.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Serves the requests on virtual threads when {@code oc.app.threads.virtual} is set and the
+ * runtime supports them. Requests are then no longer capped by the Tomcat thread pool but by the
+ * connection pool: a request waits at most the Hikari connection timeout for a connection, then
+ * gets a 503 from {@code DatabaseUnavailableHandler}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "oc.app.threads.virtual", havingValue = "true")
+@Slf4j
+public class VirtualThreadsConfig {
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        if (!VirtualThreads.isSupported()) {
+            log.warn("Virtual threads need Java 21 or later, requests stay on the platform thread pool");
+            return protocolHandler -> {
+            };
+        }
+        log.info("Serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newExecutor("http-vt-"));
+    }
+}
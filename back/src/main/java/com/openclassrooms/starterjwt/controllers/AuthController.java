@@ -23,8 +23,11 @@ import com.openclassrooms.starterjwt.repository.UserRepository;
 import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
 import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
 
+import io.micrometer.core.annotation.Timed;
+
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
+@Timed(histogram = true)
 @RequestMapping("/api/auth")
 public class AuthController {
     private final AuthenticationManager authenticationManager;
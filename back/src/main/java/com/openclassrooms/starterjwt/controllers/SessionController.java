@@ -1,26 +1,59 @@
 package com.openclassrooms.starterjwt.controllers;
 
+import com.openclassrooms.starterjwt.concurrency.AsyncWrites;
+import com.openclassrooms.starterjwt.dto.SessionChangesDto;
 import com.openclassrooms.starterjwt.dto.SessionDto;
 import com.openclassrooms.starterjwt.mapper.SessionMapper;
 import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.payload.response.EventsTokenResponse;
+import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import com.openclassrooms.starterjwt.services.SessionChanges;
+import com.openclassrooms.starterjwt.services.SessionEvents;
 import com.openclassrooms.starterjwt.services.SessionService;
+import com.openclassrooms.starterjwt.services.UserService;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
+@Timed(histogram = true)
 @RequestMapping("/api/session")
 @Slf4j
 public class SessionController {
+    private static final long MAX_RANGE_MS = TimeUnit.DAYS.toMillis(366);
+
     private final SessionMapper sessionMapper;
     private final SessionService sessionService;
+    private final UserService userService;
+    private final AsyncWrites asyncWrites;
+    private final SessionEvents sessionEvents;
 
-    public SessionController(SessionMapper sessionMapper, SessionService sessionService) {
+    private final JwtUtils jwtUtils;
+
+    public SessionController(SessionMapper sessionMapper, SessionService sessionService, UserService userService,
+                             AsyncWrites asyncWrites, SessionEvents sessionEvents, JwtUtils jwtUtils) {
         this.sessionMapper = sessionMapper;
         this.sessionService = sessionService;
+        this.userService = userService;
+        this.asyncWrites = asyncWrites;
+        this.sessionEvents = sessionEvents;
+        this.jwtUtils = jwtUtils;
     }
 
     @GetMapping("/{id}")
@@ -42,23 +75,86 @@ public class SessionController {
         return ResponseEntity.ok().body(this.sessionMapper.toDto(sessions));
     }
 
+    @GetMapping(value = "", params = "view=compact")
+    public ResponseEntity<?> findAllCompact() {
+        return ResponseEntity.ok().body(this.sessionService.findAllCompact());
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<?> findChanges(@RequestParam(value = "since", required = false) Long since,
+                                         @RequestParam(value = "after", required = false) Long after,
+                                         @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        SessionChanges changes = this.sessionService.findChanges(since == null ? -1 : since, after, limit);
+        return ResponseEntity.ok().body(new SessionChangesDto(changes.getCursor(), changes.isReset(), changes.isMore(),
+                changes.getAfter(), this.sessionMapper.toDto(changes.getSessions()), changes.getDeleted()));
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events() {
+        return this.sessionEvents.subscribe();
+    }
+
+    /**
+     * For {@code new EventSource("/api/session/events?token=...")}. The token only opens the stream,
+     * which stays open after it expires: a client fetches a new one each time it reconnects.
+     */
+    @PostMapping("/events/token")
+    public ResponseEntity<?> eventsToken() {
+        UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return ResponseEntity.ok().body(new EventsTokenResponse(this.jwtUtils.generateEventsToken(userDetails.getUsername())));
+    }
+
+    @GetMapping(value = "", params = { "from", "to" })
+    public ResponseEntity<?> findBetween(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date from,
+                                         @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date to,
+                                         @RequestParam(value = "teacherId", required = false) Long teacherId) {
+        if (!from.before(to) || to.getTime() - from.getTime() > MAX_RANGE_MS) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Session> sessions = this.sessionService.findBetween(from, to, teacherId);
+        return ResponseEntity.ok().body(this.sessionMapper.toDto(sessions));
+    }
+
+    @GetMapping(value = "", params = "participant")
+    public ResponseEntity<?> findByParticipant(@RequestParam("participant") String participant,
+                                               @RequestParam(value = "page", defaultValue = "0") int page,
+                                               @RequestParam(value = "size", defaultValue = "20") int size) {
+        if (!"me".equals(participant)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Long userId;
+        if (userDetails instanceof UserDetailsImpl) {
+            userId = ((UserDetailsImpl) userDetails).getId();
+        } else {
+            User user = this.userService.findByEmail(userDetails.getUsername());
+            if (user == null) {
+                return ResponseEntity.notFound().build();
+            }
+            userId = user.getId();
+        }
+
+        return ResponseEntity.ok().body(this.sessionService.findByParticipant(userId, page, size));
+    }
+
     @PostMapping("")
     public ResponseEntity<?> create(@RequestBody SessionDto sessionDto) {
-        log.info("Creating session: {}", sessionDto);
         Session session = this.sessionMapper.toEntity(sessionDto);
         Session created = this.sessionService.create(session);
+        log.info("Session created {} {}", kv("session_id", created.getId()), kv("teacher_id", sessionDto.getTeacher_id()));
         return ResponseEntity.ok().body(this.sessionMapper.toDto(created));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<?> update(@PathVariable("id") String id, @RequestBody SessionDto sessionDto) {
-        log.info("Updating session: {}", sessionDto);
         try {
             Session session = this.sessionMapper.toEntity(sessionDto);
             Session updated = this.sessionService.update(Long.valueOf(id), session);
             if (updated == null) {
                 return ResponseEntity.notFound().build();
             }
+            log.info("Session updated {} {}", kv("session_id", updated.getId()), kv("teacher_id", sessionDto.getTeacher_id()));
             return ResponseEntity.ok().body(this.sessionMapper.toDto(updated));
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().build();
@@ -76,22 +172,34 @@ public class SessionController {
     }
 
     @PostMapping("/{id}/participate/{userId}")
-    public ResponseEntity<?> participate(@PathVariable("id") String id, @PathVariable("userId") String userId) {
+    public CompletableFuture<ResponseEntity<?>> participate(@PathVariable("id") String id, @PathVariable("userId") String userId) {
+        Long sessionId;
+        Long participantId;
         try {
-            this.sessionService.participate(Long.valueOf(id), Long.valueOf(userId));
-            return ResponseEntity.ok().build();
+            sessionId = Long.valueOf(id);
+            participantId = Long.valueOf(userId);
         } catch (NumberFormatException e) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
+        return this.asyncWrites.supply(() -> {
+            this.sessionService.participate(sessionId, participantId);
+            return ResponseEntity.ok().build();
+        });
     }
 
     @DeleteMapping("/{id}/participate/{userId}")
-    public ResponseEntity<?> noLongerParticipate(@PathVariable("id") String id, @PathVariable("userId") String userId) {
+    public CompletableFuture<ResponseEntity<?>> noLongerParticipate(@PathVariable("id") String id, @PathVariable("userId") String userId) {
+        Long sessionId;
+        Long participantId;
         try {
-            this.sessionService.noLongerParticipate(Long.valueOf(id), Long.valueOf(userId));
-            return ResponseEntity.ok().build();
+            sessionId = Long.valueOf(id);
+            participantId = Long.valueOf(userId);
         } catch (NumberFormatException e) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
+        return this.asyncWrites.supply(() -> {
+            this.sessionService.noLongerParticipate(sessionId, participantId);
+            return ResponseEntity.ok().build();
+        });
     }
 }
@@ -0,0 +1,64 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.concurrency.BlockingReads;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.mapper.SessionMapper;
+import com.openclassrooms.starterjwt.services.SessionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of the session reads of {@link SessionController}: the request thread is
+ * released while the database is queried. With {@code Accept: application/x-ndjson} the list is
+ * streamed one session per line, page by page as the client reads it.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/reactive/session")
+public class SessionReactiveController {
+    static final int PAGE_SIZE = 50;
+
+    private final SessionMapper sessionMapper;
+    private final SessionService sessionService;
+    private final BlockingReads blockingReads;
+    private final int pageSize;
+
+    public SessionReactiveController(SessionMapper sessionMapper, SessionService sessionService,
+                                     BlockingReads blockingReads) {
+        this(sessionMapper, sessionService, blockingReads, PAGE_SIZE);
+    }
+
+    @Autowired
+    public SessionReactiveController(SessionMapper sessionMapper, SessionService sessionService,
+                                     BlockingReads blockingReads,
+                                     @Value("${oc.app.reactive.pageSize:" + PAGE_SIZE + "}") int pageSize) {
+        this.sessionMapper = sessionMapper;
+        this.sessionService = sessionService;
+        this.blockingReads = blockingReads;
+        this.pageSize = pageSize;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<SessionDto>> findById(@PathVariable("id") String id) {
+        Long sessionId;
+        try {
+            sessionId = Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return this.blockingReads.mono(() -> this.sessionService.getById(sessionId))
+                .map(session -> ResponseEntity.ok().body(this.sessionMapper.toDto(session)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<SessionDto> findAll() {
+        return this.blockingReads.pages(
+                page -> this.sessionMapper.toDto(this.sessionService.findPage(page, this.pageSize)), this.pageSize);
+    }
+}
@@ -0,0 +1,69 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.concurrency.AsyncWrites;
+import com.openclassrooms.starterjwt.dto.SessionSeriesDto;
+import com.openclassrooms.starterjwt.mapper.SessionSeriesMapper;
+import com.openclassrooms.starterjwt.models.SessionSeries;
+import com.openclassrooms.starterjwt.services.SessionSeriesService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@Timed(histogram = true)
+@RequestMapping("/api/series")
+public class SessionSeriesController {
+    private final SessionSeriesMapper sessionSeriesMapper;
+    private final SessionSeriesService sessionSeriesService;
+    private final AsyncWrites asyncWrites;
+
+    public SessionSeriesController(SessionSeriesMapper sessionSeriesMapper, SessionSeriesService sessionSeriesService,
+                                   AsyncWrites asyncWrites) {
+        this.sessionSeriesMapper = sessionSeriesMapper;
+        this.sessionSeriesService = sessionSeriesService;
+        this.asyncWrites = asyncWrites;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> findById(@PathVariable("id") String id) {
+        try {
+            SessionSeries series = this.sessionSeriesService.getById(Long.valueOf(id));
+            if (series == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok().body(this.sessionSeriesMapper.toDto(series));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("")
+    public ResponseEntity<?> findAll() {
+        List<SessionSeries> series = this.sessionSeriesService.findAll();
+        return ResponseEntity.ok().body(this.sessionSeriesMapper.toDto(series));
+    }
+
+    @PostMapping("")
+    public CompletableFuture<ResponseEntity<?>> create(@Valid @RequestBody SessionSeriesDto sessionSeriesDto) {
+        SessionSeries series = this.sessionSeriesMapper.toEntity(sessionSeriesDto);
+        return this.asyncWrites.supply(() -> {
+            SessionSeries created = this.sessionSeriesService.create(series);
+            return ResponseEntity.ok().body(this.sessionSeriesMapper.toDto(created));
+        });
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> delete(@PathVariable("id") String id) {
+        try {
+            this.sessionSeriesService.delete(Long.valueOf(id));
+            return ResponseEntity.ok().build();
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
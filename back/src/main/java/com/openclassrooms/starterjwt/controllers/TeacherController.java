@@ -3,14 +3,21 @@ package com.openclassrooms.starterjwt.controllers;
 import com.openclassrooms.starterjwt.mapper.TeacherMapper;
 import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.services.TeacherService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
+@Timed(histogram = true)
 @RequestMapping("/api/teacher")
 public class TeacherController {
+    private static final long MAX_RANGE_MS = TimeUnit.DAYS.toMillis(366);
+
     private final TeacherMapper teacherMapper;
     private final TeacherService teacherService;
 
@@ -36,6 +43,26 @@ public class TeacherController {
         }
     }
 
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<?> findAvailability(@PathVariable("id") String id,
+                                              @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date from,
+                                              @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date to) {
+        try {
+            if (!from.before(to) || to.getTime() - from.getTime() > MAX_RANGE_MS) {
+                return ResponseEntity.badRequest().build();
+            }
+
+            Teacher teacher = this.teacherService.findById(Long.valueOf(id));
+            if (teacher == null) {
+                return ResponseEntity.notFound().build();
+            }
+
+            return ResponseEntity.ok().body(this.teacherService.findAvailability(teacher.getId(), from, to));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping()
     public ResponseEntity<?> findAll() {
         List<Teacher> teachers = this.teacherService.findAll();
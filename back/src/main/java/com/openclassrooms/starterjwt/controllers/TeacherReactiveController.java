@@ -0,0 +1,79 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.concurrency.BlockingReads;
+import com.openclassrooms.starterjwt.dto.TeacherDto;
+import com.openclassrooms.starterjwt.dto.TimeSlotDto;
+import com.openclassrooms.starterjwt.mapper.TeacherMapper;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.services.TeacherService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking variant of the teacher reads of {@link TeacherController}.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/reactive/teacher")
+public class TeacherReactiveController {
+    private static final long MAX_RANGE_MS = TimeUnit.DAYS.toMillis(366);
+
+    private final TeacherMapper teacherMapper;
+    private final TeacherService teacherService;
+    private final BlockingReads blockingReads;
+
+    public TeacherReactiveController(TeacherService teacherService, TeacherMapper teacherMapper,
+                                     BlockingReads blockingReads) {
+        this.teacherMapper = teacherMapper;
+        this.teacherService = teacherService;
+        this.blockingReads = blockingReads;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<TeacherDto>> findById(@PathVariable("id") String id) {
+        Long teacherId;
+        try {
+            teacherId = Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return this.blockingReads.mono(() -> this.teacherService.findById(teacherId))
+                .map(teacher -> ResponseEntity.ok().body(this.teacherMapper.toDto(teacher)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/availability")
+    public Mono<ResponseEntity<List<TimeSlotDto>>> findAvailability(@PathVariable("id") String id,
+                                                                 @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date from,
+                                                                 @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date to) {
+        Long teacherId;
+        try {
+            teacherId = Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (!from.before(to) || to.getTime() - from.getTime() > MAX_RANGE_MS) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return this.blockingReads.mono(() -> {
+            Teacher teacher = this.teacherService.findById(teacherId);
+            return teacher == null ? null : this.teacherService.findAvailability(teacher.getId(), from, to);
+        })
+                .map(slots -> ResponseEntity.ok().body(slots))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<TeacherDto> findAll() {
+        return this.blockingReads.mono(() -> this.teacherMapper.toDto(this.teacherService.findAll()))
+                .flatMapIterable(teachers -> teachers);
+    }
+}
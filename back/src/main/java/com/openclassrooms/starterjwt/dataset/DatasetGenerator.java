@@ -0,0 +1,209 @@
+package com.openclassrooms.starterjwt.dataset;
+
+import com.openclassrooms.starterjwt.models.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk-loads a synthetic dataset through batched JDBC inserts. The same seed always yields
+ * the same rows, relative to the ids already present in the tables.
+ */
+@Component
+@Slf4j
+public class DatasetGenerator {
+    static final String EMAIL_PREFIX = "perf.";
+
+    // BCrypt of "test!1234", the password of the seeded admin account
+    static final String PASSWORD_HASH = "$2a$10$.Hsa/ZjUVaHqi0tp9xieMeewrnZxrZ5pQRzddUXE/WjDu2ZThe6Iq";
+
+    // Sessions of a teacher are this far apart so that none of them overlap
+    static final long SLOT_MS = TimeUnit.MINUTES.toMillis(90);
+
+    private static final String[] FIRST_NAMES = { "Alice", "Bruno", "Chloé", "David", "Emma", "Farid", "Gaëlle",
+            "Hugo", "Inès", "Julien", "Karim", "Léa", "Mehdi", "Nina", "Oscar", "Paul" };
+
+    private static final String[] LAST_NAMES = { "MARTIN", "BERNARD", "DUBOIS", "THOMAS", "ROBERT", "RICHARD",
+            "PETIT", "DURAND", "LEROY", "MOREAU", "SIMON", "LAURENT", "LEFEBVRE", "MICHEL" };
+
+    private static final String[] KINDS = { "Hatha", "Vinyasa", "Yin", "Ashtanga", "Kundalini", "Restorative" };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final long seed;
+
+    private final int batchSize;
+
+    private final Instant start;
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate,
+                            @Value("${oc.app.dataset.seed:42}") long seed,
+                            @Value("${oc.app.dataset.batchSize:1000}") int batchSize,
+                            @Value("${oc.app.dataset.startDate:2026-01-05T08:00:00Z}") String startDate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seed = seed;
+        this.batchSize = batchSize;
+        this.start = Instant.parse(startDate);
+    }
+
+    public boolean isLoaded() {
+        Long count = this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM USERS WHERE email LIKE ?", Long.class,
+                EMAIL_PREFIX + "%");
+        return count != null && count > 0;
+    }
+
+    public void generate(DatasetSize size) {
+        if (size.getTeachers() < 1 || size.getSessions() < 0 || size.getUsers() < 0 || size.getParticipations() < 0) {
+            throw new IllegalArgumentException("Invalid dataset size: " + size);
+        }
+        if (size.getParticipations() > (long) size.getSessions() * size.getUsers()) {
+            throw new IllegalArgumentException("More participations than (session, user) pairs: " + size);
+        }
+
+        Random random = new Random(this.seed);
+        long teacherBase = maxId("TEACHERS");
+        long userBase = maxId("USERS");
+        long sessionBase = maxId("SESSIONS");
+
+        long started = System.nanoTime();
+        insertTeachers(size, teacherBase, random);
+        insertUsers(size, userBase, random);
+        insertSessions(size, sessionBase, teacherBase, random);
+        insertParticipations(size, sessionBase, userBase, random);
+        log.info("Generated dataset {} in {} ms", size, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private void insertTeachers(DatasetSize size, long base, Random random) {
+        String[][] names = names(size.getTeachers(), random);
+        insert("INSERT INTO TEACHERS (id, first_name, last_name) VALUES (?, ?, ?)", size.getTeachers(),
+                (ps, i) -> {
+                    ps.setLong(1, base + i + 1);
+                    ps.setString(2, names[i][0]);
+                    ps.setString(3, names[i][1]);
+                });
+    }
+
+    private void insertUsers(DatasetSize size, long base, Random random) {
+        String[][] names = names(size.getUsers(), random);
+        insert("INSERT INTO USERS (id, first_name, last_name, admin, email, password) VALUES (?, ?, ?, false, ?, ?)",
+                size.getUsers(), (ps, i) -> {
+                    ps.setLong(1, base + i + 1);
+                    ps.setString(2, names[i][0]);
+                    ps.setString(3, names[i][1]);
+                    ps.setString(4, EMAIL_PREFIX + "user" + i + "@yoga.studio");
+                    ps.setString(5, PASSWORD_HASH);
+                });
+    }
+
+    private void insertSessions(DatasetSize size, long base, long teacherBase, Random random) {
+        int teachers = size.getTeachers();
+        int[] kinds = new int[size.getSessions()];
+        for (int i = 0; i < kinds.length; i++) {
+            kinds[i] = random.nextInt(KINDS.length);
+        }
+        long startMs = this.start.toEpochMilli();
+        insert("INSERT INTO SESSIONS (id, name, description, date, duration, teacher_id) VALUES (?, ?, ?, ?, ?, ?)",
+                size.getSessions(), (ps, i) -> {
+                    ps.setLong(1, base + i + 1);
+                    ps.setString(2, KINDS[kinds[i]] + " #" + i);
+                    ps.setString(3, KINDS[kinds[i]] + " yoga session");
+                    ps.setTimestamp(4, new Timestamp(startMs + (i / teachers) * SLOT_MS));
+                    ps.setInt(5, Session.DEFAULT_DURATION);
+                    ps.setLong(6, teacherBase + (i % teachers) + 1);
+                });
+    }
+
+    /**
+     * Spreads the participations evenly over the sessions. The users of a session are
+     * {@code offset + j * step (mod users)} with {@code step} coprime to the user count, so
+     * that a (user, session) pair never repeats.
+     */
+    private void insertParticipations(DatasetSize size, long sessionBase, long userBase, Random random) {
+        int sessions = size.getSessions();
+        int users = size.getUsers();
+        if (sessions == 0 || size.getParticipations() == 0) {
+            return;
+        }
+
+        int[] offsets = new int[sessions];
+        for (int i = 0; i < sessions; i++) {
+            offsets[i] = random.nextInt(users);
+        }
+        long step = coprimeStep(users);
+        int perSession = size.getParticipations() / sessions;
+        int remainder = size.getParticipations() % sessions;
+        int fullRows = remainder * (perSession + 1);
+
+        insert("INSERT INTO PARTICIPATE (user_id, session_id) VALUES (?, ?)", size.getParticipations(), (ps, row) -> {
+            int session;
+            int rank;
+            if (row < fullRows) {
+                session = row / (perSession + 1);
+                rank = row % (perSession + 1);
+            } else {
+                session = remainder + (row - fullRows) / perSession;
+                rank = (row - fullRows) % perSession;
+            }
+            ps.setLong(1, userBase + (offsets[session] + rank * step) % users + 1);
+            ps.setLong(2, sessionBase + session + 1);
+        });
+    }
+
+    private void insert(String sql, int rows, RowSetter setter) {
+        for (int from = 0; from < rows; from += this.batchSize) {
+            int first = from;
+            int count = Math.min(this.batchSize, rows - from);
+            this.jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    setter.set(ps, first + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+        }
+    }
+
+    private long maxId(String table) {
+        Long max = this.jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    private static String[][] names(int count, Random random) {
+        String[][] names = new String[count][];
+        for (int i = 0; i < count; i++) {
+            names[i] = new String[] { FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)] };
+        }
+        return names;
+    }
+
+    static long coprimeStep(int users) {
+        long step = 7919 % Math.max(users, 1);
+        while (step == 0 || gcd(step, users) != 1) {
+            step++;
+        }
+        return step;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    @FunctionalInterface
+    private interface RowSetter {
+        void set(PreparedStatement ps, int row) throws SQLException;
+    }
+}
@@ -0,0 +1,39 @@
+package com.openclassrooms.starterjwt.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the synthetic dataset when the application starts with the {@code perf} profile,
+ * unless a previous start already did.
+ */
+@Component
+@Profile("perf")
+@Slf4j
+public class DatasetLoader implements ApplicationRunner {
+    private final DatasetGenerator datasetGenerator;
+
+    private final DatasetSize size;
+
+    public DatasetLoader(DatasetGenerator datasetGenerator,
+                         @Value("${oc.app.dataset.teachers}") int teachers,
+                         @Value("${oc.app.dataset.users}") int users,
+                         @Value("${oc.app.dataset.sessions}") int sessions,
+                         @Value("${oc.app.dataset.participations}") int participations) {
+        this.datasetGenerator = datasetGenerator;
+        this.size = new DatasetSize(teachers, users, sessions, participations);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (this.datasetGenerator.isLoaded()) {
+            log.info("Synthetic dataset already loaded, skipping generation");
+            return;
+        }
+        this.datasetGenerator.generate(this.size);
+    }
+}
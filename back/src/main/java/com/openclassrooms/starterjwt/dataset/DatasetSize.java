@@ -0,0 +1,18 @@
+package com.openclassrooms.starterjwt.dataset;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatasetSize {
+    private int teachers;
+
+    private int users;
+
+    private int sessions;
+
+    private int participations;
+}
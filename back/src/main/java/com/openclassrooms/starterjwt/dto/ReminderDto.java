@@ -0,0 +1,27 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * A reminder to send: the upcoming session and the participant to remind of it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderDto {
+    private Long sessionId;
+
+    private String sessionName;
+
+    private Date date;
+
+    private Long userId;
+
+    private String email;
+
+    private String firstName;
+}
@@ -0,0 +1,30 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Answer of GET /api/session/changes: the sessions created or updated and the ids of the
+ * sessions deleted after {@code since}. The client stores {@code cursor} for its next call,
+ * drops its copy first when {@code reset} is set, and calls again at once while {@code more} is set,
+ * passing {@code after} back with the same cursor when it is set: the rest of a reset, by session id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionChangesDto {
+    private Long cursor;
+
+    private boolean reset;
+
+    private boolean more;
+
+    private Long after;
+
+    private List<SessionDto> sessions;
+
+    private List<Long> deleted;
+}
@@ -0,0 +1,27 @@
+package com.openclassrooms.starterjwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * List view of a session: the participant ids are replaced by their count.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionCompactDto {
+    private Long id;
+
+    private String name;
+
+    private Date date;
+
+    private Integer duration;
+
+    private Long teacher_id;
+
+    private Long participant_count;
+}
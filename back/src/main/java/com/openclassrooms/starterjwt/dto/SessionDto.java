@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
@@ -24,6 +26,10 @@ public class SessionDto {
     @NotNull
     private Date date;
 
+    @Min(1)
+    @Max(480)
+    private Integer duration;
+
     @NotNull
     private Long teacher_id;
 
@@ -33,7 +39,14 @@ public class SessionDto {
 
     private List<Long> users;
 
+    private Long series_id;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
+
+    public SessionDto(Long id, String name, Date date, Long teacher_id, String description, List<Long> users,
+                      LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, name, date, null, teacher_id, description, users, null, createdAt, updatedAt);
+    }
 }
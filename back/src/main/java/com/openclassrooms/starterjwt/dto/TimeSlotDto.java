@@ -0,0 +1,32 @@
+package com.openclassrooms.starterjwt.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Half-open time interval [start, end), either booked by a session or free.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSlotDto {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long sessionId;
+
+    private Date start;
+
+    private Date end;
+
+    public TimeSlotDto(Long sessionId, Date start, Integer duration) {
+        this(sessionId, start, new Date(start.getTime() + TimeUnit.MINUTES.toMillis(duration)));
+    }
+
+    public boolean overlaps(Date otherStart, Date otherEnd) {
+        return this.start.before(otherEnd) && otherStart.before(this.end);
+    }
+}
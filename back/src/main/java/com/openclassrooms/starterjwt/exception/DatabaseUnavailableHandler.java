@@ -0,0 +1,34 @@
+package com.openclassrooms.starterjwt.exception;
+
+import com.openclassrooms.starterjwt.payload.response.MessageResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.JDBCConnectionException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * No connection could be obtained within the pool's connection-timeout, or the queue of the
+ * reactive reads or of the async writes is full: fail fast with a 503 so that clients back off
+ * instead of piling up behind a saturated pool.
+ */
+@RestControllerAdvice
+@Slf4j
+public class DatabaseUnavailableHandler {
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    @ExceptionHandler({ CannotCreateTransactionException.class, DataAccessResourceFailureException.class,
+            JDBCConnectionException.class, RejectedExecutionException.class })
+    public ResponseEntity<MessageResponse> handleDatabaseUnavailable(Exception e) {
+        log.warn("Database unavailable: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(new MessageResponse("Database unavailable, please retry"));
+    }
+}
@@ -30,6 +30,8 @@ public abstract class SessionMapper implements EntityMapper<SessionDto, Session>
                         @Mapping(source = "description", target = "description"),
                         @Mapping(target = "teacher", expression = "java(sessionDto.getTeacher_id() != null ? this.teacherService.findById(sessionDto.getTeacher_id()) : null)"),
                         @Mapping(target = "users", expression = "java(Optional.ofNullable(sessionDto.getUsers()).orElseGet(Collections::emptyList).stream().map(user_id -> this.userService.findById(user_id)).filter(user -> user != null).collect(Collectors.toList()))"),
+                        @Mapping(source = "series_id", target = "seriesId"),
+                        @Mapping(source = "duration", target = "duration", defaultValue = "60"),
         })
         public abstract Session toEntity(SessionDto sessionDto);
 
@@ -37,6 +39,7 @@ public abstract class SessionMapper implements EntityMapper<SessionDto, Session>
                         @Mapping(source = "description", target = "description"),
                         @Mapping(source = "session.teacher.id", target = "teacher_id"),
                         @Mapping(target = "users", expression = "java(Optional.ofNullable(session.getUsers()).orElseGet(Collections::emptyList).stream().map(u -> u.getId()).collect(Collectors.toList()))"),
+                        @Mapping(source = "seriesId", target = "series_id"),
         })
         public abstract SessionDto toDto(Session session);
 }
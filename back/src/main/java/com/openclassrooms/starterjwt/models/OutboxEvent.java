@@ -0,0 +1,46 @@
+package com.openclassrooms.starterjwt.models;
+
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A session domain event waiting in the outbox for the relay. Written in the transaction of the
+ * session write, so it exists if and only if the write committed.
+ */
+@Entity
+@Table(name = "SESSION_OUTBOX")
+@Data
+@EqualsAndHashCode(of = { "id" })
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    public enum Type {
+        SESSION_CREATED, SESSION_UPDATED, SESSION_DELETED, PARTICIPANT_ADDED, PARTICIPANT_REMOVED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private Type type;
+
+    @Column(name = "session_id")
+    private Long sessionId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @CreationTimestamp
+    @Column(name = "occurred_at", updatable = false)
+    private LocalDateTime occurredAt;
+
+    public OutboxEvent(Type type, Long sessionId, Long userId) {
+        this.type = type;
+        this.sessionId = sessionId;
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,205 @@
+package com.openclassrooms.starterjwt.models;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Subset of the iCalendar RRULE syntax used by {@link SessionSeries}:
+ * FREQ (DAILY or WEEKLY), INTERVAL, COUNT, UNTIL and BYDAY (WEEKLY only),
+ * e.g. {@code FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,WE}.
+ * <p>
+ * Occurrences are local date-times, of the system zone unless another is given to
+ * {@link #parse(String, ZoneId)}; an UNTIL ending in {@code Z} is a UTC instant, converted to that zone.
+ */
+public final class Recurrence {
+
+    public enum Frequency {
+        DAILY, WEEKLY
+    }
+
+    private static final DateTimeFormatter UNTIL_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter UNTIL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count;
+    private final LocalDateTime until;
+    private final Set<DayOfWeek> byDay;
+
+    private Recurrence(Frequency frequency, int interval, Integer count, LocalDateTime until, Set<DayOfWeek> byDay) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.byDay = byDay;
+    }
+
+    public static Recurrence parse(String rule) {
+        return parse(rule, ZoneId.systemDefault());
+    }
+
+    public static Recurrence parse(String rule, ZoneId zone) {
+        if (rule == null || rule.trim().isEmpty()) {
+            throw new IllegalArgumentException("Recurrence rule is empty");
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDateTime until = null;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+
+        for (String part : rule.trim().split(";")) {
+            String[] keyValue = part.split("=", 2);
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Malformed recurrence part: " + part);
+            }
+            String value = keyValue[1].trim().toUpperCase();
+            switch (keyValue[0].trim().toUpperCase()) {
+                case "FREQ":
+                    frequency = Frequency.valueOf(value);
+                    break;
+                case "INTERVAL":
+                    interval = Integer.parseInt(value);
+                    break;
+                case "COUNT":
+                    count = Integer.parseInt(value);
+                    break;
+                case "UNTIL":
+                    until = parseUntil(value, zone);
+                    break;
+                case "BYDAY":
+                    for (String day : value.split(",")) {
+                        byDay.add(parseDay(day.trim()));
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported recurrence part: " + part);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule has no FREQ");
+        }
+        if (interval < 1 || (count != null && count < 1)) {
+            throw new IllegalArgumentException("INTERVAL and COUNT must be positive");
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("COUNT and UNTIL are mutually exclusive");
+        }
+        if (frequency != Frequency.WEEKLY && !byDay.isEmpty()) {
+            throw new IllegalArgumentException("BYDAY is only supported with FREQ=WEEKLY");
+        }
+
+        return new Recurrence(frequency, interval, count, until, byDay);
+    }
+
+    /**
+     * Occurrences of a series starting at {@code start} that fall in the
+     * half-open range [from, to), in chronological order.
+     */
+    public List<LocalDateTime> between(LocalDateTime start, LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return occurrences;
+        }
+
+        Set<DayOfWeek> days = this.byDay.isEmpty() ? EnumSet.of(start.getDayOfWeek()) : this.byDay;
+        LocalDateTime periodStart = this.frequency == Frequency.WEEKLY
+                ? start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : start;
+        ChronoUnit unit = this.frequency == Frequency.WEEKLY ? ChronoUnit.WEEKS : ChronoUnit.DAYS;
+
+        // Without COUNT the occurrence index does not matter, so skip the periods before "from".
+        long period = 0;
+        if (this.count == null && from.isAfter(periodStart)) {
+            long elapsed = unit.between(periodStart, from);
+            period = Math.max(0, (elapsed / this.interval - 1) * this.interval);
+        }
+
+        int emitted = 0;
+        while (true) {
+            LocalDateTime base = periodStart.plus(period, unit);
+            if (!base.isBefore(to) || (this.until != null && base.isAfter(this.until))) {
+                return occurrences;
+            }
+
+            for (DayOfWeek day : days) {
+                LocalDateTime candidate = this.frequency == Frequency.WEEKLY
+                        ? base.plusDays(day.getValue() - DayOfWeek.MONDAY.getValue())
+                        : base;
+                if (candidate.isBefore(start)) {
+                    continue;
+                }
+                emitted++;
+                if ((this.count != null && emitted > this.count)
+                        || (this.until != null && candidate.isAfter(this.until))
+                        || !candidate.isBefore(to)) {
+                    return occurrences;
+                }
+                if (!candidate.isBefore(from)) {
+                    occurrences.add(candidate);
+                }
+            }
+
+            period += this.interval;
+        }
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public LocalDateTime getUntil() {
+        return until;
+    }
+
+    public Set<DayOfWeek> getByDay() {
+        return byDay.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(byDay);
+    }
+
+    private static LocalDateTime parseUntil(String value, ZoneId zone) {
+        try {
+            if (value.length() == 8) {
+                return LocalDate.parse(value, UNTIL_DATE).atTime(23, 59, 59);
+            }
+            if (value.endsWith("Z")) {
+                return LocalDateTime.parse(value.substring(0, value.length() - 1), UNTIL_DATE_TIME)
+                        .atOffset(ZoneOffset.UTC)
+                        .atZoneSameInstant(zone)
+                        .toLocalDateTime();
+            }
+            return LocalDateTime.parse(value, UNTIL_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed UNTIL: " + value, e);
+        }
+    }
+
+    private static DayOfWeek parseDay(String value) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().startsWith(value) && value.length() == 2) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Unknown BYDAY value: " + value);
+    }
+}
@@ -7,6 +7,8 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.*;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
@@ -15,7 +17,10 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "SESSIONS")
+@Table(name = "SESSIONS", indexes = {
+        @Index(name = "idx_sessions_date", columnList = "date"),
+        @Index(name = "idx_sessions_teacher_date", columnList = "teacher_id, date")
+})
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @Accessors(chain = true)
@@ -27,6 +32,10 @@ import java.util.List;
 @Getter
 @Setter
 public class Session {
+    public static final int DEFAULT_DURATION = 60;
+
+    public static final int MAX_DURATION = 480;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -38,6 +47,12 @@ public class Session {
     @NotNull
     private Date date;
 
+    @NotNull
+    @Min(1)
+    @Max(MAX_DURATION)
+    @Builder.Default
+    private Integer duration = DEFAULT_DURATION;
+
     @NotNull
     @Size(max = 2500)
     private String description;
@@ -50,6 +65,9 @@ public class Session {
     @JoinTable(name = "PARTICIPATE", joinColumns = @JoinColumn(name = "session_id"), inverseJoinColumns = @JoinColumn(name = "user_id"))
     private List<User> users;
 
+    @Column(name = "series_id")
+    private Long seriesId;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
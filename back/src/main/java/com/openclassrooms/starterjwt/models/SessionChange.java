@@ -0,0 +1,28 @@
+package com.openclassrooms.starterjwt.models;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * Latest change of a session, kept after the session is deleted as a tombstone. The sequence
+ * only grows, so clients resume from the highest sequence they have seen; it is null until a
+ * reader numbers the change.
+ */
+@Entity
+@Table(name = "SESSION_CHANGES", indexes = {
+        @Index(name = "ux_session_changes_seq", columnList = "seq", unique = true)
+})
+@Data
+@EqualsAndHashCode(of = { "sessionId" })
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionChange {
+    @Id
+    @Column(name = "session_id")
+    private Long sessionId;
+
+    private Long seq;
+
+    private boolean deleted;
+}
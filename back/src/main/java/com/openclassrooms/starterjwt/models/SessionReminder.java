@@ -0,0 +1,44 @@
+package com.openclassrooms.starterjwt.models;
+
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency record of a session reminder: the reminder of a participant is claimed, and this
+ * row committed, before it is sent, so that it is never sent twice, even across restarts.
+ */
+@Entity
+@Table(name = "SESSION_REMINDERS", indexes = {
+        @Index(name = "idx_session_reminders_claim", columnList = "claim_id")
+})
+@Data
+@EqualsAndHashCode(of = { "id" })
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionReminder {
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "claim_id")
+    private String claimId;
+
+    @CreationTimestamp
+    @Column(name = "claimed_at", updatable = false)
+    private LocalDateTime claimedAt;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "session_id")
+        private Long sessionId;
+
+        @Column(name = "user_id")
+        private Long userId;
+    }
+}
@@ -0,0 +1,62 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lets through at most {@code permits} log events per key and per window, and counts the events
+ * dropped in between so that the next permitted event can report them. Meant for the logs that
+ * a client controls the rate of, such as rejected tokens; keys must come from a fixed set.
+ */
+public final class LogRateLimiter {
+    private final int permits;
+
+    private final long windowNanos;
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public LogRateLimiter(int permits, long windowNanos) {
+        this.permits = permits;
+        this.windowNanos = windowNanos;
+    }
+
+    /**
+     * Returns the number of events dropped for {@code key} since the previous permitted one, or
+     * {@code -1} when this event must be dropped.
+     */
+    public long acquire(String key) {
+        return this.windows.computeIfAbsent(key, k -> new Window()).acquire(System.nanoTime());
+    }
+
+    // A lock rather than synchronized, so that a virtual thread never pins its carrier on it.
+    private final class Window {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private long start = System.nanoTime();
+
+        private int used;
+
+        private long suppressed;
+
+        long acquire(long now) {
+            this.lock.lock();
+            try {
+                if (now - this.start >= windowNanos) {
+                    this.start = now;
+                    this.used = 0;
+                }
+                if (this.used >= permits) {
+                    this.suppressed++;
+                    return -1;
+                }
+                this.used++;
+                long dropped = this.suppressed;
+                this.suppressed = 0;
+                return dropped;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+}
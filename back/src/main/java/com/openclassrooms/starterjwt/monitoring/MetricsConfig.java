@@ -0,0 +1,18 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Controllers are timed by Spring MVC through their class-level {@code @Timed}; this aspect
+ * handles {@code @Timed} on the methods of every other bean (services, JWT validation).
+ */
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,141 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Splits the time of the request running on the current thread into phases. Phases nest, and
+ * each one only keeps its own time: the service time of a request excludes the repository calls
+ * made by the service. Time outside of any phase (filters, dispatching) is charged to
+ * {@link Phase#OTHER}. Every method is a no-op when no trace is open on the thread.
+ * <p>
+ * The part of a request that runs on another thread is traced by a {@link #fork(RequestTrace) fork},
+ * whose phases are added to those of the request.
+ */
+public final class RequestTrace {
+    public enum Phase {
+        JWT, USER_DETAILS, CONTROLLER, SERVICE, REPOSITORY, SQL, MAPPING, SERIALIZATION, OTHER
+    }
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final String traceId;
+
+    private final long startNanos;
+
+    private final long[] nanos = new long[PHASES.length];
+
+    private final Queue<RequestTrace> forks = new ConcurrentLinkedQueue<>();
+
+    private Phase[] stack = new Phase[8];
+
+    private int depth;
+
+    private long lastSwitch;
+
+    private long totalNanos = -1;
+
+    private RequestTrace(String traceId, long now) {
+        this.traceId = traceId;
+        this.startNanos = now;
+        this.lastSwitch = now;
+    }
+
+    public static RequestTrace start(String traceId) {
+        RequestTrace trace = new RequestTrace(traceId, System.nanoTime());
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static void stop(RequestTrace trace) {
+        long now = System.nanoTime();
+        trace.charge(now);
+        trace.totalNanos = now - trace.startNanos;
+        if (CURRENT.get() == trace) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Opens on the current thread a trace continuing {@code parent}, which runs on another thread.
+     * The fork must be stopped before the parent reads its phases.
+     */
+    public static RequestTrace fork(RequestTrace parent) {
+        RequestTrace fork = start(parent.traceId);
+        parent.forks.add(fork);
+        return fork;
+    }
+
+    /**
+     * Leaves {@code trace} open but removes it from the current thread, e.g. while an asynchronous
+     * request waits for its result. The time until {@link #attach(RequestTrace)} is not charged.
+     */
+    public static void detach(RequestTrace trace) {
+        trace.charge(System.nanoTime());
+        if (CURRENT.get() == trace) {
+            CURRENT.remove();
+        }
+    }
+
+    public static void attach(RequestTrace trace) {
+        trace.lastSwitch = System.nanoTime();
+        CURRENT.set(trace);
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    public static void enter(Phase phase) {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            return;
+        }
+        trace.charge(System.nanoTime());
+        if (trace.depth == trace.stack.length) {
+            Phase[] stack = new Phase[trace.depth * 2];
+            System.arraycopy(trace.stack, 0, stack, 0, trace.depth);
+            trace.stack = stack;
+        }
+        trace.stack[trace.depth++] = phase;
+    }
+
+    public static void exit() {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null || trace.depth == 0) {
+            return;
+        }
+        trace.charge(System.nanoTime());
+        trace.stack[--trace.depth] = null;
+    }
+
+    private void charge(long now) {
+        this.nanos[running().ordinal()] += now - this.lastSwitch;
+        this.lastSwitch = now;
+    }
+
+    private Phase running() {
+        return this.depth == 0 ? Phase.OTHER : this.stack[this.depth - 1];
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public long getNanos(Phase phase) {
+        long total = nanos[phase.ordinal()];
+        for (RequestTrace fork : forks) {
+            total += fork.getNanos(phase);
+        }
+        return total;
+    }
+
+    /**
+     * Wall-clock time of the request, once the trace is stopped.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+}
@@ -0,0 +1,51 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import com.openclassrooms.starterjwt.monitoring.RequestTrace.Phase;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Charges the calls to controllers, services, repositories, mappers and user details lookups
+ * to their phase of the current {@link RequestTrace}.
+ */
+@Aspect
+public class RequestTraceAspect {
+    @Around("within(com.openclassrooms.starterjwt.controllers..*)")
+    public Object controller(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(Phase.CONTROLLER, joinPoint);
+    }
+
+    @Around("within(com.openclassrooms.starterjwt.services..*)")
+    public Object service(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(Phase.SERVICE, joinPoint);
+    }
+
+    // Spring Data methods are declared by the framework interfaces, hence the subtype pattern.
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object repository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(Phase.REPOSITORY, joinPoint);
+    }
+
+    @Around("within(com.openclassrooms.starterjwt.mapper..*)")
+    public Object mapping(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(Phase.MAPPING, joinPoint);
+    }
+
+    @Around("execution(* org.springframework.security.core.userdetails.UserDetailsService+.loadUserByUsername(..))")
+    public Object userDetails(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(Phase.USER_DETAILS, joinPoint);
+    }
+
+    private static Object trace(Phase phase, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (RequestTrace.current() == null) {
+            return joinPoint.proceed();
+        }
+        RequestTrace.enter(phase);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestTrace.exit();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import com.openclassrooms.starterjwt.monitoring.RequestTrace.Phase;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Opens a {@link RequestTrace} for each request, returns its id in a response header and records
+ * the time of every phase. The breakdown is logged for a sample of the requests and for all the
+ * requests slower than the threshold. An asynchronous request is recorded by the dispatch that
+ * completes it.
+ */
+@Slf4j
+public class RequestTracingFilter extends OncePerRequestFilter {
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    public static final String TRACE_ID_MDC_KEY = "traceId";
+
+    private static final String TRACE_ATTRIBUTE = RequestTracingFilter.class.getName() + ".TRACE";
+
+    private static final Pattern VALID_TRACE_ID = Pattern.compile("[A-Za-z0-9-]{1,64}");
+
+    private final MeterRegistry meterRegistry;
+
+    private final double sampleRate;
+
+    private final long slowMs;
+
+    public RequestTracingFilter(MeterRegistry meterRegistry, double sampleRate, long slowMs) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+        this.slowMs = slowMs;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Object started = isAsyncDispatch(request) ? request.getAttribute(TRACE_ATTRIBUTE) : null;
+        RequestTrace trace;
+        if (started instanceof RequestTrace) {
+            trace = (RequestTrace) started;
+            RequestTrace.attach(trace);
+        } else {
+            String traceId = traceId(request);
+            response.setHeader(TRACE_ID_HEADER, traceId);
+            trace = RequestTrace.start(traceId);
+            request.setAttribute(TRACE_ATTRIBUTE, trace);
+        }
+        MDC.put(TRACE_ID_MDC_KEY, trace.getTraceId());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(TRACE_ID_MDC_KEY);
+            if (request.isAsyncStarted()) {
+                RequestTrace.detach(trace);
+            } else {
+                RequestTrace.stop(trace);
+                record(request, response, trace);
+            }
+        }
+    }
+
+    // Keeps the id of an upstream proxy or client, so that a trace can be followed across services.
+    private static String traceId(HttpServletRequest request) {
+        String incoming = request.getHeader(TRACE_ID_HEADER);
+        if (incoming != null && VALID_TRACE_ID.matcher(incoming).matches()) {
+            return incoming;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("%016x%016x", random.nextLong(), random.nextLong());
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestTrace trace) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        List<Object> fields = new ArrayList<>();
+        fields.add(kv("trace_id", trace.getTraceId()));
+        fields.add(kv("method", request.getMethod()));
+        fields.add(kv("uri", uri));
+        fields.add(kv("status", response.getStatus()));
+        fields.add(kv("total_ms", millis(trace.getTotalNanos())));
+        for (Phase phase : Phase.values()) {
+            long nanos = trace.getNanos(phase);
+            if (nanos == 0) {
+                continue;
+            }
+            String name = phase.name().toLowerCase(Locale.ROOT);
+            this.meterRegistry.timer("http.server.phase", "method", request.getMethod(), "uri", uri, "phase", name)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+            fields.add(kv(name + "_ms", millis(nanos)));
+        }
+
+        String format = "request_trace" + String.join("", Collections.nCopies(fields.size(), " {}"));
+        if (TimeUnit.NANOSECONDS.toMillis(trace.getTotalNanos()) >= this.slowMs) {
+            log.warn(format, fields.toArray());
+        } else if (this.sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < this.sampleRate) {
+            log.info(format, fields.toArray());
+        }
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Logs the statements slower than the threshold, in place of echoing every statement.
+ */
+@Slf4j
+public class SlowQueryLogListener implements QueryExecutionListener {
+    private final long thresholdMs;
+
+    public SlowQueryLogListener(long thresholdMs) {
+        this.thresholdMs = thresholdMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < this.thresholdMs) {
+            return;
+        }
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        log.warn("slow_query {} {} {} {}", kv("elapsed_ms", execInfo.getElapsedTime()),
+                kv("batch_size", execInfo.isBatch() ? execInfo.getBatchSize() : 1), kv("success", execInfo.isSuccess()),
+                kv("sql", sql));
+    }
+}
@@ -0,0 +1,56 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateQueryMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlMonitoringConfig {
+    @Bean
+    public static BeanPostProcessor sqlMonitoringDataSourcePostProcessor(
+            @Value("${oc.app.sql.slowQueryMs:500}") long slowQueryMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                            .listener(new SqlStatementCountingListener())
+                            .listener(new SlowQueryLogListener(slowQueryMs))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Per-query execution counts and times, on top of the session factory statistics that Spring Boot binds.
+    @Bean
+    public HibernateQueryMetrics hibernateQueryMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateQueryMetrics(entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory",
+                Tags.empty());
+    }
+
+    // Ahead of Spring Security so that the statements of the JWT user lookup are counted too.
+    @Bean
+    public FilterRegistrationBean<SqlStatementCountingFilter> sqlStatementCountingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${oc.app.sql.queryBudget:10}") int queryBudget,
+            @Value("${oc.app.sql.exposeHeaders:true}") boolean exposeHeaders) {
+        FilterRegistrationBean<SqlStatementCountingFilter> registration = new FilterRegistrationBean<>(
+                new SqlStatementCountingFilter(meterRegistry, queryBudget, exposeHeaders));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,87 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Number of JDBC statements executed on the current thread, and the time spent in them, since
+ * {@link #start()}. Counters nest: a statement is recorded by every counter opened on the thread,
+ * so a test can count across several requests while each request still counts its own.
+ * A counter can be attached to other threads, for the part of a request that runs elsewhere.
+ */
+public final class SqlStatementCounter {
+    private static final ThreadLocal<SqlStatementCounter> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatementCounter parent;
+
+    private final AtomicInteger statements = new AtomicInteger();
+
+    private final AtomicLong elapsedMillis = new AtomicLong();
+
+    private SqlStatementCounter(SqlStatementCounter parent) {
+        this.parent = parent;
+    }
+
+    public static SqlStatementCounter start() {
+        SqlStatementCounter counter = new SqlStatementCounter(CURRENT.get());
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    /**
+     * Closes {@code counter} and every counter opened after it on this thread.
+     */
+    public static void stop(SqlStatementCounter counter) {
+        for (SqlStatementCounter current = CURRENT.get(); current != null; current = current.parent) {
+            if (current == counter) {
+                if (counter.parent == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(counter.parent);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Makes {@code counter}, opened on another thread, record the statements of this thread too.
+     * Returns the counter to restore with {@link #detach(SqlStatementCounter)}.
+     */
+    public static SqlStatementCounter attach(SqlStatementCounter counter) {
+        SqlStatementCounter previous = CURRENT.get();
+        set(counter);
+        return previous;
+    }
+
+    public static void detach(SqlStatementCounter previous) {
+        set(previous);
+    }
+
+    public static SqlStatementCounter current() {
+        return CURRENT.get();
+    }
+
+    private static void set(SqlStatementCounter counter) {
+        if (counter == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(counter);
+        }
+    }
+
+    static void record(long elapsedMillis) {
+        for (SqlStatementCounter counter = CURRENT.get(); counter != null; counter = counter.parent) {
+            counter.statements.incrementAndGet();
+            counter.elapsedMillis.addAndGet(elapsedMillis);
+        }
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis.get();
+    }
+}
@@ -0,0 +1,156 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Counts the SQL statements of each request, records them as metrics and warns when a request
+ * goes over the query budget. Optionally reports the counts in response headers.
+ * <p>
+ * An asynchronous request is recorded by the dispatch that completes it, once the statements run
+ * on other threads are counted too.
+ */
+@Slf4j
+public class SqlStatementCountingFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    /**
+     * Request attribute holding the request's {@link SqlStatementCounter}, complete once the filter
+     * returns from the last dispatch of the request.
+     */
+    public static final String COUNTER_ATTRIBUTE = SqlStatementCountingFilter.class.getName() + ".COUNTER";
+
+    private final MeterRegistry meterRegistry;
+
+    private final int queryBudget;
+
+    private final boolean exposeHeaders;
+
+    public SqlStatementCountingFilter(MeterRegistry meterRegistry, int queryBudget, boolean exposeHeaders) {
+        this.meterRegistry = meterRegistry;
+        this.queryBudget = queryBudget;
+        this.exposeHeaders = exposeHeaders;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Object started = isAsyncDispatch(request) ? request.getAttribute(COUNTER_ATTRIBUTE) : null;
+        SqlStatementCounter counter;
+        SqlStatementCounter previous = null;
+        if (started instanceof SqlStatementCounter) {
+            counter = (SqlStatementCounter) started;
+            previous = SqlStatementCounter.attach(counter);
+        } else {
+            counter = SqlStatementCounter.start();
+            request.setAttribute(COUNTER_ATTRIBUTE, counter);
+        }
+        StatementHeadersResponse headersResponse = this.exposeHeaders ? new StatementHeadersResponse(response, counter) : null;
+        try {
+            filterChain.doFilter(request, headersResponse != null ? headersResponse : response);
+        } finally {
+            if (started instanceof SqlStatementCounter) {
+                SqlStatementCounter.detach(previous);
+            } else {
+                SqlStatementCounter.stop(counter);
+            }
+            if (!request.isAsyncStarted()) {
+                if (headersResponse != null) {
+                    headersResponse.writeHeaders();
+                }
+                record(request, counter);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementCounter counter) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        this.meterRegistry.summary("http.server.sql.statements", "method", request.getMethod(), "uri", uri)
+                .record(counter.getStatements());
+        this.meterRegistry.timer("http.server.sql.time", "method", request.getMethod(), "uri", uri)
+                .record(counter.getElapsedMillis(), TimeUnit.MILLISECONDS);
+
+        if (counter.getStatements() > this.queryBudget) {
+            log.warn("Query budget exceeded {} {} {} {} {}", kv("method", request.getMethod()), kv("uri", uri),
+                    kv("statements", counter.getStatements()), kv("sql_ms", counter.getElapsedMillis()),
+                    kv("budget", this.queryBudget));
+        }
+    }
+
+    /**
+     * Headers must be set before the body commits the response, so they are written on the
+     * first access to the body, or at the end of the request for responses without one.
+     */
+    private static class StatementHeadersResponse extends HttpServletResponseWrapper {
+        private final SqlStatementCounter counter;
+
+        private boolean written;
+
+        StatementHeadersResponse(HttpServletResponse response, SqlStatementCounter counter) {
+            super(response);
+            this.counter = counter;
+        }
+
+        void writeHeaders() {
+            if (this.written || isCommitted()) {
+                return;
+            }
+            this.written = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(this.counter.getStatements()));
+            setHeader(TIME_HEADER, String.valueOf(this.counter.getElapsedMillis()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Feeds {@link SqlStatementCounter} and the SQL phase of {@link RequestTrace}: a batch counts as one statement since it is one round trip.
+ * The phase is timed by the trace itself, the elapsed time of datasource-proxy being in whole milliseconds.
+ */
+public class SqlStatementCountingListener implements QueryExecutionListener {
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTrace.enter(RequestTrace.Phase.SQL);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTrace.exit();
+        SqlStatementCounter.record(execInfo.getElapsedTime());
+    }
+}
@@ -0,0 +1,36 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+@Configuration
+public class TracingConfig {
+    // Outermost of the monitoring filters, so that the SQL counting and the security filters are traced.
+    @Bean
+    public FilterRegistrationBean<RequestTracingFilter> requestTracingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${oc.app.trace.sampleRate:0.01}") double sampleRate,
+            @Value("${oc.app.trace.slowMs:1000}") long slowMs) {
+        FilterRegistrationBean<RequestTracingFilter> registration = new FilterRegistrationBean<>(
+                new RequestTracingFilter(meterRegistry, sampleRate, slowMs));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+
+    @Bean
+    public RequestTraceAspect requestTraceAspect() {
+        return new RequestTraceAspect();
+    }
+
+    // Replaces the converter of Spring Boot, which backs off when one is defined.
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TracingJackson2HttpMessageConverter(objectMapper);
+    }
+}
@@ -0,0 +1,54 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.models.SessionChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SessionChangeRepository extends JpaRepository<SessionChange, Long> {
+    // Locks the single counter row until the transaction ends: sequences become visible in the
+    // order they were taken, so a client never skips a change committed after its cursor.
+    // Only the readers numbering pending changes take it, never the session writes.
+    @Modifying
+    @Query(value = "UPDATE SESSION_CHANGE_SEQUENCE SET last_seq = last_seq + :count WHERE id = 1", nativeQuery = true)
+    int advanceSequence(@Param("count") long count);
+
+    @Query(value = "SELECT last_seq FROM SESSION_CHANGE_SEQUENCE WHERE id = 1", nativeQuery = true)
+    long currentSequence();
+
+    // The counter and the changes not numbered yet, in one round trip: one row per pending change,
+    // or a single row with a null session id.
+    @Query(value = "SELECT s.last_seq AS lastSeq, c.session_id AS pendingSessionId FROM SESSION_CHANGE_SEQUENCE s "
+            + "LEFT JOIN SESSION_CHANGES c ON c.seq IS NULL WHERE s.id = 1", nativeQuery = true)
+    List<Sequence> findSequence();
+
+    // One row per session: a session changed many times is sent once. A write only clears the
+    // sequence, the next reader numbers the row.
+    @Modifying
+    @Query(value = "INSERT INTO SESSION_CHANGES (session_id, seq, deleted) VALUES (:sessionId, NULL, :deleted) "
+            + "ON DUPLICATE KEY UPDATE seq = NULL, deleted = VALUES(deleted), changed_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    int markChanged(@Param("sessionId") Long sessionId, @Param("deleted") boolean deleted);
+
+    // The counter having been advanced by the number of pending changes, the sequence is the
+    // counter minus offset. A row numbered meanwhile is left as is.
+    @Modifying
+    @Query(value = "UPDATE SESSION_CHANGES SET seq = (SELECT last_seq - :offset FROM SESSION_CHANGE_SEQUENCE WHERE id = 1) "
+            + "WHERE session_id = :sessionId AND seq IS NULL", nativeQuery = true)
+    int number(@Param("sessionId") Long sessionId, @Param("offset") long offset);
+
+    // Range scan on ux_session_changes_seq, which skips the pending rows.
+    List<SessionChange> findBySeqGreaterThanOrderBySeq(long seq, Pageable pageable);
+
+    interface Sequence {
+        long getLastSeq();
+
+        Long getPendingSessionId();
+    }
+}
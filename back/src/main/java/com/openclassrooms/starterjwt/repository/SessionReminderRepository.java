@@ -0,0 +1,35 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.dto.ReminderDto;
+import com.openclassrooms.starterjwt.models.SessionReminder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface SessionReminderRepository extends JpaRepository<SessionReminder, SessionReminder.Key> {
+    // One statement for every participant of the sessions starting in the window, found through
+    // idx_sessions_date, minus the reminders already claimed. Two nodes claiming the same
+    // reminder conflict on the primary key: the later one fails and claims nothing.
+    @Modifying
+    @Query(value = "INSERT INTO SESSION_REMINDERS (session_id, user_id, claim_id) "
+            + "SELECT p.session_id, p.user_id, :claimId FROM SESSIONS s "
+            + "JOIN PARTICIPATE p ON p.session_id = s.id "
+            + "LEFT JOIN SESSION_REMINDERS r ON r.session_id = p.session_id AND r.user_id = p.user_id "
+            + "WHERE s.date > :from AND s.date <= :to AND r.session_id IS NULL "
+            + "ORDER BY s.date, p.session_id, p.user_id LIMIT :limit", nativeQuery = true)
+    int claim(@Param("claimId") String claimId, @Param("from") Date from, @Param("to") Date to,
+              @Param("limit") int limit);
+
+    // The claimed reminders with their session and participant, in one query on idx_session_reminders_claim.
+    @Query("select new com.openclassrooms.starterjwt.dto.ReminderDto(s.id, s.name, s.date, u.id, u.email, u.firstName) "
+            + "from SessionReminder r, Session s, User u "
+            + "where r.claimId = :claimId and s.id = r.id.sessionId and u.id = r.id.userId "
+            + "order by s.date, s.id, u.id")
+    List<ReminderDto> findClaimed(@Param("claimId") String claimId);
+}
@@ -1,9 +1,86 @@
 package com.openclassrooms.starterjwt.repository;
 
+import com.openclassrooms.starterjwt.dto.SessionCompactDto;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
+import com.openclassrooms.starterjwt.dto.TimeSlotDto;
 import com.openclassrooms.starterjwt.models.Session;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
 @Repository
 public interface SessionRepository  extends JpaRepository<Session, Long> {
+    // Range scan on idx_sessions_date; teacher and participants are fetched in the same statement.
+    @Query("select distinct s from Session s left join fetch s.teacher left join fetch s.users "
+            + "where s.date >= :from and s.date < :to order by s.date")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    List<Session> findBetween(@Param("from") Date from, @Param("to") Date to);
+
+    // Range scan on idx_sessions_teacher_date.
+    @Query("select distinct s from Session s left join fetch s.teacher t left join fetch s.users "
+            + "where t.id = :teacherId and s.date >= :from and s.date < :to order by s.date")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    List<Session> findByTeacherBetween(@Param("teacherId") Long teacherId, @Param("from") Date from, @Param("to") Date to);
+
+    // Sessions of the change feed; teacher and participants are fetched in the same statement.
+    @Query("select distinct s from Session s left join fetch s.teacher left join fetch s.users where s.id in :ids")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    List<Session> findWithParticipantsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Pages of the change feed reset, walked by primary key.
+    @Query("select s.id from Session s where s.id > :after order by s.id")
+    List<Long> findIdsAfter(@Param("after") long after, Pageable pageable);
+
+    // Participants are counted in the database instead of being loaded with every session.
+    @Query("select new com.openclassrooms.starterjwt.dto.SessionCompactDto(s.id, s.name, s.date, s.duration, t.id, count(u)) "
+            + "from Session s left join s.teacher t left join s.users u "
+            + "group by s.id, s.name, s.date, s.duration, t.id order by s.date, s.id")
+    List<SessionCompactDto> findAllCompact();
+
+    // A slice, not a page: streaming the sessions page by page needs no count query.
+    Slice<Session> findAllBy(Pageable pageable);
+
+    // Driven by ux_participate_user_session: only the PARTICIPATE rows of this user are read.
+    @Query(value = "select new com.openclassrooms.starterjwt.dto.SessionSummaryDto(s.id, s.name, s.date, t.id) "
+            + "from Session s join s.users u left join s.teacher t where u.id = :userId order by s.date, s.id",
+            countQuery = "select count(s) from Session s join s.users u where u.id = :userId")
+    Page<SessionSummaryDto> findSummariesByParticipant(@Param("userId") Long userId, Pageable pageable);
+
+    // Range scan on idx_sessions_teacher_date; callers widen "from" by Session.MAX_DURATION
+    // so that sessions starting earlier but still running are returned.
+    @Query("select new com.openclassrooms.starterjwt.dto.TimeSlotDto(s.id, s.date, s.duration) "
+            + "from Session s where s.teacher.id = :teacherId and s.date > :from and s.date < :to order by s.date")
+    List<TimeSlotDto> findTeacherSlotsStartingBetween(@Param("teacherId") Long teacherId, @Param("from") Date from, @Param("to") Date to);
+
+    List<Session> findBySeriesIdAndDateGreaterThanEqual(Long seriesId, Date date);
+
+    @Query("select s.id from Session s where s.seriesId = :seriesId")
+    List<Long> findIdsBySeriesId(@Param("seriesId") Long seriesId);
+
+    // The user is checked in the same statement instead of being loaded: 0 when it does not exist.
+    // Clears the persistence context, whose sessions would otherwise keep their former participants.
+    @Modifying(clearAutomatically = true)
+    @Query(value = "insert into PARTICIPATE (session_id, user_id) select :sessionId, id from USERS where id = :userId",
+            nativeQuery = true)
+    int addParticipant(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    // One row deleted, where replacing the users collection deletes and reinserts all of them.
+    @Modifying(clearAutomatically = true)
+    @Query(value = "delete from PARTICIPATE where session_id = :sessionId and user_id = :userId", nativeQuery = true)
+    int removeParticipant(@Param("sessionId") Long sessionId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("update Session s set s.seriesId = null where s.seriesId = :seriesId")
+    int detachFromSeries(@Param("seriesId") Long seriesId);
 }
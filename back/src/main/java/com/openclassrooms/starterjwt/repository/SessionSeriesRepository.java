@@ -0,0 +1,16 @@
+package com.openclassrooms.starterjwt.repository;
+
+import com.openclassrooms.starterjwt.models.SessionSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface SessionSeriesRepository extends JpaRepository<SessionSeries, Long> {
+    @Query("select s from SessionSeries s where s.startDate < :to and (s.materializedUntil is null or s.materializedUntil < :to)")
+    List<SessionSeries> findNotMaterializedBefore(@Param("to") Date to);
+}
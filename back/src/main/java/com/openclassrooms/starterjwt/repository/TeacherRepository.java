@@ -2,8 +2,18 @@ package com.openclassrooms.starterjwt.repository;
 
 import com.openclassrooms.starterjwt.models.Teacher;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
 @Repository
 public interface TeacherRepository  extends JpaRepository<Teacher, Long> {
+    // Serializes concurrent bookings of the same teacher until the transaction ends.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Teacher t where t.id = :id")
+    Optional<Teacher> lockById(@Param("id") Long id);
 }
@@ -58,6 +58,9 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
       .exceptionHandling().authenticationEntryPoint(unauthorizedHandler).and()
       .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS).and()
       .authorizeRequests().antMatchers("/api/auth/**").permitAll()
+      .antMatchers("/actuator/health").permitAll()
+      // Metrics reveal per-endpoint latencies and internal counters
+      .antMatchers("/actuator/prometheus").hasRole("ADMIN")
       .antMatchers("/api/**").authenticated()
       .anyRequest().authenticated();
 
@@ -1,8 +1,11 @@
 package com.openclassrooms.starterjwt.security.jwt;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -16,22 +19,30 @@ import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.monitoring.LogRateLimiter;
 
 @Component
 public class AuthEntryPointJwt implements AuthenticationEntryPoint {
 
   private static final Logger logger = LoggerFactory.getLogger(AuthEntryPointJwt.class);
 
+  private static final LogRateLimiter logRateLimiter = new LogRateLimiter(10, TimeUnit.MINUTES.toNanos(1));
+
   @Override
   public void commence(HttpServletRequest request, HttpServletResponse response, AuthenticationException authException)
       throws IOException, ServletException {
-    logger.error("Unauthorized error: {}", authException.getMessage());
+    String path = request.getServletPath();
+    long suppressed = logRateLimiter.acquire("unauthorized");
+    if (suppressed >= 0) {
+      logger.warn("Unauthorized request {} {} {}", kv("path", path),
+          kv("detail", authException.getMessage()), kv("suppressed", suppressed));
+    }
 
     response.setContentType(MediaType.APPLICATION_JSON_VALUE);
     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
 
     final Map<String, Object> body = new LinkedHashMap<>();
-    body.put("path", request.getServletPath());
+    body.put("path", path);
     body.put("error", "Unauthorized");
     body.put("message", authException.getMessage());
     body.put("status", HttpServletResponse.SC_UNAUTHORIZED);
@@ -1,6 +1,9 @@
 package com.openclassrooms.starterjwt.security.jwt;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -10,13 +13,22 @@ import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 
+import com.openclassrooms.starterjwt.monitoring.LogRateLimiter;
+import com.openclassrooms.starterjwt.monitoring.RequestTrace;
+import com.openclassrooms.starterjwt.monitoring.RequestTrace.Phase;
 import com.openclassrooms.starterjwt.security.services.UserDetailsServiceImpl;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
@@ -26,15 +38,31 @@ public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired
   private UserDetailsServiceImpl userDetailsService;
 
+  @Autowired
+  @Qualifier("handlerExceptionResolver")
+  private HandlerExceptionResolver handlerExceptionResolver;
+
   private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
+  private static final LogRateLimiter logRateLimiter = new LogRateLimiter(10, TimeUnit.MINUTES.toNanos(1));
+
+  private static final String EVENTS_TOKEN_PARAMETER = "token";
+
+  private static final RequestMatcher EVENTS = new AntPathRequestMatcher("/api/session/events", "GET");
+
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
+    RequestTrace.enter(Phase.JWT);
     try {
       String jwt = parseJwt(request);
+      boolean eventsToken = false;
+      if (jwt == null) {
+        jwt = parseEventsToken(request);
+        eventsToken = jwt != null;
+      }
       if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-        String username = jwtUtils.getUserNameFromJwtToken(jwt);
+        String username = eventsToken ? jwtUtils.getUserNameFromEventsToken(jwt) : jwtUtils.getUserNameFromJwtToken(jwt);
 
         UserDetails userDetails = userDetailsService.loadUserByUsername(username);
         UsernamePasswordAuthenticationToken authentication =
@@ -46,8 +74,21 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
       }
+    } catch (DataAccessException | CannotCreateTransactionException e) {
+      // The user could not be loaded, e.g. no connection left in the pool: answered like the
+      // controllers, with a fast 503, rather than a 401 that would send the client to the login page
+      if (handlerExceptionResolver.resolveException(request, response, null, e) != null) {
+        return;
+      }
+      throw e;
     } catch (Exception e) {
-      logger.error("Cannot set user authentication: {}", e);
+      long suppressed = logRateLimiter.acquire(e.getClass().getName());
+      if (suppressed >= 0) {
+        logger.warn("Cannot set user authentication {} {} {}", kv("exception", e.getClass().getName()),
+            kv("detail", e.getMessage()), kv("suppressed", suppressed));
+      }
+    } finally {
+      RequestTrace.exit();
     }
 
     filterChain.doFilter(request, response);
@@ -62,4 +103,15 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
     return null;
   }
+
+  // EventSource cannot send headers: the event stream alone accepts its token in the query string.
+  private String parseEventsToken(HttpServletRequest request) {
+    String token = request.getParameter(EVENTS_TOKEN_PARAMETER);
+
+    if (StringUtils.hasText(token) && EVENTS.matches(request)) {
+      return token;
+    }
+
+    return null;
+  }
 }
@@ -1,6 +1,10 @@
 package com.openclassrooms.starterjwt.security.jwt;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,20 +12,32 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import com.openclassrooms.starterjwt.monitoring.LogRateLimiter;
 import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
 
 import io.jsonwebtoken.*;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Metrics;
 
 @Component
 public class JwtUtils {
   private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+  private static final LogRateLimiter logRateLimiter = new LogRateLimiter(10, TimeUnit.MINUTES.toNanos(1));
+
+  private static final String SCOPE = "scope";
+
+  private static final String EVENTS_SCOPE = "events";
+
   @Value("${oc.app.jwtSecret}")
   private String jwtSecret;
 
   @Value("${oc.app.jwtExpirationMs}")
   private int jwtExpirationMs;
 
+  @Value("${oc.app.events.tokenExpirationMs:60000}")
+  private int eventsTokenExpirationMs;
+
   public String generateJwtToken(Authentication authentication) {
 
     UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
@@ -34,26 +50,61 @@ public class JwtUtils {
         .compact();
   }
 
+  /**
+   * Token for the session event stream, which a browser opens with {@code ?token=}: short-lived,
+   * since URLs end up in logs and history, and rejected as a Bearer token.
+   */
+  public String generateEventsToken(String username) {
+    return Jwts.builder()
+        .setSubject(username)
+        .claim(SCOPE, EVENTS_SCOPE)
+        .setIssuedAt(new Date())
+        .setExpiration(new Date((new Date()).getTime() + eventsTokenExpirationMs))
+        .signWith(SignatureAlgorithm.HS512, jwtSecret)
+        .compact();
+  }
+
   public String getUserNameFromJwtToken(String token) {
-    return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody().getSubject();
+    return getUserName(token, null);
   }
 
+  public String getUserNameFromEventsToken(String token) {
+    return getUserName(token, EVENTS_SCOPE);
+  }
+
+  // Null when the token was issued for another use.
+  private String getUserName(String token, String scope) {
+    Claims claims = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
+    return Objects.equals(claims.get(SCOPE, String.class), scope) ? claims.getSubject() : null;
+  }
+
+  @Timed(value = "jwt.validation", histogram = true)
   public boolean validateJwtToken(String authToken) {
     try {
       Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
       return true;
     } catch (SignatureException e) {
-      logger.error("Invalid JWT signature: {}", e.getMessage());
+      rejected("signature", e);
     } catch (MalformedJwtException e) {
-      logger.error("Invalid JWT token: {}", e.getMessage());
+      rejected("malformed", e);
     } catch (ExpiredJwtException e) {
-      logger.error("JWT token is expired: {}", e.getMessage());
+      rejected("expired", e);
     } catch (UnsupportedJwtException e) {
-      logger.error("JWT token is unsupported: {}", e.getMessage());
+      rejected("unsupported", e);
     } catch (IllegalArgumentException e) {
-      logger.error("JWT claims string is empty: {}", e.getMessage());
+      rejected("empty", e);
     }
 
     return false;
   }
+
+  // Clients choose how many bad tokens they send, so only the counter sees every rejection.
+  private void rejected(String reason, Exception e) {
+    Metrics.counter("jwt.validation.rejected", "reason", reason).increment();
+    long suppressed = logRateLimiter.acquire(reason);
+    if (suppressed >= 0) {
+      logger.warn("JWT rejected {} {} {}", kv("reason", reason), kv("detail", e.getMessage()),
+          kv("suppressed", suppressed));
+    }
+  }
 }
@@ -5,6 +5,7 @@ import java.util.HashSet;
 import java.util.Objects;
 
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -40,7 +41,11 @@ public class UserDetailsImpl implements UserDetails {
   }
 
   public Collection<? extends GrantedAuthority> getAuthorities() {
-    return new HashSet<GrantedAuthority>();
+    HashSet<GrantedAuthority> authorities = new HashSet<GrantedAuthority>();
+    if (Boolean.TRUE.equals(admin)) {
+      authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+    }
+    return authorities;
   }
 
   @Override
@@ -9,6 +9,8 @@ import org.springframework.transaction.annotation.Transactional;
 import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repository.UserRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
   UserRepository userRepository;
@@ -19,6 +21,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
   @Override
   @Transactional
+  @Timed(value = "user.details.load", histogram = true)
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
     User user = userRepository.findByEmail(username)
         .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + username));
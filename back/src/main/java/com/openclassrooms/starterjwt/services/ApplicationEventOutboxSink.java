@@ -0,0 +1,23 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.models.OutboxEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+/**
+ * Default {@link OutboxSink}: each event goes to the in-process {@code @EventListener} methods
+ * taking an {@link OutboxEvent}. They run on the relay thread, in the relay transaction.
+ */
+public class ApplicationEventOutboxSink implements OutboxSink {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ApplicationEventOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        events.forEach(this.eventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,22 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.ReminderDto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Default {@link ReminderNotifier}, until a real channel is configured: logs the reminders.
+ */
+@Slf4j
+public class LoggingReminderNotifier implements ReminderNotifier {
+    @Override
+    public void send(List<ReminderDto> reminders) {
+        for (ReminderDto reminder : reminders) {
+            log.info("Session reminder {} {} {}", kv("sessionId", reminder.getSessionId()),
+                    kv("userId", reminder.getUserId()), kv("date", reminder.getDate()));
+        }
+    }
+}
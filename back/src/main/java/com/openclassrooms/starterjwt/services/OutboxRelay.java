@@ -0,0 +1,70 @@
+package com.openclassrooms.starterjwt.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Drains the session outbox into the {@link OutboxSink}, batch after batch, until it is empty or
+ * {@code maxBatches} were published; the next run picks up from there. Counted by
+ * {@code outbox.published} and {@code outbox.relay.failures}.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+    private final SessionOutbox sessionOutbox;
+
+    private final OutboxSink sink;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    private final int maxBatches;
+
+    private final Counter published;
+
+    private final Counter failures;
+
+    public OutboxRelay(SessionOutbox sessionOutbox, ObjectProvider<OutboxSink> sink,
+                       ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                       @Value("${oc.app.outbox.enabled:true}") boolean enabled,
+                       @Value("${oc.app.outbox.batchSize:100}") int batchSize,
+                       @Value("${oc.app.outbox.maxBatches:10}") int maxBatches) {
+        this.sessionOutbox = sessionOutbox;
+        this.sink = sink.getIfAvailable(() -> new ApplicationEventOutboxSink(eventPublisher));
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.published = meterRegistry.counter("outbox.published");
+        this.failures = meterRegistry.counter("outbox.relay.failures");
+    }
+
+    @Scheduled(initialDelayString = "${oc.app.outbox.relayMs:1000}", fixedDelayString = "${oc.app.outbox.relayMs:1000}")
+    public void relay() {
+        if (!this.enabled) {
+            return;
+        }
+        for (int batch = 0; batch < this.maxBatches; batch++) {
+            int count;
+            try {
+                count = this.sessionOutbox.relay(this.sink, this.batchSize);
+            } catch (Exception e) {
+                this.failures.increment();
+                log.warn("Outbox relay failed, retrying on the next run {}", kv("error", e.toString()));
+                return;
+            }
+            this.published.increment(count);
+            if (count < this.batchSize) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.models.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Where the relay publishes the outbox events, a batch at a time and, for each session, in commit
+ * order. A bean of this type, e.g. a broker client or a local stand-in, replaces the in-process
+ * {@link ApplicationEventOutboxSink}.
+ * <p>
+ * A batch is removed from the outbox only once {@link #publish} returns: after a failure it is
+ * published again, so the sink must accept events it has already seen, by their id.
+ */
+public interface OutboxSink {
+    void publish(List<OutboxEvent> events) throws Exception;
+}
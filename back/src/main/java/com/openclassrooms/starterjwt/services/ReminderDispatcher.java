@@ -0,0 +1,176 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.ReminderDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Reminds the participants of the sessions starting within {@code leadMinutes}. Every poll claims
+ * the due reminders, at most {@code perRun}, then sends them through the {@link ReminderNotifier}
+ * by batches of {@code batchSize}, paced to {@code perSecond}, on its own thread so that the other
+ * scheduled tasks are not held up. No claim is made while the previous reminders are being sent.
+ * <p>
+ * Delivery is at most once: a reminder lost to a failed batch or a shutdown is not retried.
+ * Counted by {@code reminders.sent} and {@code reminders.failed}.
+ */
+@Component
+@Slf4j
+public class ReminderDispatcher {
+    private final SessionReminderService sessionReminderService;
+
+    private final ReminderNotifier notifier;
+
+    private final Executor executor;
+
+    private final ExecutorService pool;
+
+    private final boolean enabled;
+
+    private final long leadMs;
+
+    private final int perRun;
+
+    private final int batchSize;
+
+    private final long nanosPerReminder;
+
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    private final Counter sent;
+
+    private final Counter failed;
+
+    // Only read and written by the sending thread
+    private long nextSendAt = System.nanoTime();
+
+    @Autowired
+    public ReminderDispatcher(SessionReminderService sessionReminderService, ObjectProvider<ReminderNotifier> notifier,
+                              MeterRegistry meterRegistry,
+                              @Value("${oc.app.reminders.enabled:true}") boolean enabled,
+                              @Value("${oc.app.reminders.leadMinutes:60}") long leadMinutes,
+                              @Value("${oc.app.reminders.perRun:1000}") int perRun,
+                              @Value("${oc.app.reminders.batchSize:50}") int batchSize,
+                              @Value("${oc.app.reminders.perSecond:20}") int perSecond) {
+        this(sessionReminderService, notifier.getIfAvailable(LoggingReminderNotifier::new), meterRegistry,
+                Executors.newSingleThreadExecutor(reminderThreads()), enabled, leadMinutes, perRun, batchSize,
+                perSecond);
+    }
+
+    public ReminderDispatcher(SessionReminderService sessionReminderService, ReminderNotifier notifier,
+                              MeterRegistry meterRegistry, Executor executor, boolean enabled, long leadMinutes,
+                              int perRun, int batchSize, int perSecond) {
+        this.sessionReminderService = sessionReminderService;
+        this.notifier = notifier;
+        this.executor = executor;
+        this.pool = executor instanceof ExecutorService ? (ExecutorService) executor : null;
+        this.enabled = enabled;
+        this.leadMs = TimeUnit.MINUTES.toMillis(leadMinutes);
+        this.perRun = perRun;
+        this.batchSize = batchSize;
+        this.nanosPerReminder = TimeUnit.SECONDS.toNanos(1) / perSecond;
+        this.sent = meterRegistry.counter("reminders.sent");
+        this.failed = meterRegistry.counter("reminders.failed");
+    }
+
+    @Scheduled(initialDelayString = "${oc.app.reminders.pollMs:60000}", fixedDelayString = "${oc.app.reminders.pollMs:60000}")
+    public void dispatchDue() {
+        if (!this.enabled || !this.dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        List<ReminderDto> reminders;
+        try {
+            reminders = this.sessionReminderService.claimDue(new Date(), this.leadMs, this.perRun);
+        } catch (DataIntegrityViolationException e) {
+            this.dispatching.set(false);
+            log.info("Reminders claimed by another node, claiming again on the next poll");
+            return;
+        } catch (RuntimeException e) {
+            this.dispatching.set(false);
+            throw e;
+        }
+        if (reminders.isEmpty()) {
+            this.dispatching.set(false);
+            return;
+        }
+        try {
+            this.executor.execute(() -> {
+                try {
+                    send(reminders);
+                } finally {
+                    this.dispatching.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.dispatching.set(false);
+            this.failed.increment(reminders.size());
+        }
+    }
+
+    private void send(List<ReminderDto> reminders) {
+        for (int from = 0; from < reminders.size(); from += this.batchSize) {
+            List<ReminderDto> batch = reminders.subList(from, Math.min(from + this.batchSize, reminders.size()));
+            if (!awaitTurn(batch.size())) {
+                this.failed.increment(reminders.size() - from);
+                return;
+            }
+            try {
+                this.notifier.send(batch);
+                this.sent.increment(batch.size());
+            } catch (Exception e) {
+                this.failed.increment(batch.size());
+                log.warn("Session reminders not sent {} {}", kv("count", batch.size()), kv("error", e.toString()));
+            }
+        }
+    }
+
+    /**
+     * Waits until {@code count} more reminders keep within {@code perSecond}; false if interrupted.
+     */
+    private boolean awaitTurn(int count) {
+        long now = System.nanoTime();
+        long wait = this.nextSendAt - now;
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        this.nextSendAt = Math.max(this.nextSendAt, now) + count * this.nanosPerReminder;
+        return true;
+    }
+
+    private static CustomizableThreadFactory reminderThreads() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("reminders-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (this.pool != null) {
+            this.pool.shutdownNow();
+        }
+    }
+}
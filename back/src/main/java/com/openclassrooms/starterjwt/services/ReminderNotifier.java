@@ -0,0 +1,13 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.ReminderDto;
+
+import java.util.List;
+
+/**
+ * Sends the session reminders, a batch at a time. A bean of this type, e.g. a mail or push
+ * client, replaces the {@link LoggingReminderNotifier}. A batch that fails is not sent again.
+ */
+public interface ReminderNotifier {
+    void send(List<ReminderDto> reminders) throws Exception;
+}
@@ -0,0 +1,87 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.repository.SessionChangeRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records the session writes in the change feed, within the writing transaction, invalidates
+ * the coalesced and cached session reads and publishes a {@link SessionEvent} per session.
+ * Writes leave their changes unnumbered; readers number them with {@link #number(List)}.
+ */
+@Component
+public class SessionChangeLog {
+    private final SessionChangeRepository sessionChangeRepository;
+
+    private final SessionReadCoalescer sessionReadCoalescer;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SessionChangeLog(SessionChangeRepository sessionChangeRepository,
+                            SessionReadCoalescer sessionReadCoalescer,
+                            ApplicationEventPublisher eventPublisher) {
+        this.sessionChangeRepository = sessionChangeRepository;
+        this.sessionReadCoalescer = sessionReadCoalescer;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void changed(Long sessionId) {
+        changed(Collections.singletonList(sessionId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void changed(Collection<Long> sessionIds) {
+        record(sessionIds, false);
+        sessionIds.forEach(id -> this.eventPublisher.publishEvent(
+                new SessionEvent(SessionEvent.Type.CHANGED, id, null)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleted(Collection<Long> sessionIds) {
+        record(sessionIds, true);
+        sessionIds.forEach(id -> this.eventPublisher.publishEvent(
+                new SessionEvent(SessionEvent.Type.DELETED, id, null)));
+    }
+
+    /**
+     * A user joined or left the session, which now has {@code participants}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void participation(Long sessionId, int participants) {
+        record(Collections.singletonList(sessionId), false);
+        this.eventPublisher.publishEvent(new SessionEvent(SessionEvent.Type.PARTICIPATION, sessionId, participants));
+    }
+
+    private void record(Collection<Long> sessionIds, boolean deleted) {
+        if (sessionIds.isEmpty()) {
+            return;
+        }
+        for (Long sessionId : sessionIds) {
+            this.sessionChangeRepository.markChanged(sessionId, deleted);
+        }
+        this.sessionReadCoalescer.invalidate();
+    }
+
+    /**
+     * Numbers the pending changes after the current sequence. The counter row stays locked until
+     * the reading transaction ends, so concurrent readers number and commit in turn.
+     *
+     * @return the sequence of the last change numbered
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long number(List<Long> pendingSessionIds) {
+        this.sessionChangeRepository.advanceSequence(pendingSessionIds.size());
+        long offset = pendingSessionIds.size();
+        for (Long sessionId : pendingSessionIds) {
+            this.sessionChangeRepository.number(sessionId, --offset);
+        }
+        return this.sessionChangeRepository.currentSequence();
+    }
+}
@@ -0,0 +1,27 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.models.Session;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The sessions changed after a cursor. With {@code reset}, the cursor was unknown and
+ * {@code sessions} holds the first page of all of them; {@code after} is set while pages remain.
+ */
+@Getter
+@AllArgsConstructor
+public class SessionChanges {
+    private final long cursor;
+
+    private final boolean reset;
+
+    private final boolean more;
+
+    private final Long after;
+
+    private final List<Session> sessions;
+
+    private final List<Long> deleted;
+}
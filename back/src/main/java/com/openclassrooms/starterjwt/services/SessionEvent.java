@@ -0,0 +1,25 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A committed session write, pushed to the subscribers of {@link SessionEvents}. It only tells
+ * what changed: the session itself is read from the change feed. {@code participants} is only
+ * set for a participation, so that the free seats can be shown without a read.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SessionEvent {
+    public enum Type {
+        CHANGED, DELETED, PARTICIPATION
+    }
+
+    private final Type type;
+
+    private final Long sessionId;
+
+    private final Integer participants;
+}
@@ -0,0 +1,125 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.concurrency.Fanout;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes the committed session writes to the clients as server-sent events. A subscriber holds an
+ * async request, not a thread: the events are sent by {@code dispatchers} threads and a client
+ * more than {@code bufferSize} events behind is disconnected, to catch up from the change feed
+ * when it reconnects. A client whose send has blocked for {@code sendTimeoutMs} gets no more
+ * events, and is disconnected with an error once that send fails on the write or async timeout. A
+ * heartbeat comment keeps idle connections open through the proxies and finds the clients that are gone.
+ * <p>
+ * A browser {@code EventSource} cannot set the Authorization header: it opens the stream with
+ * {@code ?token=}, a short-lived token from {@code POST /api/session/events/token} that only
+ * authenticates this stream.
+ */
+@Component
+public class SessionEvents {
+    private static final Message HEARTBEAT = new Message(null, null);
+
+    private final ObjectMapper objectMapper;
+
+    private final long timeoutMs;
+
+    private final ExecutorService dispatcher;
+
+    private final ScheduledExecutorService heartbeat;
+
+    private final Fanout<Message> fanout;
+
+    public SessionEvents(MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                         @Value("${oc.app.events.dispatchers:2}") int dispatchers,
+                         @Value("${oc.app.events.bufferSize:32}") int bufferSize,
+                         @Value("${oc.app.events.heartbeatMs:30000}") long heartbeatMs,
+                         @Value("${oc.app.events.timeoutMs:1800000}") long timeoutMs,
+                         @Value("${oc.app.events.sendTimeoutMs:10000}") long sendTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        CustomizableThreadFactory dispatcherThreads = new CustomizableThreadFactory("session-events-");
+        dispatcherThreads.setDaemon(true);
+        this.dispatcher = Executors.newFixedThreadPool(dispatchers, dispatcherThreads);
+        this.fanout = new Fanout<>(meterRegistry, "session.events", this.dispatcher, bufferSize, sendTimeoutMs);
+        CustomizableThreadFactory heartbeatThreads = new CustomizableThreadFactory("session-events-heartbeat-");
+        heartbeatThreads.setDaemon(true);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(heartbeatThreads);
+        this.heartbeat.scheduleAtFixedRate(() -> this.fanout.publish(HEARTBEAT), heartbeatMs, heartbeatMs,
+                TimeUnit.MILLISECONDS);
+        this.heartbeat.scheduleAtFixedRate(this.fanout::evictStalled, sendTimeoutMs, sendTimeoutMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(this.timeoutMs);
+        Fanout.Subscription subscription = this.fanout.subscribe(new Fanout.Sink<Message>() {
+            @Override
+            public void send(Message message) throws Exception {
+                emitter.send(message.name == null ? SseEmitter.event().comment("heartbeat")
+                        : SseEmitter.event().name(message.name).data(message.data));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+
+            @Override
+            public void fail(Throwable cause) {
+                emitter.completeWithError(cause);
+            }
+        });
+        emitter.onCompletion(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    /**
+     * Only once committed: a rolled back write is never pushed, and a client reading the change
+     * feed on the event sees the write. Serialized once for all the subscribers.
+     */
+    @TransactionalEventListener
+    public void publish(SessionEvent event) {
+        try {
+            this.fanout.publish(new Message(event.getType().name().toLowerCase(),
+                    this.objectMapper.writeValueAsString(event)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int subscribers() {
+        return this.fanout.subscribers();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.heartbeat.shutdownNow();
+        this.dispatcher.shutdownNow();
+    }
+
+    private static final class Message {
+        final String name;
+
+        final String data;
+
+        Message(String name, String data) {
+            this.name = name;
+            this.data = data;
+        }
+    }
+}
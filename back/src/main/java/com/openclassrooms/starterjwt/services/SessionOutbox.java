@@ -0,0 +1,55 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.models.OutboxEvent;
+import com.openclassrooms.starterjwt.repository.OutboxEventRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox of the session writes. The events are appended after the change feed is
+ * recorded: the writer then holds the change row of the session, so the outbox ids of a session
+ * follow commit order.
+ */
+@Component
+public class SessionOutbox {
+    private final OutboxEventRepository outboxEventRepository;
+
+    public SessionOutbox(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEvent.Type type, Long sessionId, Long userId) {
+        this.outboxEventRepository.save(new OutboxEvent(type, sessionId, userId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEvent.Type type, Collection<Long> sessionIds) {
+        this.outboxEventRepository.saveAll(sessionIds.stream()
+                .map(sessionId -> new OutboxEvent(type, sessionId, null))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Publishes the oldest {@code size} events to the sink and removes them, in one transaction:
+     * if the sink fails they stay in the outbox, to be published again.
+     *
+     * @return the number of events published
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int relay(OutboxSink sink, int size) throws Exception {
+        List<OutboxEvent> events = this.outboxEventRepository.findByOrderById(PageRequest.of(0, size));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        sink.publish(events);
+        this.outboxEventRepository.deleteAllInBatch(events);
+        return events.size();
+    }
+}
@@ -0,0 +1,108 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.concurrency.SingleFlight;
+import com.openclassrooms.starterjwt.concurrency.StaleWhileRevalidate;
+import com.openclassrooms.starterjwt.models.Session;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * One database query for the identical session reads arriving together, e.g. when bookings open,
+ * unless {@code oc.app.reads.coalesce} is off, e.g. to measure the uncoalesced reads under load.
+ * With {@code oc.app.sessionCache.enabled}, the catalogue of all the sessions is also cached and
+ * served stale, up to {@code maxStaleMs}, while it is refreshed in the background; after a write,
+ * the next read reloads it.
+ * The sessions returned are shared between the callers and must not be modified.
+ */
+@Component
+public class SessionReadCoalescer {
+    private static final String ALL = "all";
+
+    private final boolean coalesce;
+
+    private final SingleFlight<String, List<Session>> findAll;
+
+    private final SingleFlight<Long, Session> getById;
+
+    private final ExecutorService catalogueRefresher;
+
+    private final StaleWhileRevalidate<List<Session>> catalogue;
+
+    public SessionReadCoalescer(MeterRegistry meterRegistry) {
+        this(meterRegistry, true, false, 0, 0);
+    }
+
+    @Autowired
+    public SessionReadCoalescer(MeterRegistry meterRegistry,
+                                @Value("${oc.app.reads.coalesce:true}") boolean coalesce,
+                                @Value("${oc.app.sessionCache.enabled:true}") boolean cacheEnabled,
+                                @Value("${oc.app.sessionCache.refreshAfterMs:5000}") long refreshAfterMs,
+                                @Value("${oc.app.sessionCache.maxStaleMs:300000}") long maxStaleMs) {
+        this.coalesce = coalesce;
+        this.findAll = new SingleFlight<>(meterRegistry, "session.findAll");
+        this.getById = new SingleFlight<>(meterRegistry, "session.getById");
+        if (cacheEnabled) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("session-catalogue-");
+            threadFactory.setDaemon(true);
+            this.catalogueRefresher = Executors.newSingleThreadExecutor(threadFactory);
+            this.catalogue = new StaleWhileRevalidate<>(meterRegistry, "session.catalogue", this.catalogueRefresher,
+                    TimeUnit.MILLISECONDS.toNanos(refreshAfterMs), TimeUnit.MILLISECONDS.toNanos(maxStaleMs));
+        } else {
+            this.catalogueRefresher = null;
+            this.catalogue = null;
+        }
+    }
+
+    public List<Session> findAll(Supplier<List<Session>> query) {
+        Supplier<List<Session>> load = this.coalesce ? () -> this.findAll.execute(ALL, query) : query;
+        return this.catalogue == null ? load.get() : this.catalogue.get(load);
+    }
+
+    public Session getById(Long id, Supplier<Session> query) {
+        return this.coalesce ? this.getById.execute(id, query) : query.get();
+    }
+
+    /**
+     * Called by the session writes. Inside a transaction, the running reads are only detached once
+     * it completes: a read started before the commit may not see the write.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateNow();
+                }
+            });
+        } else {
+            invalidateNow();
+        }
+    }
+
+    private void invalidateNow() {
+        this.findAll.invalidate();
+        this.getById.invalidate();
+        if (this.catalogue != null) {
+            this.catalogue.invalidate();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (this.catalogueRefresher != null) {
+            this.catalogueRefresher.shutdownNow();
+        }
+    }
+}
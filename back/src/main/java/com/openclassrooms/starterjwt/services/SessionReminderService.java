@@ -0,0 +1,35 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.ReminderDto;
+import com.openclassrooms.starterjwt.repository.SessionReminderRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class SessionReminderService {
+    private final SessionReminderRepository sessionReminderRepository;
+
+    public SessionReminderService(SessionReminderRepository sessionReminderRepository) {
+        this.sessionReminderRepository = sessionReminderRepository;
+    }
+
+    /**
+     * Claims at most {@code limit} reminders of the sessions starting after {@code now} and within
+     * {@code leadMs}, and returns them: two statements, whatever the number of participants.
+     * The claim is committed on return, before anything is sent.
+     */
+    @Transactional
+    public List<ReminderDto> claimDue(Date now, long leadMs, int limit) {
+        String claimId = UUID.randomUUID().toString();
+        int claimed = this.sessionReminderRepository.claim(claimId, now, new Date(now.getTime() + leadMs), limit);
+        if (claimed == 0) {
+            return Collections.emptyList();
+        }
+        return this.sessionReminderRepository.findClaimed(claimId);
+    }
+}
@@ -0,0 +1,23 @@
+package com.openclassrooms.starterjwt.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class SessionSeriesScheduler {
+    private final SessionSeriesService sessionSeriesService;
+
+    public SessionSeriesScheduler(SessionSeriesService sessionSeriesService) {
+        this.sessionSeriesService = sessionSeriesService;
+    }
+
+    @Scheduled(initialDelayString = "${oc.app.series.initialDelayMs:60000}", fixedDelayString = "${oc.app.series.refreshMs:3600000}")
+    public void extendWindows() {
+        int created = this.sessionSeriesService.extendWindows();
+        if (created > 0) {
+            log.info("Materialized {} session occurrences", created);
+        }
+    }
+}
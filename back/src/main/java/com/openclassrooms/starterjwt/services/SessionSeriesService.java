@@ -0,0 +1,239 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.audit.AuditAction;
+import com.openclassrooms.starterjwt.audit.AuditLog;
+import com.openclassrooms.starterjwt.dto.TimeSlotDto;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.ConflictException;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.models.Recurrence;
+import com.openclassrooms.starterjwt.models.OutboxEvent;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionSeries;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.SessionSeriesRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+@Service
+@Slf4j
+public class SessionSeriesService {
+    private final SessionSeriesRepository sessionSeriesRepository;
+
+    private final SessionRepository sessionRepository;
+
+    private final TeacherRepository teacherRepository;
+
+    private final SessionChangeLog sessionChangeLog;
+
+    private final SessionOutbox sessionOutbox;
+
+    private final AuditLog auditLog;
+
+    private final int windowDays;
+
+    public SessionSeriesService(SessionSeriesRepository sessionSeriesRepository,
+                                SessionRepository sessionRepository,
+                                TeacherRepository teacherRepository,
+                                SessionChangeLog sessionChangeLog,
+                                SessionOutbox sessionOutbox,
+                                AuditLog auditLog,
+                                @Value("${oc.app.series.windowDays:28}") int windowDays) {
+        this.sessionSeriesRepository = sessionSeriesRepository;
+        this.sessionRepository = sessionRepository;
+        this.teacherRepository = teacherRepository;
+        this.sessionChangeLog = sessionChangeLog;
+        this.sessionOutbox = sessionOutbox;
+        this.auditLog = auditLog;
+        this.windowDays = windowDays;
+    }
+
+    public List<SessionSeries> findAll() {
+        return this.sessionSeriesRepository.findAll();
+    }
+
+    public SessionSeries getById(Long id) {
+        return this.sessionSeriesRepository.findById(id).orElse(null);
+    }
+
+    @Transactional
+    public SessionSeries create(SessionSeries series) {
+        Recurrence recurrence = parse(series.getRecurrence());
+        series.setMaterializedUntil(null);
+        SessionSeries created = this.sessionSeriesRepository.save(series);
+        materialize(created, recurrence, horizon(), false);
+        return created;
+    }
+
+    /**
+     * Removes the series and its upcoming occurrences; past occurrences are kept as standalone sessions.
+     */
+    @Transactional
+    public void delete(Long id) {
+        SessionSeries series = this.sessionSeriesRepository.findById(id).orElseThrow(NotFoundException::new);
+        List<Session> upcoming = this.sessionRepository.findBySeriesIdAndDateGreaterThanEqual(id, new Date());
+        this.sessionRepository.deleteAll(upcoming);
+        List<Long> detached = this.sessionRepository.findIdsBySeriesId(id);
+        this.sessionRepository.detachFromSeries(id);
+        this.sessionSeriesRepository.delete(series);
+        List<Long> deleted = upcoming.stream().map(Session::getId).collect(Collectors.toList());
+        this.sessionChangeLog.deleted(deleted);
+        this.sessionChangeLog.changed(detached);
+        this.sessionOutbox.append(OutboxEvent.Type.SESSION_DELETED, deleted);
+        this.sessionOutbox.append(OutboxEvent.Type.SESSION_UPDATED, detached);
+        this.auditLog.record(AuditAction.SESSION_DELETED, deleted);
+        this.auditLog.record(AuditAction.SESSION_UPDATED, detached);
+    }
+
+    /**
+     * Materializes occurrences of every series up to the rolling window horizon.
+     * Only the part of the window not yet materialized is generated; occurrences
+     * clashing with another booking of their teacher are skipped.
+     */
+    @Transactional
+    public int extendWindows() {
+        Date horizon = horizon();
+        int created = 0;
+        for (SessionSeries series : this.sessionSeriesRepository.findNotMaterializedBefore(horizon)) {
+            created += materialize(series, parse(series.getRecurrence()), horizon, true);
+        }
+        return created;
+    }
+
+    /**
+     * Computes, without storing them, the occurrences in [from, to) that lie beyond
+     * the materialized window of their series, optionally for a single teacher. Like
+     * materialization, it never returns occurrences already past.
+     */
+    public List<Session> expand(Date from, Date to, Long teacherId) {
+        List<Session> occurrences = new ArrayList<>();
+        Date now = new Date();
+        for (SessionSeries series : this.sessionSeriesRepository.findNotMaterializedBefore(to)) {
+            if (teacherId != null && (series.getTeacher() == null || !teacherId.equals(series.getTeacher().getId()))) {
+                continue;
+            }
+            Date materializedUntil = series.getMaterializedUntil();
+            Date windowStart = materializedUntil != null && materializedUntil.after(from) ? materializedUntil : from;
+            if (windowStart.before(now)) {
+                windowStart = now;
+            }
+            parse(series.getRecurrence())
+                    .between(toLocalDateTime(series.getStartDate()), toLocalDateTime(windowStart), toLocalDateTime(to))
+                    .forEach(date -> occurrences.add(occurrenceOf(series, date)));
+        }
+        return occurrences;
+    }
+
+    private int materialize(SessionSeries series, Recurrence recurrence, Date until, boolean skipConflicts) {
+        Date from = series.getMaterializedUntil() != null ? series.getMaterializedUntil() : series.getStartDate();
+        // Occurrences already past are never stored, even for a series started in the past
+        Date now = new Date();
+        if (from.before(now)) {
+            from = now;
+        }
+        if (!from.before(until)) {
+            return 0;
+        }
+
+        List<Session> sessions = recurrence
+                .between(toLocalDateTime(series.getStartDate()), toLocalDateTime(from), toLocalDateTime(until))
+                .stream()
+                .map(date -> occurrenceOf(series, date))
+                .collect(Collectors.toList());
+        sessions = withoutTeacherConflicts(series, sessions, from, until, skipConflicts);
+        this.sessionRepository.saveAll(sessions);
+        List<Long> created = sessions.stream().map(Session::getId).collect(Collectors.toList());
+        this.sessionChangeLog.changed(created);
+        this.sessionOutbox.append(OutboxEvent.Type.SESSION_CREATED, created);
+        this.auditLog.record(AuditAction.SESSION_CREATED, created);
+
+        series.setMaterializedUntil(until);
+        this.sessionSeriesRepository.save(series);
+        return sessions.size();
+    }
+
+    /**
+     * Same check as a single session booking, under the same teacher lock: an occurrence may not
+     * overlap a stored session nor a not yet materialized occurrence of another series.
+     */
+    private List<Session> withoutTeacherConflicts(SessionSeries series, List<Session> occurrences,
+                                                  Date from, Date until, boolean skipConflicts) {
+        if (series.getTeacher() == null || series.getTeacher().getId() == null || occurrences.isEmpty()) {
+            return occurrences;
+        }
+
+        Long teacherId = series.getTeacher().getId();
+        this.teacherRepository.lockById(teacherId);
+
+        long maxDuration = TimeUnit.MINUTES.toMillis(Session.MAX_DURATION);
+        Date earliestStart = new Date(from.getTime() - maxDuration);
+        Date latestStart = new Date(until.getTime() + maxDuration);
+        List<TimeSlotDto> bookings = new ArrayList<>(
+                this.sessionRepository.findTeacherSlotsStartingBetween(teacherId, earliestStart, latestStart));
+        for (Session other : expand(earliestStart, latestStart, teacherId)) {
+            if (!series.getId().equals(other.getSeriesId())) {
+                bookings.add(slotOf(other));
+            }
+        }
+
+        List<Session> available = new ArrayList<>();
+        for (Session occurrence : occurrences) {
+            TimeSlotDto slot = slotOf(occurrence);
+            if (bookings.stream().noneMatch(booking -> booking.overlaps(slot.getStart(), slot.getEnd()))) {
+                available.add(occurrence);
+            } else if (skipConflicts) {
+                log.warn("Skipped occurrence clashing with a teacher booking {} {} {}",
+                        kv("seriesId", series.getId()), kv("teacherId", teacherId), kv("date", occurrence.getDate()));
+            } else {
+                throw new ConflictException();
+            }
+        }
+        return available;
+    }
+
+    private static TimeSlotDto slotOf(Session session) {
+        int duration = session.getDuration() != null ? session.getDuration() : Session.DEFAULT_DURATION;
+        return new TimeSlotDto(null, session.getDate(), duration);
+    }
+
+    private Session occurrenceOf(SessionSeries series, LocalDateTime date) {
+        return Session.builder()
+                .name(series.getName())
+                .description(series.getDescription())
+                .teacher(series.getTeacher())
+                .date(Date.from(date.atZone(ZoneId.systemDefault()).toInstant()))
+                .duration(series.getDuration())
+                .seriesId(series.getId())
+                .users(new ArrayList<>())
+                .build();
+    }
+
+    private Date horizon() {
+        return new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(this.windowDays));
+    }
+
+    private static Recurrence parse(String rule) {
+        try {
+            return Recurrence.parse(rule);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException();
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
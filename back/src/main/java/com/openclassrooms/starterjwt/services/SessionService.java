@@ -1,56 +1,250 @@
 package com.openclassrooms.starterjwt.services;
 
+import com.openclassrooms.starterjwt.audit.AuditAction;
+import com.openclassrooms.starterjwt.audit.AuditLog;
+import com.openclassrooms.starterjwt.dto.SessionCompactDto;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
+import com.openclassrooms.starterjwt.dto.TimeSlotDto;
 import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.ConflictException;
 import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.models.OutboxEvent;
 import com.openclassrooms.starterjwt.models.Session;
-import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.models.SessionChange;
+import com.openclassrooms.starterjwt.repository.SessionChangeRepository;
 import com.openclassrooms.starterjwt.repository.SessionRepository;
-import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
 public class SessionService {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int MAX_CHANGES = 1000;
+
+    private static final String TIMER = "session.service";
+
     private final SessionRepository sessionRepository;
 
-    private final UserRepository userRepository;
+    private final TeacherRepository teacherRepository;
+
+    private final SessionSeriesService sessionSeriesService;
+
+    private final SessionReadCoalescer sessionReadCoalescer;
+
+    private final SessionChangeLog sessionChangeLog;
 
-    public SessionService(SessionRepository sessionRepository, UserRepository userRepository) {
+    private final SessionChangeRepository sessionChangeRepository;
+
+    private final SessionOutbox sessionOutbox;
+
+    private final AuditLog auditLog;
+
+    public SessionService(SessionRepository sessionRepository,
+                          TeacherRepository teacherRepository, SessionSeriesService sessionSeriesService,
+                          SessionReadCoalescer sessionReadCoalescer, SessionChangeLog sessionChangeLog,
+                          SessionChangeRepository sessionChangeRepository, SessionOutbox sessionOutbox,
+                          AuditLog auditLog) {
         this.sessionRepository = sessionRepository;
-        this.userRepository = userRepository;
+        this.teacherRepository = teacherRepository;
+        this.sessionSeriesService = sessionSeriesService;
+        this.sessionReadCoalescer = sessionReadCoalescer;
+        this.sessionChangeLog = sessionChangeLog;
+        this.sessionChangeRepository = sessionChangeRepository;
+        this.sessionOutbox = sessionOutbox;
+        this.auditLog = auditLog;
     }
 
+    @Transactional
     public Session create(Session session) {
-        return this.sessionRepository.save(session);
+        assertTeacherAvailable(session, null);
+        Session created = this.sessionRepository.save(session);
+        this.sessionChangeLog.changed(created.getId());
+        this.sessionOutbox.append(OutboxEvent.Type.SESSION_CREATED, created.getId(), null);
+        this.auditLog.record(AuditAction.SESSION_CREATED, created.getId());
+        return created;
     }
 
+    @Transactional
     public void delete(Long id) {
         this.sessionRepository.deleteById(id);
+        this.sessionChangeLog.deleted(Collections.singletonList(id));
+        this.sessionOutbox.append(OutboxEvent.Type.SESSION_DELETED, id, null);
+        this.auditLog.record(AuditAction.SESSION_DELETED, id);
     }
 
+    /**
+     * Concurrent calls share one query; the sessions returned must not be modified.
+     */
+    @Timed(value = TIMER, histogram = true)
     public List<Session> findAll() {
-        return this.sessionRepository.findAll();
+        return this.sessionReadCoalescer.findAll(this.sessionRepository::findAll);
+    }
+
+    /**
+     * One page of all the sessions, in id order so that pages stay stable while sessions are added.
+     */
+    public List<Session> findPage(int page, int size) {
+        return this.sessionRepository.findAllBy(PageRequest.of(page, size, Sort.by("id"))).getContent();
+    }
+
+    public List<SessionCompactDto> findAllCompact() {
+        return this.sessionRepository.findAllCompact();
+    }
+
+    /**
+     * Sessions in [from, to), optionally for a single teacher, including the not yet
+     * materialized occurrences of recurring series.
+     */
+    public List<Session> findBetween(Date from, Date to, Long teacherId) {
+        List<Session> sessions = new ArrayList<>(teacherId == null
+                ? this.sessionRepository.findBetween(from, to)
+                : this.sessionRepository.findByTeacherBetween(teacherId, from, to));
+        List<Session> occurrences = this.sessionSeriesService.expand(from, to, teacherId);
+        if (!occurrences.isEmpty()) {
+            sessions.addAll(occurrences);
+            sessions.sort(Comparator.comparing(Session::getDate));
+        }
+        return sessions;
+    }
+
+    public Page<SessionSummaryDto> findByParticipant(Long userId, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        return this.sessionRepository.findSummariesByParticipant(userId, pageRequest);
+    }
+
+    /**
+     * The sessions changed after the {@code since} cursor, oldest change first, at most {@code limit}.
+     * A negative or unknown cursor (no {@code since} for a first sync) resets the client with all the
+     * sessions, {@code limit} at a time by id: the following pages are read with the same cursor and
+     * {@code after}, the last id sent, and whatever changes meanwhile is in the changes after the cursor.
+     * Runs in one transaction so that the cursor matches the sessions read. The changes written
+     * since the last read are numbered first; reading committed rows, the range scan also sees
+     * those numbered by a reader that held the counter before.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public SessionChanges findChanges(long since, Long after, int limit) {
+        List<SessionChangeRepository.Sequence> sequence = this.sessionChangeRepository.findSequence();
+        long current = sequence.get(0).getLastSeq();
+        List<Long> pending = sequence.stream().map(SessionChangeRepository.Sequence::getPendingSessionId)
+                .filter(Objects::nonNull).collect(Collectors.toList());
+        if (!pending.isEmpty()) {
+            current = this.sessionChangeLog.number(pending);
+        }
+
+        int size = Math.min(Math.max(limit, 1), MAX_CHANGES);
+        if (since < 0 || since > current) {
+            return findAllAfter(current, true, 0, size);
+        }
+        if (after != null) {
+            return findAllAfter(since, false, after, size);
+        }
+
+        List<SessionChange> changes = this.sessionChangeRepository.findBySeqGreaterThanOrderBySeq(since,
+                PageRequest.of(0, size + 1));
+        boolean more = changes.size() > size;
+        if (more) {
+            changes = changes.subList(0, size);
+        }
+
+        List<Long> changedIds = changes.stream().filter(change -> !change.isDeleted())
+                .map(SessionChange::getSessionId).collect(Collectors.toList());
+        Map<Long, Session> changed = changedIds.isEmpty() ? Collections.emptyMap()
+                : this.sessionRepository.findWithParticipantsByIdIn(changedIds).stream()
+                        .collect(Collectors.toMap(Session::getId, Function.identity()));
+        List<Session> sessions = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for (SessionChange change : changes) {
+            Session session = changed.get(change.getSessionId());
+            if (session != null) {
+                sessions.add(session);
+            } else {
+                deleted.add(change.getSessionId());
+            }
+        }
+        long cursor = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return new SessionChanges(cursor, false, more, null, sessions, deleted);
+    }
+
+    private SessionChanges findAllAfter(long cursor, boolean reset, long after, int size) {
+        List<Long> ids = this.sessionRepository.findIdsAfter(after, PageRequest.of(0, size + 1));
+        boolean more = ids.size() > size;
+        if (more) {
+            ids = ids.subList(0, size);
+        }
+
+        List<Session> sessions = ids.isEmpty() ? new ArrayList<>()
+                : new ArrayList<>(this.sessionRepository.findWithParticipantsByIdIn(ids));
+        sessions.sort(Comparator.comparing(Session::getId));
+        return new SessionChanges(cursor, reset, more, more ? ids.get(ids.size() - 1) : null, sessions,
+                Collections.emptyList());
     }
 
+    /**
+     * Concurrent calls for the same id share one query; the session returned must not be modified.
+     */
     public Session getById(Long id) {
-        return this.sessionRepository.findById(id).orElse(null);
+        return this.sessionReadCoalescer.getById(id, () -> this.sessionRepository.findById(id).orElse(null));
     }
 
+    @Timed(value = TIMER, histogram = true)
+    @Transactional
     public Session update(Long id, Session session) {
         Session existingSession = this.sessionRepository.findById(id).orElse(null);
         if (existingSession == null) {
             return null;
         }
         session.setId(id);
-        return this.sessionRepository.save(session);
+        assertTeacherAvailable(session, id);
+        Session updated = this.sessionRepository.save(session);
+        this.sessionChangeLog.changed(id);
+        this.sessionOutbox.append(OutboxEvent.Type.SESSION_UPDATED, id, null);
+        this.auditLog.record(AuditAction.SESSION_UPDATED, id);
+        return updated;
+    }
+
+    /**
+     * Bookings of a teacher overlapping [from, to), including the not yet materialized
+     * occurrences of recurring series.
+     */
+    public List<TimeSlotDto> findTeacherBookings(Long teacherId, Date from, Date to) {
+        Date earliestStart = new Date(from.getTime() - TimeUnit.MINUTES.toMillis(Session.MAX_DURATION));
+        List<TimeSlotDto> bookings = this.sessionRepository.findTeacherSlotsStartingBetween(teacherId, earliestStart, to)
+                .stream()
+                .filter(slot -> slot.overlaps(from, to))
+                .collect(Collectors.toList());
+        for (Session occurrence : this.sessionSeriesService.expand(earliestStart, to, teacherId)) {
+            TimeSlotDto slot = new TimeSlotDto(null, occurrence.getDate(), occurrence.getDuration());
+            if (slot.overlaps(from, to)) {
+                bookings.add(slot);
+            }
+        }
+        bookings.sort(Comparator.comparing(TimeSlotDto::getStart));
+        return bookings;
     }
 
+    @Timed(value = TIMER, histogram = true)
+    @Transactional
     public void participate(Long id, Long userId) {
         Session session = this.sessionRepository.findById(id).orElse(null);
-        User user = this.userRepository.findById(userId).orElse(null);
-        if (session == null || user == null) {
+        if (session == null) {
             throw new NotFoundException();
         }
 
@@ -59,11 +253,17 @@ public class SessionService {
             throw new BadRequestException();
         }
 
-        session.getUsers().add(user);
+        // Inserted without loading the user; session is detached and still holds the former participants
+        if (this.sessionRepository.addParticipant(id, userId) == 0) {
+            throw new NotFoundException();
+        }
 
-        this.sessionRepository.save(session);
+        this.sessionChangeLog.participation(id, session.getUsers().size() + 1);
+        this.sessionOutbox.append(OutboxEvent.Type.PARTICIPANT_ADDED, id, userId);
     }
 
+    @Timed(value = TIMER, histogram = true)
+    @Transactional
     public void noLongerParticipate(Long id, Long userId) {
         Session session = this.sessionRepository.findById(id).orElse(null);
         if (session == null) {
@@ -75,9 +275,29 @@ public class SessionService {
             throw new BadRequestException();
         }
 
-        session.setUsers(
-                session.getUsers().stream().filter(user -> !user.getId().equals(userId)).collect(Collectors.toList()));
+        // Already removed by a concurrent request since the session was read
+        if (this.sessionRepository.removeParticipant(id, userId) == 0) {
+            throw new BadRequestException();
+        }
 
-        this.sessionRepository.save(session);
+        this.sessionChangeLog.participation(id, session.getUsers().size() - 1);
+        this.sessionOutbox.append(OutboxEvent.Type.PARTICIPANT_REMOVED, id, userId);
+    }
+
+    private void assertTeacherAvailable(Session session, Long excludedId) {
+        if (session.getTeacher() == null || session.getTeacher().getId() == null || session.getDate() == null) {
+            return;
+        }
+
+        Long teacherId = session.getTeacher().getId();
+        this.teacherRepository.lockById(teacherId);
+
+        int duration = session.getDuration() != null ? session.getDuration() : Session.DEFAULT_DURATION;
+        Date end = new Date(session.getDate().getTime() + TimeUnit.MINUTES.toMillis(duration));
+        boolean overlapping = findTeacherBookings(teacherId, session.getDate(), end).stream()
+                .anyMatch(slot -> slot.getSessionId() == null || !slot.getSessionId().equals(excludedId));
+        if (overlapping) {
+            throw new ConflictException();
+        }
     }
 }
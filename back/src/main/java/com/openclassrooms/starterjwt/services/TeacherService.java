@@ -1,17 +1,23 @@
 package com.openclassrooms.starterjwt.services;
 
+import com.openclassrooms.starterjwt.dto.TimeSlotDto;
 import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.repository.TeacherRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 @Service
 public class TeacherService {
     private final TeacherRepository teacherRepository;
 
-    public TeacherService(TeacherRepository teacherRepository) {
+    private final SessionService sessionService;
+
+    public TeacherService(TeacherRepository teacherRepository, SessionService sessionService) {
         this.teacherRepository = teacherRepository;
+        this.sessionService = sessionService;
     }
 
     public List<Teacher> findAll() {
@@ -21,4 +27,24 @@ public class TeacherService {
     public Teacher findById(Long id) {
         return this.teacherRepository.findById(id).orElse(null);
     }
+
+    /**
+     * Free slots of a teacher in [from, to): the gaps between the sessions they are booked on.
+     */
+    public List<TimeSlotDto> findAvailability(Long teacherId, Date from, Date to) {
+        List<TimeSlotDto> free = new ArrayList<>();
+        Date cursor = from;
+        for (TimeSlotDto booked : this.sessionService.findTeacherBookings(teacherId, from, to)) {
+            if (booked.getStart().after(cursor)) {
+                free.add(new TimeSlotDto(null, cursor, booked.getStart()));
+            }
+            if (booked.getEnd().after(cursor)) {
+                cursor = booked.getEnd();
+            }
+        }
+        if (cursor.before(to)) {
+            free.add(new TimeSlotDto(null, cursor, to));
+        }
+        return free;
+    }
 }
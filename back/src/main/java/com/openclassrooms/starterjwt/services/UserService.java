@@ -1,5 +1,7 @@
 package com.openclassrooms.starterjwt.services;
 
+import com.openclassrooms.starterjwt.audit.AuditAction;
+import com.openclassrooms.starterjwt.audit.AuditLog;
 import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repository.UserRepository;
 import org.springframework.stereotype.Service;
@@ -8,15 +10,23 @@ import org.springframework.stereotype.Service;
 public class UserService {
     private final UserRepository userRepository;
 
-    public UserService(UserRepository userRepository) {
+    private final AuditLog auditLog;
+
+    public UserService(UserRepository userRepository, AuditLog auditLog) {
         this.userRepository = userRepository;
+        this.auditLog = auditLog;
     }
 
     public void delete(Long id) {
         this.userRepository.deleteById(id);
+        this.auditLog.record(AuditAction.USER_DELETED, id);
     }
 
     public User findById(Long id) {
         return this.userRepository.findById(id).orElse(null);
     }
+
+    public User findByEmail(String email) {
+        return this.userRepository.findByEmail(email).orElse(null);
+    }
 }
@@ -0,0 +1,245 @@
+package com.openclassrooms.starterjwt.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour AuditLog
+ */
+@ExtendWith(MockitoExtension.class)
+public class AuditLogTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AuditLog auditLog;
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (auditLog != null) {
+            auditLog.shutdown();
+        }
+    }
+
+    /**
+     * Test l'écriture en arrière-plan
+     * Vérifie que les enregistrements sont insérés par lots avec l'utilisateur connecté
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecord_FlushedByBatchesWithActor() throws InterruptedException {
+        // GIVEN
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken("yoga@studio.com", null));
+        auditLog = auditLog(100);
+        auditLog.start();
+
+        // WHEN
+        auditLog.record(AuditAction.SESSION_CREATED, 1L);
+        auditLog.record(AuditAction.SESSION_UPDATED, 1L);
+        auditLog.record(AuditAction.SESSION_DELETED, 1L);
+        auditLog.shutdown();
+
+        // THEN
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(eq(AuditLog.INSERT), rows.capture());
+        assertEquals(3, rows.getAllValues().stream().mapToInt(List::size).sum());
+        Object[] first = rows.getAllValues().get(0).get(0);
+        assertEquals("yoga@studio.com", first[1]);
+        assertEquals("SESSION_CREATED", first[2]);
+        assertEquals(3.0, meterRegistry.counter("audit.records", "result", "written").count());
+    }
+
+    /**
+     * Test un enregistrement dans une transaction
+     * Vérifie qu'il n'est retenu qu'à la validation, et jamais après une annulation
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecord_QueuedOnlyAfterCommit() throws InterruptedException {
+        // GIVEN
+        auditLog = auditLog(100);
+        TransactionSynchronizationManager.initSynchronization();
+        auditLog.record(AuditAction.SESSION_CREATED, 1L);
+        List<TransactionSynchronization> committed = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        auditLog.record(AuditAction.SESSION_DELETED, 2L);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // WHEN
+        committed.forEach(TransactionSynchronization::afterCommit);
+        auditLog.shutdown();
+
+        // THEN
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(AuditLog.INSERT), rows.capture());
+        assertEquals(1, rows.getValue().size());
+        assertEquals("system", rows.getValue().get(0)[1]);
+        assertEquals(1L, rows.getValue().get(0)[3]);
+    }
+
+    /**
+     * Test l'audit de plusieurs sessions, comme les occurrences d'une série
+     * Vérifie qu'un enregistrement est écrit par session
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecord_OneRecordPerTarget() throws InterruptedException {
+        // GIVEN
+        auditLog = auditLog(100);
+
+        // WHEN
+        auditLog.record(AuditAction.SESSION_CREATED, Arrays.asList(1L, 2L));
+        auditLog.shutdown();
+
+        // THEN
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(AuditLog.INSERT), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        assertEquals(2L, rows.getValue().get(1)[3]);
+    }
+
+    /**
+     * Test une file pleine
+     * Vérifie que l'appelant insère lui-même son enregistrement au lieu de le perdre
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecord_FullQueueWritesOnCallerThread() {
+        // GIVEN
+        auditLog = auditLog(1);
+        auditLog.record(AuditAction.SESSION_CREATED, 1L);
+
+        // WHEN
+        auditLog.record(AuditAction.SESSION_CREATED, 2L);
+
+        // THEN
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(AuditLog.INSERT), rows.capture());
+        assertEquals(2L, rows.getValue().get(0)[3]);
+    }
+
+    /**
+     * Test l'arrêt sans base de données
+     * Vérifie que les enregistrements en attente sont conservés dans le fichier de secours
+     */
+    @Test
+    public void testShutdown_DatabaseDownKeepsRecordsInFallbackFile() throws Exception {
+        // GIVEN
+        when(jdbcTemplate.batchUpdate(eq(AuditLog.INSERT), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("pool closed"));
+        auditLog = auditLog(100);
+        auditLog.record(AuditAction.SESSION_DELETED, 1L);
+        auditLog.record(AuditAction.USER_DELETED, 2L);
+
+        // WHEN
+        auditLog.shutdown();
+
+        // THEN
+        List<String> lines = Files.readAllLines(directory.resolve("audit.jsonl"), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertEquals(AuditAction.USER_DELETED, objectMapper.readValue(lines.get(1), AuditRecord.class).getAction());
+        assertEquals(2.0, meterRegistry.counter("audit.records", "result", "fallback").count());
+    }
+
+    /**
+     * Test le démarrage avec un fichier de secours
+     * Vérifie que ses enregistrements sont insérés puis le fichier supprimé
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStart_ReplaysFallbackFile() throws Exception {
+        // GIVEN
+        Path file = directory.resolve("audit.jsonl");
+        Files.write(file, Arrays.asList(
+                objectMapper.writeValueAsString(new AuditRecord(1000L, "yoga@studio.com", AuditAction.SESSION_CREATED, 1L)),
+                objectMapper.writeValueAsString(new AuditRecord(2000L, "yoga@studio.com", AuditAction.SESSION_DELETED, 1L))),
+                StandardCharsets.UTF_8);
+        auditLog = auditLog(100);
+
+        // WHEN
+        auditLog.start();
+
+        // THEN
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(AuditLog.INSERT), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        assertEquals("SESSION_DELETED", rows.getValue().get(1)[2]);
+        assertFalse(Files.exists(file));
+    }
+
+    /**
+     * Test le démarrage avec un fichier de secours dont un lot échoue
+     * Vérifie que les lots déjà insérés sont annulés et que le fichier est conservé en entier
+     */
+    @Test
+    public void testStart_FailedReplayKeepsWholeFile() throws Exception {
+        // GIVEN
+        Path file = directory.resolve("audit.jsonl");
+        List<String> lines = new ArrayList<>();
+        for (long id = 1; id <= 11; id++) {
+            lines.add(objectMapper.writeValueAsString(new AuditRecord(1000L, "yoga@studio.com", AuditAction.SESSION_CREATED, id)));
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+        when(jdbcTemplate.batchUpdate(eq(AuditLog.INSERT), anyList()))
+                .thenReturn(new int[10])
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+        auditLog = auditLog(100);
+
+        // WHEN
+        auditLog.start();
+
+        // THEN
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(AuditLog.INSERT), anyList());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        assertEquals(lines, Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    private AuditLog auditLog(int queueSize) {
+        return new AuditLog(jdbcTemplate, transactionManager, objectMapper, meterRegistry, queueSize, 10, 50, 10,
+                directory.resolve("audit.jsonl").toString());
+    }
+}
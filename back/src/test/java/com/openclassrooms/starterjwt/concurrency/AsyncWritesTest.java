@@ -0,0 +1,175 @@
+package com.openclassrooms.starterjwt.concurrency;
+
+import com.openclassrooms.starterjwt.monitoring.RequestTrace;
+import com.openclassrooms.starterjwt.monitoring.RequestTrace.Phase;
+import com.openclassrooms.starterjwt.monitoring.SqlStatementCounter;
+import com.openclassrooms.starterjwt.monitoring.SqlStatementCountingListener;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour AsyncWrites
+ */
+public class AsyncWritesTest {
+
+    private final AsyncWrites asyncWrites = new AsyncWrites(true, 1, 1);
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        SecurityContextHolder.clearContext();
+        MDC.clear();
+        asyncWrites.shutdown();
+    }
+
+    /**
+     * Test le mode synchrone
+     * Vérifie que l'écriture s'exécute sur le thread appelant
+     */
+    @Test
+    public void testInline_RunsOnCallerThread() {
+        // WHEN
+        String thread = AsyncWrites.inline().supply(() -> Thread.currentThread().getName()).join();
+
+        // THEN
+        assertEquals(Thread.currentThread().getName(), thread);
+    }
+
+    /**
+     * Test le contexte de l'écriture
+     * Vérifie que l'utilisateur connecté et l'identifiant de trace suivent l'écriture sur le pool
+     */
+    @Test
+    public void testSupply_PropagatesSecurityContextAndMdc() {
+        // GIVEN
+        Authentication authentication = new UsernamePasswordAuthenticationToken("yoga@studio.com", null);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        MDC.put("traceId", "abc123");
+
+        // WHEN
+        String[] seen = asyncWrites.supply(() -> new String[] {
+                Thread.currentThread().getName(),
+                SecurityContextHolder.getContext().getAuthentication().getName(),
+                MDC.get("traceId") }).join();
+
+        // THEN
+        assertTrue(seen[0].startsWith("write-"));
+        assertEquals("yoga@studio.com", seen[1]);
+        assertEquals("abc123", seen[2]);
+    }
+
+    /**
+     * Test le suivi des requêtes SQL de l'écriture
+     * Vérifie que ses requêtes et ses phases sont ajoutées à celles de la requête HTTP
+     */
+    @Test
+    public void testSupply_RecordsStatementsAndPhasesOfTheCaller() {
+        // GIVEN
+        SqlStatementCounter counter = SqlStatementCounter.start();
+        RequestTrace trace = RequestTrace.start("abc123");
+        ExecutionInfo statement = new ExecutionInfo();
+        statement.setElapsedTime(2);
+
+        // WHEN
+        try {
+            asyncWrites.supply(() -> {
+                RequestTrace.enter(Phase.SERVICE);
+                SqlStatementCountingListener listener = new SqlStatementCountingListener();
+                listener.beforeQuery(statement, Collections.emptyList());
+                listener.afterQuery(statement, Collections.emptyList());
+                listener.beforeQuery(statement, Collections.emptyList());
+                listener.afterQuery(statement, Collections.emptyList());
+                RequestTrace.exit();
+                return null;
+            }).join();
+        } finally {
+            RequestTrace.stop(trace);
+            SqlStatementCounter.stop(counter);
+        }
+
+        // THEN
+        assertEquals(2, counter.getStatements());
+        assertEquals(4, counter.getElapsedMillis());
+        assertTrue(trace.getNanos(Phase.SERVICE) > 0);
+        assertTrue(trace.getNanos(Phase.SQL) > 0);
+    }
+
+    /**
+     * Test l'échec d'une écriture
+     * Vérifie que l'exception est transmise par le futur
+     */
+    @Test
+    public void testSupply_FailureCompletesExceptionally() {
+        // WHEN
+        CompletableFuture<Object> future = asyncWrites.supply(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        // THEN
+        Exception e = assertThrows(Exception.class, future::join);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    /**
+     * Test la saturation de la file d'écriture
+     * Vérifie qu'une écriture au-delà de la file est rejetée immédiatement
+     */
+    @Test
+    public void testSupply_RejectsWhenQueueIsFull() throws Exception {
+        // GIVEN
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture<Boolean> first = asyncWrites.supply(() -> {
+            running.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = asyncWrites.supply(() -> "queued");
+
+        // WHEN / THEN
+        assertThrows(RejectedExecutionException.class, () -> asyncWrites.supply(() -> "rejected"));
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Test l'arrêt de l'application
+     * Vérifie que les écritures acceptées sont terminées avant l'arrêt
+     */
+    @Test
+    public void testShutdown_FinishesAcceptedWrites() throws Exception {
+        // GIVEN
+        CompletableFuture<String> write = asyncWrites.supply(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return "done";
+        });
+
+        // WHEN
+        asyncWrites.shutdown();
+
+        // THEN
+        assertTrue(write.isDone());
+        assertEquals("done", write.get());
+    }
+}
@@ -0,0 +1,133 @@
+package com.openclassrooms.starterjwt.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour BlockingReads
+ */
+public class BlockingReadsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final BlockingReads blockingReads = new BlockingReads(meterRegistry, 1, 1);
+
+    @AfterEach
+    public void tearDown() {
+        blockingReads.dispose();
+    }
+
+    /**
+     * Test une lecture sans résultat
+     * Vérifie que le Mono se termine vide
+     */
+    @Test
+    public void testMono_NullResultCompletesEmpty() {
+        StepVerifier.create(blockingReads.mono(() -> null))
+                .verifyComplete();
+    }
+
+    /**
+     * Test la lecture sur le scheduler dédié
+     * Vérifie que la requête ne s'exécute pas sur le thread appelant
+     */
+    @Test
+    public void testMono_RunsOnReadScheduler() {
+        StepVerifier.create(blockingReads.mono(() -> Thread.currentThread().getName()))
+                .assertNext(thread -> assertTrue(thread.startsWith("jpa-read")))
+                .verifyComplete();
+    }
+
+    /**
+     * Test la mesure des lectures
+     * Vérifie que chaque lecture est chronométrée, même celles qui échouent
+     */
+    @Test
+    public void testMono_TimesReads() {
+        StepVerifier.create(blockingReads.mono(() -> "read"))
+                .expectNext("read")
+                .verifyComplete();
+        StepVerifier.create(blockingReads.mono(() -> {
+            throw new IllegalStateException();
+        }))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertEquals(2, meterRegistry.get("reactive.read").timer().count());
+    }
+
+    /**
+     * Test la lecture page par page
+     * Vérifie que toutes les pages sont émises et que la dernière page incomplète arrête la lecture
+     */
+    @Test
+    public void testPages_EmitsAllPages() {
+        // GIVEN
+        List<Integer> queried = Collections.synchronizedList(new ArrayList<>());
+
+        // WHEN / THEN
+        StepVerifier.create(blockingReads.pages(page -> {
+            queried.add(page);
+            return page < 2 ? Arrays.asList(page * 2, page * 2 + 1) : Collections.singletonList(4);
+        }, 2))
+                .expectNext(0, 1, 2, 3, 4)
+                .verifyComplete();
+        assertEquals(Arrays.asList(0, 1, 2), queried);
+    }
+
+    /**
+     * Test la contre-pression
+     * Vérifie que les pages suivantes ne sont pas lues quand le client n'en demande pas plus
+     */
+    @Test
+    public void testPages_QueriesOnDemand() {
+        // GIVEN
+        List<Integer> queried = Collections.synchronizedList(new ArrayList<>());
+
+        // WHEN
+        StepVerifier.create(blockingReads.pages(page -> {
+            queried.add(page);
+            return Arrays.asList(page * 2, page * 2 + 1);
+        }, 2).take(3))
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+
+        // THEN
+        assertEquals(Arrays.asList(0, 1), queried);
+    }
+
+    /**
+     * Test la saturation du scheduler
+     * Vérifie qu'une lecture au-delà de la file d'attente est rejetée
+     */
+    @Test
+    public void testMono_RejectsWhenQueueIsFull() throws Exception {
+        // GIVEN
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        blockingReads.mono(() -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }).subscribe();
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        blockingReads.mono(() -> "queued").subscribe();
+
+        // WHEN / THEN
+        StepVerifier.create(blockingReads.mono(() -> "rejected"))
+                .expectError(RejectedExecutionException.class)
+                .verify();
+        release.countDown();
+    }
+}
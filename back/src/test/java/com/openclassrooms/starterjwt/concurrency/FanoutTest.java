@@ -0,0 +1,223 @@
+package com.openclassrooms.starterjwt.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour Fanout
+ */
+public class FanoutTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /** Envois en attente, exécutés à la main par les tests */
+    private final List<Runnable> dispatches = new ArrayList<>();
+
+    private final Fanout<String> fanout = new Fanout<>(meterRegistry, "test", dispatches::add, 2, 1000);
+
+    /**
+     * Test la diffusion d'événements
+     * Vérifie que chaque abonné reçoit les événements dans l'ordre, avec un seul envoi planifié
+     */
+    @Test
+    public void testPublish_DeliversInOrderToEverySubscriber() {
+        // GIVEN
+        RecordingSink first = new RecordingSink();
+        RecordingSink second = new RecordingSink();
+        fanout.subscribe(first);
+        fanout.subscribe(second);
+
+        // WHEN
+        fanout.publish("a");
+        fanout.publish("b");
+
+        // THEN
+        assertEquals(2, dispatches.size());
+        dispatchAll();
+        assertEquals(Arrays.asList("a", "b"), first.received);
+        assertEquals(Arrays.asList("a", "b"), second.received);
+        assertEquals(2.0, meterRegistry.get("fanout.subscribers").gauge().value());
+    }
+
+    /**
+     * Test un abonné trop lent
+     * Vérifie qu'il est déconnecté une fois son tampon plein, sans gêner les autres
+     */
+    @Test
+    public void testPublish_DropsSlowSubscriber() {
+        // GIVEN
+        RecordingSink slow = new RecordingSink();
+        fanout.subscribe(slow);
+        fanout.publish("a");
+        fanout.publish("b");
+        RecordingSink late = new RecordingSink();
+        fanout.subscribe(late);
+
+        // WHEN
+        fanout.publish("c");
+
+        // THEN
+        assertTrue(slow.closed);
+        assertEquals(1, fanout.subscribers());
+        assertEquals(1.0, meterRegistry.counter("fanout.dropped", "name", "test").count());
+        dispatchAll();
+        assertTrue(slow.received.isEmpty());
+        assertEquals(Arrays.asList("c"), late.received);
+    }
+
+    /**
+     * Test un envoi en échec, client parti
+     * Vérifie que l'abonné est retiré et ne reçoit plus rien
+     */
+    @Test
+    public void testPublish_RemovesFailingSubscriber() {
+        // GIVEN
+        RecordingSink gone = new RecordingSink();
+        gone.failing = true;
+        fanout.subscribe(gone);
+        fanout.publish("a");
+
+        // WHEN
+        dispatchAll();
+        fanout.publish("b");
+
+        // THEN
+        assertTrue(gone.closed);
+        assertEquals(0, fanout.subscribers());
+        assertTrue(dispatches.isEmpty());
+    }
+
+    /**
+     * Test la désinscription
+     * Vérifie que les événements en attente ne sont plus envoyés
+     */
+    @Test
+    public void testCancel_StopsDelivery() {
+        // GIVEN
+        RecordingSink sink = new RecordingSink();
+        Fanout.Subscription subscription = fanout.subscribe(sink);
+        fanout.publish("a");
+
+        // WHEN
+        subscription.cancel();
+        dispatchAll();
+
+        // THEN
+        assertTrue(sink.received.isEmpty());
+        assertFalse(sink.closed);
+        assertEquals(0, fanout.subscribers());
+    }
+
+    /**
+     * Test un envoi bloqué, client qui ne lit plus
+     * Vérifie que l'abonné est retiré sans interrompre le thread d'envoi, qui met son sink en erreur
+     * une fois l'envoi abandonné
+     */
+    @Test
+    public void testEvictStalled_DropsBlockedSubscriber() throws Exception {
+        // GIVEN
+        Fanout<String> stalling = new Fanout<>(meterRegistry, "stalling", dispatches::add, 2, 0);
+        BlockingSink blocked = new BlockingSink();
+        stalling.subscribe(blocked);
+        stalling.publish("a");
+        Thread sender = new Thread(dispatches.remove(0));
+        sender.start();
+        blocked.sending.await();
+        RecordingSink other = new RecordingSink();
+        stalling.subscribe(other);
+
+        // WHEN
+        int evicted = stalling.evictStalled();
+        boolean failedWhileSending = blocked.failure != null;
+        // Délai d'écriture du serveur écoulé
+        blocked.release.countDown();
+        sender.join(5000);
+
+        // THEN
+        assertEquals(1, evicted);
+        assertFalse(failedWhileSending);
+        assertFalse(blocked.interrupted);
+        assertTrue(blocked.failure instanceof TimeoutException);
+        assertFalse(blocked.closed);
+        assertEquals(1, stalling.subscribers());
+        assertEquals(1.0, meterRegistry.counter("fanout.dropped", "name", "stalling").count());
+        stalling.publish("b");
+        dispatchAll();
+        assertEquals(Arrays.asList("b"), other.received);
+    }
+
+    private void dispatchAll() {
+        while (!dispatches.isEmpty()) {
+            dispatches.remove(0).run();
+        }
+    }
+
+    private static final class RecordingSink implements Fanout.Sink<String> {
+        final List<String> received = new ArrayList<>();
+
+        boolean failing;
+
+        boolean closed;
+
+        @Override
+        public void send(String event) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            received.add(event);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public void fail(Throwable cause) {
+            closed = true;
+        }
+    }
+
+    private static final class BlockingSink implements Fanout.Sink<String> {
+        final CountDownLatch sending = new CountDownLatch(1);
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        volatile boolean interrupted;
+
+        volatile boolean closed;
+
+        volatile Throwable failure;
+
+        @Override
+        public void send(String event) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Write timeout");
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public void fail(Throwable cause) {
+            failure = cause;
+        }
+    }
+}
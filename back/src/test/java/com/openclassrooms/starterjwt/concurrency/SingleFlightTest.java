@@ -0,0 +1,153 @@
+package com.openclassrooms.starterjwt.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour SingleFlight
+ */
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>(meterRegistry, "test");
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS + 1);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test des appels identiques simultanés
+     * Vérifie qu'une seule requête est exécutée et que son résultat est partagé
+     */
+    @Test
+    public void testExecute_CollapsesConcurrentCalls() throws Exception {
+        // GIVEN
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> query = () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "sessions";
+        };
+        Future<String> leader = executor.submit(() -> singleFlight.execute("all", query));
+        awaitCount("leader", 1);
+
+        // WHEN
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute("all", query)));
+        }
+        awaitCount("collapsed", CALLERS);
+        release.countDown();
+
+        // THEN
+        assertEquals("sessions", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("sessions", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+    }
+
+    /**
+     * Test des appels successifs
+     * Vérifie que le résultat n'est pas conservé une fois l'appel terminé
+     */
+    @Test
+    public void testExecute_DoesNotCacheCompletedCalls() {
+        // GIVEN
+        AtomicInteger calls = new AtomicInteger();
+
+        // WHEN
+        singleFlight.execute("all", () -> "v" + calls.incrementAndGet());
+        String second = singleFlight.execute("all", () -> "v" + calls.incrementAndGet());
+
+        // THEN
+        assertEquals("v2", second);
+        assertEquals(2.0, meterRegistry.counter("singleflight.calls", "name", "test", "result", "leader").count());
+    }
+
+    /**
+     * Test de l'invalidation après une écriture
+     * Vérifie qu'un nouvel appel ne rejoint pas la requête lancée avant l'écriture
+     */
+    @Test
+    public void testInvalidate_NewCallersDoNotJoinRunningCall() throws Exception {
+        // GIVEN
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> before = executor.submit(() -> singleFlight.execute("all", () -> {
+            await(release);
+            return "before";
+        }));
+        awaitCount("leader", 1);
+
+        // WHEN
+        singleFlight.invalidate();
+        String after = singleFlight.execute("all", () -> "after");
+        release.countDown();
+
+        // THEN
+        assertEquals("after", after);
+        assertEquals("before", before.get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, meterRegistry.counter("singleflight.calls", "name", "test", "result", "collapsed").count());
+    }
+
+    /**
+     * Test de l'échec de la requête partagée
+     * Vérifie que l'exception est transmise aux appels regroupés
+     */
+    @Test
+    public void testExecute_SharesFailure() throws Exception {
+        // GIVEN
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> query = () -> {
+            await(release);
+            throw new IllegalStateException("database down");
+        };
+        Future<String> leader = executor.submit(() -> singleFlight.execute("all", query));
+        awaitCount("leader", 1);
+        Future<String> follower = executor.submit(() -> singleFlight.execute("all", query));
+        awaitCount("collapsed", 1);
+
+        // WHEN
+        release.countDown();
+
+        // THEN
+        for (Future<String> call : new Future[] { leader, follower }) {
+            Exception e = assertThrows(Exception.class, () -> call.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    private void awaitCount(String result, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("singleflight.calls", "name", "test", "result", result).count() < expected) {
+            assertTrue(System.nanoTime() < deadline, "waiting for " + expected + " " + result + " calls");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.openclassrooms.starterjwt.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour StaleWhileRevalidate
+ */
+public class StaleWhileRevalidateTest {
+
+    private static final long LONG = TimeUnit.HOURS.toNanos(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /** Rafraîchissements en attente, exécutés à la main par les tests */
+    private final List<Runnable> refreshes = new ArrayList<>();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Supplier<String> load = () -> "v" + loads.incrementAndGet();
+
+    /**
+     * Test la première lecture puis une lecture récente
+     * Vérifie que seule la première lecture interroge la base
+     */
+    @Test
+    public void testGet_LoadsOnceThenServesFresh() {
+        // GIVEN
+        StaleWhileRevalidate<String> cache = cache(LONG, LONG);
+
+        // WHEN
+        String first = cache.get(load);
+        String second = cache.get(load);
+
+        // THEN
+        assertEquals("v1", first);
+        assertEquals("v1", second);
+        assertEquals(1, loads.get());
+        assertTrue(refreshes.isEmpty());
+        assertEquals(1.0, count("fresh"));
+        assertEquals(1.0, count("miss"));
+    }
+
+    /**
+     * Test la lecture d'une valeur à rafraîchir
+     * Vérifie que l'ancienne valeur est servie sans attendre et qu'un seul rafraîchissement est lancé
+     */
+    @Test
+    public void testGet_ServesStaleAndRefreshesInBackground() {
+        // GIVEN
+        StaleWhileRevalidate<String> cache = cache(0, LONG);
+        cache.get(load);
+
+        // WHEN
+        String stale = cache.get(load);
+        String staleAgain = cache.get(load);
+
+        // THEN
+        assertEquals("v1", stale);
+        assertEquals("v1", staleAgain);
+        assertEquals(1, refreshes.size());
+        refreshes.remove(0).run();
+        assertEquals("v2", cache.get(load));
+    }
+
+    /**
+     * Test l'invalidation après une écriture
+     * Vérifie que la lecture suivante recharge la valeur au lieu de servir l'ancienne
+     */
+    @Test
+    public void testInvalidate_ReloadsOnNextRead() {
+        // GIVEN
+        StaleWhileRevalidate<String> cache = cache(LONG, LONG);
+        cache.get(load);
+
+        // WHEN
+        cache.invalidate();
+
+        // THEN
+        assertEquals("v2", cache.get(load));
+        assertTrue(refreshes.isEmpty());
+        assertEquals("v2", cache.get(load));
+        assertEquals(2.0, count("miss"));
+    }
+
+    /**
+     * Test une écriture pendant un rafraîchissement en arrière-plan
+     * Vérifie que la valeur rafraîchie, lue avant l'écriture, n'est pas servie
+     */
+    @Test
+    public void testInvalidate_DuringRefreshReloadsOnNextRead() {
+        // GIVEN
+        StaleWhileRevalidate<String> cache = cache(0, LONG);
+        cache.get(load);
+        cache.get(() -> {
+            String value = load.get();
+            cache.invalidate();
+            return value;
+        });
+
+        // WHEN
+        refreshes.remove(0).run();
+
+        // THEN
+        assertEquals("v3", cache.get(load));
+        assertEquals(3, loads.get());
+    }
+
+    /**
+     * Test un rafraîchissement en échec
+     * Vérifie que l'ancienne valeur reste servie et que l'échec est compté
+     */
+    @Test
+    public void testGet_FailedRefreshKeepsStaleValue() {
+        // GIVEN
+        StaleWhileRevalidate<String> cache = cache(0, LONG);
+        cache.get(load);
+        cache.get(() -> {
+            throw new IllegalStateException("database down");
+        });
+
+        // WHEN
+        refreshes.remove(0).run();
+
+        // THEN
+        assertEquals("v1", cache.get(load));
+        assertEquals(1.0, meterRegistry.counter("swr.refresh.failures", "name", "test").count());
+    }
+
+    /**
+     * Test une valeur trop ancienne
+     * Vérifie qu'elle est rechargée par l'appelant
+     */
+    @Test
+    public void testGet_ReloadsBeyondMaxStaleness() {
+        // GIVEN
+        StaleWhileRevalidate<String> cache = cache(0, 0);
+        cache.get(load);
+
+        // WHEN
+        String value = cache.get(load);
+
+        // THEN
+        assertEquals("v2", value);
+        assertTrue(refreshes.isEmpty());
+        assertEquals(2.0, count("miss"));
+    }
+
+    private StaleWhileRevalidate<String> cache(long refreshAfterNanos, long maxStaleNanos) {
+        return new StaleWhileRevalidate<>(meterRegistry, "test", refreshes::add, refreshAfterNanos, maxStaleNanos);
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("swr.reads", "name", "test", "result", result).count();
+    }
+}
@@ -0,0 +1,68 @@
+package com.openclassrooms.starterjwt.concurrency;
+
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Tests unitaires pour VirtualThreadsConfig
+ */
+public class VirtualThreadsConfigTest {
+
+    @SuppressWarnings("unchecked")
+    private final TomcatProtocolHandlerCustomizer<ProtocolHandler> customizer =
+            (TomcatProtocolHandlerCustomizer<ProtocolHandler>) new VirtualThreadsConfig()
+                    .virtualThreadsProtocolHandlerCustomizer();
+
+    /**
+     * Test le repli sur un JDK sans threads virtuels
+     * Vérifie que Tomcat garde son pool de threads
+     */
+    @Test
+    public void testCustomize_KeepsPlatformThreadsWhenUnsupported() {
+        assumeFalse(VirtualThreads.isSupported());
+
+        // GIVEN
+        ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+
+        // WHEN
+        customizer.customize(protocolHandler);
+
+        // THEN
+        verifyNoInteractions(protocolHandler);
+        assertThrows(IllegalStateException.class, () -> VirtualThreads.newExecutor("test-"));
+    }
+
+    /**
+     * Test les threads virtuels sur Java 21+
+     * Vérifie que Tomcat exécute les requêtes sur des threads virtuels
+     */
+    @Test
+    public void testCustomize_UsesVirtualThreadsWhenSupported() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+
+        // GIVEN
+        ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+        ArgumentCaptor<Executor> executor = ArgumentCaptor.forClass(Executor.class);
+
+        // WHEN
+        customizer.customize(protocolHandler);
+
+        // THEN
+        verify(protocolHandler).setExecutor(executor.capture());
+        String threadName = ((ExecutorService) executor.getValue())
+                .submit(() -> Thread.currentThread().getName()).get();
+        assertTrue(threadName.startsWith("http-vt-"));
+    }
+}
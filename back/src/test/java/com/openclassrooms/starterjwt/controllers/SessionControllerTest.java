@@ -1,22 +1,38 @@
 package com.openclassrooms.starterjwt.controllers;
 
+import com.openclassrooms.starterjwt.concurrency.AsyncWrites;
+import com.openclassrooms.starterjwt.dto.SessionCompactDto;
 import com.openclassrooms.starterjwt.dto.SessionDto;
 import com.openclassrooms.starterjwt.mapper.SessionMapper;
 import com.openclassrooms.starterjwt.models.Session;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
+import com.openclassrooms.starterjwt.payload.response.EventsTokenResponse;
+import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+import com.openclassrooms.starterjwt.services.SessionEvents;
 import com.openclassrooms.starterjwt.services.SessionService;
+import com.openclassrooms.starterjwt.services.UserService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -35,6 +51,18 @@ public class SessionControllerTest {
     @Mock
     private SessionService sessionService;
 
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private AsyncWrites asyncWrites = AsyncWrites.inline();
+
+    @Mock
+    private SessionEvents sessionEvents;
+
+    @Mock
+    private JwtUtils jwtUtils;
+
     @InjectMocks
     private SessionController sessionController;
 
@@ -115,6 +143,25 @@ public class SessionControllerTest {
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
+    /**
+     * Test la récupération compacte des sessions
+     * Vérifie que la réponse contient le nombre de participants sans passer par le mapper
+     */
+    @Test
+    public void testFindAllCompact() {
+        // GIVEN
+        List<SessionCompactDto> sessions = Arrays.asList(new SessionCompactDto(1L, "Yoga", new Date(), 60, 1L, 12L));
+        when(sessionService.findAllCompact()).thenReturn(sessions);
+
+        // WHEN
+        ResponseEntity<?> response = sessionController.findAllCompact();
+
+        // THEN
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(sessions, response.getBody());
+        verifyNoInteractions(sessionMapper);
+    }
+
     /**
      * Test la récupération de toutes les sessions
      * Vérifie que la réponse est OK et contient la liste des sessions
@@ -136,6 +183,44 @@ public class SessionControllerTest {
         assertEquals(sessionDtos, response.getBody());
     }
 
+    /**
+     * Test la récupération des sessions d'une plage de dates
+     * Vérifie que la réponse est OK et contient les sessions de la plage
+     */
+    @Test
+    public void testFindBetween() {
+        // GIVEN
+        Date from = new Date(0);
+        Date to = new Date(TimeUnit.DAYS.toMillis(7));
+        List<Session> sessions = Arrays.asList(session);
+        List<SessionDto> sessionDtos = Arrays.asList(sessionDto);
+        when(sessionService.findBetween(from, to, 2L)).thenReturn(sessions);
+        when(sessionMapper.toDto(sessions)).thenReturn(sessionDtos);
+
+        // WHEN
+        ResponseEntity<?> response = sessionController.findBetween(from, to, 2L);
+
+        // THEN
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(sessionDtos, response.getBody());
+    }
+
+    /**
+     * Test la récupération avec une plage invalide ou trop longue
+     * Vérifie que la réponse est BAD_REQUEST
+     */
+    @Test
+    public void testFindBetween_InvalidRange() {
+        // WHEN
+        ResponseEntity<?> reversed = sessionController.findBetween(new Date(1000), new Date(0), null);
+        ResponseEntity<?> tooLong = sessionController.findBetween(new Date(0), new Date(TimeUnit.DAYS.toMillis(400)), null);
+
+        // THEN
+        assertEquals(HttpStatus.BAD_REQUEST, reversed.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, tooLong.getStatusCode());
+        verifyNoInteractions(sessionService);
+    }
+
     /**
      * Test la création d'une session
      * Vérifie que la réponse est OK et contient la session créée
@@ -241,7 +326,7 @@ public class SessionControllerTest {
     @Test
     public void testParticipate_Success() {
         // WHEN
-        ResponseEntity<?> response = sessionController.participate("1", "1");
+        ResponseEntity<?> response = sessionController.participate("1", "1").join();
 
         // THEN
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -255,7 +340,7 @@ public class SessionControllerTest {
     @Test
     public void testParticipate_InvalidIds() {
         // WHEN
-        ResponseEntity<?> response = sessionController.participate("invalid", "1");
+        ResponseEntity<?> response = sessionController.participate("invalid", "1").join();
 
         // THEN
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -269,7 +354,7 @@ public class SessionControllerTest {
     @Test
     public void testNoLongerParticipate_Success() {
         // WHEN
-        ResponseEntity<?> response = sessionController.noLongerParticipate("1", "1");
+        ResponseEntity<?> response = sessionController.noLongerParticipate("1", "1").join();
 
         // THEN
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -283,10 +368,93 @@ public class SessionControllerTest {
     @Test
     public void testNoLongerParticipate_InvalidIds() {
         // WHEN
-        ResponseEntity<?> response = sessionController.noLongerParticipate("invalid", "1");
+        ResponseEntity<?> response = sessionController.noLongerParticipate("invalid", "1").join();
 
         // THEN
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         verify(sessionService, never()).noLongerParticipate(any(), any());
     }
-}
\ No newline at end of file
+
+    @AfterEach
+    public void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Test la récupération des sessions de l'utilisateur connecté
+     * Vérifie que l'identifiant est lu depuis le principal JWT sans requête supplémentaire
+     */
+    @Test
+    public void testFindByParticipant_Me() {
+        // GIVEN
+        UserDetailsImpl principal = UserDetailsImpl.builder().id(7L).username("test@test.com").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        Page<SessionSummaryDto> page = new PageImpl<>(
+                Collections.singletonList(new SessionSummaryDto(1L, "Yoga", new Date(), 2L)));
+        when(sessionService.findByParticipant(7L, 0, 20)).thenReturn(page);
+
+        // WHEN
+        ResponseEntity<?> response = sessionController.findByParticipant("me", 0, 20);
+
+        // THEN
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+        verifyNoInteractions(userService);
+    }
+
+    /**
+     * Test la récupération des sessions pour un principal qui n'est pas issu du JWT
+     * Vérifie que l'utilisateur est retrouvé par son email
+     */
+    @Test
+    public void testFindByParticipant_MeResolvedByEmail() {
+        // GIVEN
+        org.springframework.security.core.userdetails.User principal = new org.springframework.security.core.userdetails.User(
+                "test@test.com", "password", Collections.emptyList());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        when(userService.findByEmail("test@test.com")).thenReturn(user);
+        when(sessionService.findByParticipant(1L, 1, 10)).thenReturn(new PageImpl<>(Collections.emptyList()));
+
+        // WHEN
+        ResponseEntity<?> response = sessionController.findByParticipant("me", 1, 10);
+
+        // THEN
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    /**
+     * Test la récupération des sessions d'un autre participant que "me"
+     * Vérifie que la réponse est BAD_REQUEST
+     */
+    @Test
+    public void testFindByParticipant_NotMe() {
+        // WHEN
+        ResponseEntity<?> response = sessionController.findByParticipant("42", 0, 20);
+
+        // THEN
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(sessionService);
+    }
+
+    /**
+     * Test la délivrance d'un token pour le flux d'événements
+     * Vérifie que le token est émis pour l'utilisateur connecté
+     */
+    @Test
+    public void testEventsToken() {
+        // GIVEN
+        UserDetailsImpl principal = UserDetailsImpl.builder().id(7L).username("test@test.com").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        when(jwtUtils.generateEventsToken("test@test.com")).thenReturn("events-token");
+
+        // WHEN
+        ResponseEntity<?> response = sessionController.eventsToken();
+
+        // THEN
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("events-token", ((EventsTokenResponse) response.getBody()).getToken());
+    }
+}
@@ -0,0 +1,125 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.concurrency.BlockingReads;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.mapper.SessionMapper;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.services.SessionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import reactor.test.StepVerifier;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour SessionReactiveController
+ */
+@ExtendWith(MockitoExtension.class)
+public class SessionReactiveControllerTest {
+
+    @Mock
+    private SessionMapper sessionMapper;
+
+    @Mock
+    private SessionService sessionService;
+
+    private BlockingReads blockingReads;
+    private SessionReactiveController controller;
+
+    @BeforeEach
+    public void setup() {
+        blockingReads = new BlockingReads(new SimpleMeterRegistry(), 2, 10);
+        controller = new SessionReactiveController(sessionMapper, sessionService, blockingReads);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        blockingReads.dispose();
+    }
+
+    /**
+     * Test la récupération d'une session par ID quand elle existe
+     * Vérifie que la réponse est OK et contient le DTO partagé avec l'API MVC
+     */
+    @Test
+    public void testFindById_Success() {
+        // GIVEN
+        Session session = new Session();
+        SessionDto sessionDto = new SessionDto();
+        when(sessionService.getById(1L)).thenReturn(session);
+        when(sessionMapper.toDto(session)).thenReturn(sessionDto);
+
+        // WHEN / THEN
+        StepVerifier.create(controller.findById("1"))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertSame(sessionDto, response.getBody());
+                })
+                .verifyComplete();
+    }
+
+    /**
+     * Test la récupération d'une session inexistante
+     * Vérifie que la réponse est NOT_FOUND
+     */
+    @Test
+    public void testFindById_NotFound() {
+        // GIVEN
+        when(sessionService.getById(1L)).thenReturn(null);
+
+        // WHEN / THEN
+        StepVerifier.create(controller.findById("1"))
+                .assertNext(response -> assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode()))
+                .verifyComplete();
+    }
+
+    /**
+     * Test la récupération d'une session avec un ID invalide
+     * Vérifie que la réponse est BAD_REQUEST sans requête en base
+     */
+    @Test
+    public void testFindById_InvalidId() {
+        // WHEN / THEN
+        StepVerifier.create(controller.findById("invalid"))
+                .assertNext(response -> assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode()))
+                .verifyComplete();
+        verifyNoInteractions(sessionService);
+    }
+
+    /**
+     * Test la récupération de toutes les sessions
+     * Vérifie que les sessions sont lues page par page jusqu'à la dernière page incomplète
+     */
+    @Test
+    public void testFindAll_StreamsPages() {
+        // GIVEN
+        int pageSize = SessionReactiveController.PAGE_SIZE;
+        List<Session> fullPage = IntStream.range(0, pageSize).mapToObj(i -> new Session()).collect(Collectors.toList());
+        List<SessionDto> fullDtos = IntStream.range(0, pageSize).mapToObj(i -> new SessionDto()).collect(Collectors.toList());
+        List<Session> lastPage = Collections.singletonList(new Session());
+        when(sessionService.findPage(0, pageSize)).thenReturn(fullPage);
+        when(sessionService.findPage(1, pageSize)).thenReturn(lastPage);
+        when(sessionMapper.toDto(fullPage)).thenReturn(fullDtos);
+        when(sessionMapper.toDto(lastPage)).thenReturn(Collections.singletonList(new SessionDto()));
+
+        // WHEN / THEN
+        StepVerifier.create(controller.findAll())
+                .expectNextCount(pageSize + 1)
+                .verifyComplete();
+        verify(sessionService).findPage(1, pageSize);
+    }
+}
@@ -0,0 +1,124 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.concurrency.AsyncWrites;
+import com.openclassrooms.starterjwt.dto.SessionSeriesDto;
+import com.openclassrooms.starterjwt.mapper.SessionSeriesMapper;
+import com.openclassrooms.starterjwt.models.SessionSeries;
+import com.openclassrooms.starterjwt.services.SessionSeriesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour SessionSeriesController
+ */
+@ExtendWith(MockitoExtension.class)
+public class SessionSeriesControllerTest {
+
+    @Mock
+    private SessionSeriesMapper sessionSeriesMapper;
+
+    @Mock
+    private SessionSeriesService sessionSeriesService;
+
+    @Spy
+    private AsyncWrites asyncWrites = AsyncWrites.inline();
+
+    @InjectMocks
+    private SessionSeriesController sessionSeriesController;
+
+    private SessionSeries series;
+    private SessionSeriesDto seriesDto;
+
+    /**
+     * Configuration initiale avant chaque test
+     */
+    @BeforeEach
+    public void setup() {
+        series = new SessionSeries();
+        series.setId(1L);
+        series.setName("Vinyasa");
+
+        seriesDto = new SessionSeriesDto();
+        seriesDto.setId(1L);
+        seriesDto.setName("Vinyasa");
+    }
+
+    /**
+     * Test la récupération d'une série par ID
+     */
+    @Test
+    public void testFindById() {
+        when(sessionSeriesService.getById(1L)).thenReturn(series);
+        when(sessionSeriesMapper.toDto(series)).thenReturn(seriesDto);
+
+        ResponseEntity<?> response = sessionSeriesController.findById("1");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(seriesDto, response.getBody());
+    }
+
+    /**
+     * Test la récupération d'une série inexistante ou avec un ID invalide
+     */
+    @Test
+    public void testFindById_NotFoundAndInvalid() {
+        when(sessionSeriesService.getById(2L)).thenReturn(null);
+
+        assertEquals(HttpStatus.NOT_FOUND, sessionSeriesController.findById("2").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, sessionSeriesController.findById("invalid").getStatusCode());
+    }
+
+    /**
+     * Test la récupération de toutes les séries
+     */
+    @Test
+    public void testFindAll() {
+        List<SessionSeries> all = Arrays.asList(series);
+        List<SessionSeriesDto> dtos = Arrays.asList(seriesDto);
+        when(sessionSeriesService.findAll()).thenReturn(all);
+        when(sessionSeriesMapper.toDto(all)).thenReturn(dtos);
+
+        ResponseEntity<?> response = sessionSeriesController.findAll();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(dtos, response.getBody());
+    }
+
+    /**
+     * Test la création d'une série
+     */
+    @Test
+    public void testCreate() {
+        when(sessionSeriesMapper.toEntity(seriesDto)).thenReturn(series);
+        when(sessionSeriesService.create(series)).thenReturn(series);
+        when(sessionSeriesMapper.toDto(series)).thenReturn(seriesDto);
+
+        ResponseEntity<?> response = sessionSeriesController.create(seriesDto).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(seriesDto, response.getBody());
+    }
+
+    /**
+     * Test la suppression d'une série
+     */
+    @Test
+    public void testDelete() {
+        assertEquals(HttpStatus.OK, sessionSeriesController.delete("1").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, sessionSeriesController.delete("invalid").getStatusCode());
+        verify(sessionSeriesService, times(1)).delete(1L);
+    }
+}
@@ -1,6 +1,7 @@
 package com.openclassrooms.starterjwt.controllers;
 
 import com.openclassrooms.starterjwt.dto.TeacherDto;
+import com.openclassrooms.starterjwt.dto.TimeSlotDto;
 import com.openclassrooms.starterjwt.mapper.TeacherMapper;
 import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.services.TeacherService;
@@ -15,6 +16,8 @@ import org.springframework.http.ResponseEntity;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
 import static org.mockito.Mockito.when;
@@ -128,4 +131,42 @@ public class TeacherControllerTest {
         assertTrue(response.getBody() instanceof List);
         assertEquals(teacherDtos, response.getBody());
     }
-} 
+
+    /**
+     * Test la récupération des disponibilités d'un professeur
+     * Vérifie que la réponse est OK et contient les créneaux libres
+     */
+    @Test
+    public void testFindAvailability() {
+        // GIVEN
+        Date from = new Date(0);
+        Date to = new Date(86400000L);
+        List<TimeSlotDto> free = Collections.singletonList(new TimeSlotDto(null, from, to));
+        when(teacherService.findById(1L)).thenReturn(teacher);
+        when(teacherService.findAvailability(1L, from, to)).thenReturn(free);
+
+        // WHEN
+        ResponseEntity<?> response = teacherController.findAvailability("1", from, to);
+
+        // THEN
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(free, response.getBody());
+    }
+
+    /**
+     * Test la récupération des disponibilités avec des paramètres invalides
+     * Vérifie les réponses BAD_REQUEST et NOT_FOUND
+     */
+    @Test
+    public void testFindAvailability_Invalid() {
+        // GIVEN
+        Date from = new Date(0);
+        Date to = new Date(86400000L);
+        when(teacherService.findById(2L)).thenReturn(null);
+
+        // WHEN & THEN
+        assertEquals(HttpStatus.BAD_REQUEST, teacherController.findAvailability("invalid", from, to).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, teacherController.findAvailability("1", to, from).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, teacherController.findAvailability("2", from, to).getStatusCode());
+    }
+}
@@ -0,0 +1,122 @@
+package com.openclassrooms.starterjwt.controllers;
+
+import com.openclassrooms.starterjwt.concurrency.BlockingReads;
+import com.openclassrooms.starterjwt.dto.TeacherDto;
+import com.openclassrooms.starterjwt.dto.TimeSlotDto;
+import com.openclassrooms.starterjwt.mapper.TeacherMapper;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.services.TeacherService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour TeacherReactiveController
+ */
+@ExtendWith(MockitoExtension.class)
+public class TeacherReactiveControllerTest {
+
+    @Mock
+    private TeacherMapper teacherMapper;
+
+    @Mock
+    private TeacherService teacherService;
+
+    private BlockingReads blockingReads;
+    private TeacherReactiveController controller;
+
+    @BeforeEach
+    public void setup() {
+        blockingReads = new BlockingReads(new SimpleMeterRegistry(), 2, 10);
+        controller = new TeacherReactiveController(teacherService, teacherMapper, blockingReads);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        blockingReads.dispose();
+    }
+
+    /**
+     * Test la récupération de tous les professeurs
+     * Vérifie que chaque DTO est émis
+     */
+    @Test
+    public void testFindAll() {
+        // GIVEN
+        List<Teacher> teachers = Arrays.asList(new Teacher(), new Teacher());
+        when(teacherService.findAll()).thenReturn(teachers);
+        when(teacherMapper.toDto(teachers)).thenReturn(Arrays.asList(new TeacherDto(), new TeacherDto()));
+
+        // WHEN / THEN
+        StepVerifier.create(controller.findAll())
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    /**
+     * Test la récupération d'un professeur inexistant
+     * Vérifie que la réponse est NOT_FOUND
+     */
+    @Test
+    public void testFindById_NotFound() {
+        // GIVEN
+        when(teacherService.findById(1L)).thenReturn(null);
+
+        // WHEN / THEN
+        StepVerifier.create(controller.findById("1"))
+                .assertNext(response -> assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode()))
+                .verifyComplete();
+    }
+
+    /**
+     * Test les disponibilités d'un professeur
+     * Vérifie que les créneaux libres sont renvoyés
+     */
+    @Test
+    public void testFindAvailability_Success() {
+        // GIVEN
+        Teacher teacher = new Teacher();
+        teacher.setId(1L);
+        Date from = new Date(0);
+        Date to = new Date(3600000);
+        List<TimeSlotDto> slots = Collections.singletonList(new TimeSlotDto(null, from, 60));
+        when(teacherService.findById(1L)).thenReturn(teacher);
+        when(teacherService.findAvailability(1L, from, to)).thenReturn(slots);
+
+        // WHEN / THEN
+        StepVerifier.create(controller.findAvailability("1", from, to))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertSame(slots, response.getBody());
+                })
+                .verifyComplete();
+    }
+
+    /**
+     * Test les disponibilités avec une période inversée
+     * Vérifie que la réponse est BAD_REQUEST sans requête en base
+     */
+    @Test
+    public void testFindAvailability_InvalidRange() {
+        // WHEN / THEN
+        StepVerifier.create(controller.findAvailability("1", new Date(3600000), new Date(0)))
+                .assertNext(response -> assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode()))
+                .verifyComplete();
+        verifyNoInteractions(teacherService);
+    }
+}
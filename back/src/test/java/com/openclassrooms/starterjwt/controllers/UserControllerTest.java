@@ -3,6 +3,8 @@ package com.openclassrooms.starterjwt.controllers;
 import com.openclassrooms.starterjwt.dto.UserDto;
 import com.openclassrooms.starterjwt.mapper.UserMapper;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
+import com.openclassrooms.starterjwt.services.SessionService;
 import com.openclassrooms.starterjwt.services.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -18,6 +22,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Date;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,6 +40,9 @@ public class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private SessionService sessionService;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -195,4 +204,61 @@ public class UserControllerTest {
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         verify(userService, never()).delete(anyLong());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test la récupération des sessions d'un utilisateur
+     * Vérifie que la réponse est OK et contient la page de sessions
+     */
+    @Test
+    public void testFindSessions_Success() {
+        // GIVEN
+        Page<SessionSummaryDto> page = new PageImpl<>(
+                Collections.singletonList(new SessionSummaryDto(1L, "Yoga", new Date(), 2L)));
+        when(userService.findById(1L)).thenReturn(user);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+        when(userDetails.getUsername()).thenReturn("test@test.com");
+        when(sessionService.findByParticipant(1L, 0, 20)).thenReturn(page);
+
+        // WHEN
+        ResponseEntity<?> response = userController.findSessions("1", 0, 20);
+
+        // THEN
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    /**
+     * Test la récupération des sessions d'un autre utilisateur
+     * Vérifie que la réponse est FORBIDDEN
+     */
+    @Test
+    public void testFindSessions_Forbidden() {
+        // GIVEN
+        when(userService.findById(1L)).thenReturn(user);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+        when(userDetails.getUsername()).thenReturn("other@test.com");
+
+        // WHEN
+        ResponseEntity<?> response = userController.findSessions("1", 0, 20);
+
+        // THEN
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(sessionService);
+    }
+
+    /**
+     * Test la récupération des sessions avec un ID invalide
+     * Vérifie que la réponse est BAD_REQUEST
+     */
+    @Test
+    public void testFindSessions_InvalidId() {
+        // WHEN
+        ResponseEntity<?> response = userController.findSessions("invalid", 0, 20);
+
+        // THEN
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(sessionService);
+    }
+}
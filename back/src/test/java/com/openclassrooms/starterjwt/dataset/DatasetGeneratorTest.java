@@ -0,0 +1,132 @@
+package com.openclassrooms.starterjwt.dataset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.services.SessionService;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:datasetdb;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.jpa.show-sql=false",
+        "oc.app.dataset.batchSize=64"
+})
+@ActiveProfiles("test")
+@Transactional
+public class DatasetGeneratorTest {
+
+    private static final DatasetSize SIZE = new DatasetSize(3, 40, 25, 310);
+
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SessionService sessionService;
+
+    /**
+     * GIVEN la base de test
+     * WHEN on génère un jeu de données
+     * THEN chaque table reçoit le nombre de lignes demandé et les participations sont réparties sur les sessions
+     */
+    @Test
+    void testGenerate_InsertsRequestedRows() {
+        long teachers = count("TEACHERS");
+        long users = count("USERS");
+        long sessions = count("SESSIONS");
+        long participations = count("PARTICIPATE");
+        assertFalse(datasetGenerator.isLoaded());
+
+        datasetGenerator.generate(SIZE);
+
+        assertTrue(datasetGenerator.isLoaded());
+        assertEquals(teachers + 3, count("TEACHERS"));
+        assertEquals(users + 40, count("USERS"));
+        assertEquals(sessions + 25, count("SESSIONS"));
+        assertEquals(participations + 310, count("PARTICIPATE"));
+        List<Long> perSession = jdbcTemplate.queryForList(
+                "SELECT COUNT(*) FROM PARTICIPATE p JOIN USERS u ON u.id = p.user_id WHERE u.email LIKE 'perf.%' "
+                        + "GROUP BY p.session_id", Long.class);
+        assertEquals(25, perSession.size());
+        assertTrue(perSession.stream().allMatch(count -> count == 12 || count == 13));
+    }
+
+    /**
+     * GIVEN deux générations successives avec la même graine
+     * WHEN on compare les participations relativement aux premiers identifiants insérés
+     * THEN les deux jeux de données sont identiques
+     */
+    @Test
+    void testGenerate_IsDeterministic() {
+        List<String> first = generateRelativeParticipations();
+        List<String> second = generateRelativeParticipations();
+
+        assertEquals(310, first.size());
+        assertEquals(first, second);
+    }
+
+    /**
+     * GIVEN un jeu de données généré
+     * WHEN on consulte les réservations d'un professeur généré
+     * THEN ses sessions ne se chevauchent pas et on peut encore créer des utilisateurs
+     */
+    @Test
+    void testGenerate_KeepsDataUsable() {
+        datasetGenerator.generate(SIZE);
+        Long teacherId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM TEACHERS", Long.class);
+
+        long bookings = sessionService.findTeacherBookings(teacherId, new Date(0), new Date(Long.MAX_VALUE / 2)).size();
+        assertEquals(8, bookings);
+
+        User user = new User();
+        user.setEmail("after@test.com");
+        user.setFirstName("After");
+        user.setLastName("Dataset");
+        user.setPassword("password123");
+        assertNotNull(userRepository.saveAndFlush(user).getId());
+    }
+
+    /**
+     * GIVEN plus de participations que de couples (session, utilisateur)
+     * WHEN on génère le jeu de données
+     * THEN la génération est refusée
+     */
+    @Test
+    void testGenerate_RejectsImpossibleSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> datasetGenerator.generate(new DatasetSize(1, 2, 2, 5)));
+    }
+
+    private List<String> generateRelativeParticipations() {
+        long userBase = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM USERS", Long.class);
+        long sessionBase = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM SESSIONS", Long.class);
+        datasetGenerator.generate(SIZE);
+        return jdbcTemplate.queryForList(
+                "SELECT CONCAT(user_id - ?, ':', session_id - ?) FROM PARTICIPATE WHERE session_id > ? "
+                        + "AND session_id <= ? ORDER BY session_id, user_id",
+                String.class, userBase, sessionBase, sessionBase, sessionBase + SIZE.getSessions());
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,35 @@
+package com.openclassrooms.starterjwt.exception;
+
+import com.openclassrooms.starterjwt.payload.response.MessageResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour DatabaseUnavailableHandler
+ */
+public class DatabaseUnavailableHandlerTest {
+
+    /**
+     * Test la conversion d'un délai d'acquisition de connexion dépassé
+     * Vérifie que la réponse est 503 avec un en-tête Retry-After
+     */
+    @Test
+    public void testHandleDatabaseUnavailable() {
+        // GIVEN
+        DatabaseUnavailableHandler handler = new DatabaseUnavailableHandler();
+
+        // WHEN
+        ResponseEntity<MessageResponse> response = handler.handleDatabaseUnavailable(
+                new CannotCreateTransactionException("Connection is not available, request timed out after 2000ms."));
+
+        // THEN
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(DatabaseUnavailableHandler.RETRY_AFTER_SECONDS, response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+    }
+}
@@ -0,0 +1,122 @@
+package com.openclassrooms.starterjwt.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.monitoring.SqlStatementCounter;
+import com.openclassrooms.starterjwt.monitoring.SqlStatementCountingFilter;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Écritures exécutées sur le pool d'écriture, hors de la transaction du test : les données sont
+ * donc enregistrées puis supprimées par chaque test.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:asyncwritesdb;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "oc.app.writes.async=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AsyncWritesIntegrationTest {
+
+    private static final String PARTICIPATE_URI = "/api/session/{id}/participate/{userId}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Session testSession;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setEmail("async@test.com");
+        testUser.setFirstName("Async");
+        testUser.setLastName("User");
+        testUser.setPassword("password123");
+        testUser = userRepository.save(testUser);
+
+        testSession = new Session();
+        testSession.setName("Async Session");
+        testSession.setDate(new Date(System.currentTimeMillis() + 24L * 3600 * 1000));
+        testSession.setDescription("Written on the write pool");
+        testSession.setUsers(new ArrayList<>());
+        testSession = sessionRepository.save(testSession);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionRepository.deleteById(testSession.getId());
+        userRepository.deleteById(testUser.getId());
+    }
+
+    @Test
+    @WithMockUser
+    void testParticipate_ReportsStatementsOfTheWritePool() throws Exception {
+        DistributionSummary before = meterRegistry.find("http.server.sql.statements")
+                .tags("method", "POST", "uri", PARTICIPATE_URI).summary();
+        double statementsBefore = before != null ? before.totalAmount() : 0;
+        long countBefore = before != null ? before.count() : 0;
+
+        SqlStatementCounter counter = SqlStatementCounter.start();
+        try {
+            MvcResult participation = mockMvc.perform(post("/api/session/" + testSession.getId() + "/participate/" + testUser.getId())
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(participation))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(SqlStatementCountingFilter.STATEMENTS_HEADER,
+                            String.valueOf(counter.getStatements())));
+        } finally {
+            SqlStatementCounter.stop(counter);
+        }
+
+        // Les requêtes de l'écriture, exécutées sur le pool, sont comptées avec la requête HTTP
+        assertTrue(counter.getStatements() >= 3);
+        DistributionSummary statements = meterRegistry.get("http.server.sql.statements")
+                .tags("method", "POST", "uri", PARTICIPATE_URI).summary();
+        assertEquals(countBefore + 1, statements.count());
+        assertEquals(counter.getStatements(), statements.totalAmount() - statementsBefore);
+        assertNotNull(meterRegistry.find("http.server.phase")
+                .tags("method", "POST", "uri", PARTICIPATE_URI, "phase", "service").timer());
+        assertNotNull(meterRegistry.find("http.server.phase")
+                .tags("method", "POST", "uri", PARTICIPATE_URI, "phase", "sql").timer());
+    }
+}
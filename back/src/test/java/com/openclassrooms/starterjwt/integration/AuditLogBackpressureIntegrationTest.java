@@ -0,0 +1,92 @@
+package com.openclassrooms.starterjwt.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.openclassrooms.starterjwt.audit.AuditLog;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+
+/**
+ * File d'audit d'un seul enregistrement dont l'écrivain est arrêté : la deuxième écriture trouve
+ * la file pleine et insère son enregistrement elle-même, depuis afterCommit. Base dédiée, l'audit
+ * étant arrêté puis redémarré par chaque test.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auditbackpressuredb;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "oc.app.audit.queueSize=1",
+        "oc.app.audit.offerTimeoutMs=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AuditLogBackpressureIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // Plus d'écrivain en arrière-plan : la file reste pleine après le premier enregistrement
+        auditLog.shutdown();
+    }
+
+    @AfterEach
+    void tearDown() {
+        auditLog.start();
+    }
+
+    @Test
+    @WithMockUser(username = "yoga@studio.com")
+    void testDelete_FullQueueInsertedByTheCommittedWrite() throws Exception {
+        Long queued = session("Queued");
+        Long inline = session("Inline");
+
+        mockMvc.perform(delete("/api/session/" + queued)).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/session/" + inline)).andExpect(status().isOk());
+
+        // Inséré et validé avant la réponse, dans sa propre transaction
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT actor, action FROM AUDIT_LOG WHERE target_id = ?", inline);
+        assertEquals(1, rows.size());
+        assertEquals("yoga@studio.com", rows.get(0).get("ACTOR"));
+        assertEquals("SESSION_DELETED", rows.get(0).get("ACTION"));
+        assertTrue(jdbcTemplate.queryForList("SELECT id FROM AUDIT_LOG WHERE target_id = ?", queued).isEmpty());
+    }
+
+    private Long session(String name) {
+        Session session = new Session();
+        session.setName(name);
+        session.setDescription("Audit backpressure");
+        session.setDate(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)));
+        session.setUsers(new ArrayList<>());
+        return sessionRepository.save(session).getId();
+    }
+}
@@ -0,0 +1,73 @@
+package com.openclassrooms.starterjwt.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+
+/**
+ * L'audit n'est écrit qu'après validation de la transaction : la session est donc enregistrée
+ * hors transaction de test, et les lignes d'audit supprimées après le test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AuditLogIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long sessionId;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM AUDIT_LOG WHERE target_id = ?", sessionId);
+    }
+
+    @Test
+    @WithMockUser(username = "yoga@studio.com")
+    void testDelete_AuditedBehindTheWrite() throws Exception {
+        Session session = new Session();
+        session.setName("Audited Session");
+        session.setDescription("Audit");
+        session.setDate(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)));
+        session.setUsers(new ArrayList<>());
+        sessionId = sessionRepository.save(session).getId();
+
+        mockMvc.perform(delete("/api/session/" + sessionId)).andExpect(status().isOk());
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (rows.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            rows = jdbcTemplate.queryForList("SELECT actor, action FROM AUDIT_LOG WHERE target_id = ?", sessionId);
+        }
+        assertEquals(1, rows.size());
+        assertEquals("yoga@studio.com", rows.get(0).get("ACTOR"));
+        assertEquals("SESSION_DELETED", rows.get(0).get("ACTION"));
+    }
+}
@@ -75,6 +75,7 @@ public class AuthControllerIntegrationTest {
     }
 
     @Test
+    @QueryBudget(2)
     void testAuthenticateUser_Success() throws Exception {
         // Arrange
         // D'abord, créer un utilisateur
@@ -0,0 +1,86 @@
+package com.openclassrooms.starterjwt.integration;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.util.Collections;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
+import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pooldb;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.datasource.hikari.connection-timeout=250"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ConnectionPoolSaturationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    @WithMockUser
+    void testFindAll_PoolExhausted() throws Exception {
+        try (Connection held = dataSource.getConnection()) {
+            mockMvc.perform(get("/api/session")
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        }
+
+        mockMvc.perform(get("/api/session")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Test un vrai jeton Bearer quand le pool est épuisé
+     * Vérifie que le chargement de l'utilisateur par le filtre JWT échoue vite en 503, et non en 401
+     */
+    @Test
+    void testFindAll_PoolExhaustedWhileAuthenticating() throws Exception {
+        // GIVEN
+        UserDetailsImpl user = UserDetailsImpl.builder().username("yoga@studio.com").build();
+        String token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList()));
+
+        // WHEN
+        try (Connection held = dataSource.getConnection()) {
+            // THEN
+            mockMvc.perform(get("/api/session")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        }
+
+        mockMvc.perform(get("/api/session")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+}
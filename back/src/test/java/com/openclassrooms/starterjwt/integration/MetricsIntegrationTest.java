@@ -0,0 +1,87 @@
+package com.openclassrooms.starterjwt.integration;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.openclassrooms.starterjwt.monitoring.RequestTracingFilter;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metricsdb;DB_CLOSE_DELAY=-1;MODE=MySQL")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ActiveProfiles("test")
+@Transactional
+public class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testPrometheus_ExposesControllerAndServiceTimers() throws Exception {
+        mockMvc.perform(get("/api/session")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("uri=\"/api/session\"")))
+                .andExpect(content().string(containsString("session_service_seconds_bucket")))
+                .andExpect(content().string(containsString("method=\"findAll\"")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total")))
+                .andExpect(content().string(containsString("hibernate_entities_loads_total")))
+                .andExpect(content().string(containsString("hibernate_flushes_total")))
+                .andExpect(content().string(containsString("hibernate_query_executions_max_seconds")));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testPrometheus_ExposesPhaseBreakdown() throws Exception {
+        mockMvc.perform(get("/api/session")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(RequestTracingFilter.TRACE_ID_HEADER));
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_phase_seconds")))
+                .andExpect(content().string(containsString("phase=\"controller\"")))
+                .andExpect(content().string(containsString("phase=\"service\"")))
+                .andExpect(content().string(containsString("phase=\"repository\"")))
+                .andExpect(content().string(containsString("phase=\"mapping\"")))
+                .andExpect(content().string(containsString("phase=\"serialization\"")));
+    }
+
+    @Test
+    void testPrometheus_RequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser
+    void testPrometheus_RequiresAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testHealth_IsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,19 @@
+package com.openclassrooms.starterjwt.integration;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Nombre maximal de requêtes SQL pour chaque appel MockMvc du test (ou de chaque test de la classe).
+ * Les écritures en attente sont comptées avec l'appel qui les a produites.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+    int value();
+}
@@ -0,0 +1,104 @@
+package com.openclassrooms.starterjwt.integration;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.openclassrooms.starterjwt.monitoring.SqlStatementCounter;
+import com.openclassrooms.starterjwt.monitoring.SqlStatementCountingFilter;
+
+/**
+ * Vérifie le {@link QueryBudget} de chaque appel MockMvc. Les appels sont remontés par
+ * {@link QueryBudgetMockMvcConfig}; le test échoue à la fin en listant les appels hors budget.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ThreadLocal<Budget> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        Optional<QueryBudget> annotation = find(context.getTestMethod().map(AnnotatedElement.class::cast))
+                .map(Optional::of)
+                .orElseGet(() -> find(context.getTestClass().map(AnnotatedElement.class::cast)));
+        if (!annotation.isPresent()) {
+            return;
+        }
+
+        EntityManager entityManager = SpringExtension.getApplicationContext(context).getBean(EntityManager.class);
+        Budget budget = new Budget(annotation.get().value(), entityManager);
+        // Données du @BeforeEach écrites et oubliées : chaque appel part d'un contexte de persistance vide.
+        budget.flush();
+        entityManager.clear();
+        CURRENT.set(budget);
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        Budget budget = CURRENT.get();
+        CURRENT.remove();
+        if (budget != null && !budget.violations.isEmpty()) {
+            throw new AssertionFailedError("SQL query budget of " + budget.max + " exceeded by: "
+                    + String.join(", ", budget.violations));
+        }
+    }
+
+    /**
+     * Appelé après chaque requête MockMvc.
+     */
+    static void record(MvcResult result) {
+        Budget budget = CURRENT.get();
+        Object counter = result.getRequest().getAttribute(SqlStatementCountingFilter.COUNTER_ATTRIBUTE);
+        if (budget == null || !(counter instanceof SqlStatementCounter)) {
+            return;
+        }
+
+        int statements = ((SqlStatementCounter) counter).getStatements() + budget.flush();
+        if (statements > budget.max) {
+            budget.violations.add(result.getRequest().getMethod() + " " + result.getRequest().getRequestURI()
+                    + " (" + statements + ")");
+        }
+    }
+
+    private static Optional<QueryBudget> find(Optional<AnnotatedElement> element) {
+        return AnnotationSupport.findAnnotation(element, QueryBudget.class);
+    }
+
+    private static class Budget {
+        final int max;
+        final EntityManager entityManager;
+        final List<String> violations = new ArrayList<>();
+
+        Budget(int max, EntityManager entityManager) {
+            this.max = max;
+            this.entityManager = entityManager;
+        }
+
+        /**
+         * Écrit les modifications en attente dans la transaction du test et retourne le nombre de requêtes émises.
+         */
+        int flush() {
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                return 0;
+            }
+            SqlStatementCounter counter = SqlStatementCounter.start();
+            try {
+                entityManager.flush();
+            } finally {
+                SqlStatementCounter.stop(counter);
+            }
+            return counter.getStatements();
+        }
+    }
+}
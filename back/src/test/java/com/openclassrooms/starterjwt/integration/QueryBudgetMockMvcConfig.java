@@ -0,0 +1,17 @@
+package com.openclassrooms.starterjwt.integration;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Détectée par le scan de composants, donc identique pour tous les contextes de test :
+ * elle ne crée pas de contexte Spring supplémentaire.
+ */
+@Configuration
+public class QueryBudgetMockMvcConfig {
+    @Bean
+    public MockMvcBuilderCustomizer queryBudgetRecorder() {
+        return builder -> builder.alwaysDo(QueryBudgetExtension::record);
+    }
+}
@@ -0,0 +1,143 @@
+package com.openclassrooms.starterjwt.integration;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+
+/**
+ * Les lectures réactives tournent sur un autre thread que la requête : les données sont donc
+ * enregistrées hors transaction de test et supprimées après chaque test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReactiveReadIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    private final List<Session> sessions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            Session session = new Session();
+            session.setName("Reactive " + i);
+            session.setDescription("Reactive read");
+            session.setDate(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(i + 1)));
+            session.setUsers(new ArrayList<>());
+            sessions.add(sessionRepository.save(session));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionRepository.deleteAll(sessions);
+    }
+
+    @Test
+    @WithMockUser
+    void testFindSessionById_Success() throws Exception {
+        Session session = sessions.get(0);
+        MvcResult result = mockMvc.perform(get("/api/reactive/session/" + session.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(session.getId()))
+                .andExpect(jsonPath("$.name").value(session.getName()));
+    }
+
+    @Test
+    @WithMockUser
+    void testFindSessionById_NotFound() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reactive/session/999999"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void testFindSessionById_InvalidId() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reactive/session/invalid")).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void testFindAllSessions_Json() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reactive/session").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(sessions.size()));
+    }
+
+    @Test
+    @WithMockUser
+    void testFindAllSessions_Ndjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reactive/session").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5000);
+
+        String body = result.getResponse().getContentAsString();
+        assertEquals(sessions.size(), body.trim().split("\n").length);
+        assertTrue(body.contains("\"name\":\"Reactive 2\""));
+    }
+
+    @Test
+    @WithMockUser
+    void testFindAllTeachers_Success() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reactive/teacher").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("DELAHAYE")));
+    }
+
+    @Test
+    void testFindAllSessions_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/reactive/session"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,251 @@
+package com.openclassrooms.starterjwt.integration;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SessionChangeRepository;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.services.SessionChangeLog;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class SessionChangesIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SessionChangeLog sessionChangeLog;
+
+    @Autowired
+    private SessionChangeRepository sessionChangeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Teacher testTeacher;
+    private User testUser;
+    private Session testSession;
+
+    @BeforeEach
+    void setUp() {
+        testTeacher = new Teacher();
+        testTeacher.setFirstName("John");
+        testTeacher.setLastName("Doe");
+        testTeacher = teacherRepository.save(testTeacher);
+
+        testUser = new User();
+        testUser.setEmail("changes@test.com");
+        testUser.setFirstName("Test");
+        testUser.setLastName("User");
+        testUser.setPassword("password123");
+        testUser = userRepository.save(testUser);
+
+        // Enregistrée sans passer par le service : absente du fil, elle n'arrive que par la remise à zéro
+        testSession = new Session();
+        testSession.setName("Existing Session");
+        testSession.setDate(new Date());
+        testSession.setDescription("Existing");
+        testSession.setTeacher(testTeacher);
+        testSession.setUsers(new ArrayList<>());
+        testSession = sessionRepository.save(testSession);
+    }
+
+    @Test
+    @WithMockUser
+    void testChanges_FirstSyncResetsWithAllSessions() throws Exception {
+        mockMvc.perform(get("/api/session/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reset").value(true))
+                .andExpect(jsonPath("$.more").value(false))
+                .andExpect(jsonPath("$.cursor").isNumber())
+                .andExpect(jsonPath("$.sessions[*].id", hasItem(testSession.getId().intValue())))
+                .andExpect(jsonPath("$.deleted.length()").value(0));
+    }
+
+    @Test
+    @WithMockUser
+    void testChanges_ReturnsCreatesUpdatesParticipationsAndTombstones() throws Exception {
+        long cursor = cursor(get("/api/session/changes"));
+
+        // Création puis participation : la session n'est envoyée qu'une fois, dans son dernier état
+        Long createdId = create("Created Session");
+        MvcResult participation = mockMvc.perform(post("/api/session/" + createdId + "/participate/" + testUser.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(participation)).andExpect(status().isOk());
+
+        long afterCreate = cursor(get("/api/session/changes").param("since", String.valueOf(cursor)));
+        mockMvc.perform(get("/api/session/changes").param("since", String.valueOf(cursor)))
+                .andExpect(jsonPath("$.reset").value(false))
+                .andExpect(jsonPath("$.sessions.length()").value(1))
+                .andExpect(jsonPath("$.sessions[0].id").value(createdId))
+                .andExpect(jsonPath("$.sessions[0].users[0]").value(testUser.getId()))
+                .andExpect(jsonPath("$.deleted.length()").value(0));
+
+        // Suppression : seule la pierre tombale est renvoyée
+        mockMvc.perform(delete("/api/session/" + createdId)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/session/changes").param("since", String.valueOf(afterCreate)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessions.length()").value(0))
+                .andExpect(jsonPath("$.deleted[0]").value(createdId));
+    }
+
+    @Test
+    @QueryBudget(3)
+    @WithMockUser
+    void testChanges_IncrementalReadFetchesParticipantsInOneQuery() throws Exception {
+        testSession.getUsers().add(testUser);
+        sessionRepository.saveAndFlush(testSession);
+        sessionChangeLog.changed(testSession.getId());
+        // Numérotés ici pour que la lecture mesurée n'ait que les requêtes du fil
+        List<SessionChangeRepository.Sequence> sequence = sessionChangeRepository.findSequence();
+        long since = sequence.get(0).getLastSeq();
+        sessionChangeLog.number(sequence.stream().map(SessionChangeRepository.Sequence::getPendingSessionId)
+                .filter(Objects::nonNull).collect(Collectors.toList()));
+
+        mockMvc.perform(get("/api/session/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessions[0].id").value(testSession.getId()))
+                .andExpect(jsonPath("$.sessions[0].users[0]").value(testUser.getId()));
+    }
+
+    @Test
+    @WithMockUser
+    void testChanges_PagesWithLimit() throws Exception {
+        long cursor = cursor(get("/api/session/changes"));
+        Long first = create("First");
+        Long second = create("Second");
+
+        MvcResult page = mockMvc.perform(get("/api/session/changes").param("since", String.valueOf(cursor))
+                .param("limit", "1"))
+                .andExpect(jsonPath("$.more").value(true))
+                .andExpect(jsonPath("$.sessions[0].id").value(first))
+                .andReturn();
+        long next = objectMapper.readTree(page.getResponse().getContentAsString()).get("cursor").asLong();
+
+        mockMvc.perform(get("/api/session/changes").param("since", String.valueOf(next)).param("limit", "1"))
+                .andExpect(jsonPath("$.more").value(false))
+                .andExpect(jsonPath("$.sessions[0].id").value(second));
+
+        mockMvc.perform(get("/api/session/changes").param("since", String.valueOf(next + 1)))
+                .andExpect(jsonPath("$.reset").value(false))
+                .andExpect(jsonPath("$.sessions.length()").value(0))
+                .andExpect(jsonPath("$.cursor").value(next + 1));
+    }
+
+    @Test
+    @WithMockUser
+    void testChanges_PagesResetById() throws Exception {
+        Session other = new Session();
+        other.setName("Other Session");
+        other.setDate(new Date());
+        other.setDescription("Other");
+        other.setTeacher(testTeacher);
+        other.setUsers(new ArrayList<>());
+        other = sessionRepository.save(other);
+        long count = sessionRepository.count();
+
+        // Première page : remise à zéro, puis les pages suivantes avec le même curseur et le dernier id envoyé
+        MvcResult page = mockMvc.perform(get("/api/session/changes").param("limit", "1"))
+                .andExpect(jsonPath("$.reset").value(true))
+                .andExpect(jsonPath("$.more").value(true))
+                .andExpect(jsonPath("$.sessions.length()").value(1))
+                .andReturn();
+        JsonNode body = objectMapper.readTree(page.getResponse().getContentAsString());
+        long cursor = body.get("cursor").asLong();
+        List<Long> ids = new ArrayList<>();
+        ids.add(body.get("sessions").get(0).get("id").asLong());
+        while (body.get("more").asBoolean()) {
+            page = mockMvc.perform(get("/api/session/changes").param("since", String.valueOf(cursor))
+                    .param("after", body.get("after").asText()).param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.reset").value(false))
+                    .andExpect(jsonPath("$.cursor").value(cursor))
+                    .andReturn();
+            body = objectMapper.readTree(page.getResponse().getContentAsString());
+            body.get("sessions").forEach(session -> ids.add(session.get("id").asLong()));
+        }
+
+        assertEquals(count, ids.size());
+        assertTrue(ids.containsAll(Arrays.asList(testSession.getId(), other.getId())));
+        assertTrue(body.get("after").isNull());
+    }
+
+    @Test
+    @WithMockUser
+    void testChanges_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/session/changes").param("since", "abc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testChanges_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/session/changes"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private long cursor(org.springframework.test.web.servlet.RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        return body.get("cursor").asLong();
+    }
+
+    private Long create(String name) throws Exception {
+        SessionDto sessionDto = new SessionDto();
+        sessionDto.setName(name);
+        sessionDto.setDate(new Date(System.currentTimeMillis() + (name.length() + 1) * 24L * 3600 * 1000));
+        sessionDto.setDescription(name);
+        sessionDto.setTeacher_id(testTeacher.getId());
+        MvcResult result = mockMvc.perform(post("/api/session")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sessionDto)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+}
@@ -1,12 +1,18 @@
 package com.openclassrooms.starterjwt.integration;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 
+import javax.persistence.EntityManager;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,12 +22,15 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openclassrooms.starterjwt.models.Session;
 import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.monitoring.SqlStatementCounter;
+import com.openclassrooms.starterjwt.monitoring.SqlStatementCountingFilter;
 import com.openclassrooms.starterjwt.repository.SessionRepository;
 import com.openclassrooms.starterjwt.repository.TeacherRepository;
 import com.openclassrooms.starterjwt.repository.UserRepository;
@@ -48,6 +57,9 @@ public class SessionControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Session testSession;
     private Teacher testTeacher;
     private User testUser;
@@ -79,6 +91,7 @@ public class SessionControllerIntegrationTest {
     }
 
     @Test
+    @QueryBudget(2)
     @WithMockUser
     void testFindById_Success() throws Exception {
         mockMvc.perform(get("/api/session/" + testSession.getId())
@@ -89,6 +102,25 @@ public class SessionControllerIntegrationTest {
                 .andExpect(jsonPath("$.description").value(testSession.getDescription()));
     }
 
+    @Test
+    @WithMockUser
+    void testFindById_ReportsSqlStatements() throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+
+        SqlStatementCounter counter = SqlStatementCounter.start();
+        try {
+            mockMvc.perform(get("/api/session/" + testSession.getId())
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(SqlStatementCountingFilter.STATEMENTS_HEADER,
+                            String.valueOf(counter.getStatements())));
+        } finally {
+            SqlStatementCounter.stop(counter);
+        }
+        assertTrue(counter.getStatements() > 0);
+    }
+
     @Test
     @WithMockUser
     void testFindById_NotFound() throws Exception {
@@ -116,6 +148,70 @@ public class SessionControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].description").exists());
     }
 
+    @Test
+    @QueryBudget(4)
+    @WithMockUser
+    void testFindAllCompact_CountsParticipants() throws Exception {
+        MvcResult participation = mockMvc.perform(post("/api/session/" + testSession.getId() + "/participate/" + testUser.getId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(participation))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/session").param("view", "compact")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + testSession.getId() + ")].participant_count").value(1))
+                .andExpect(jsonPath("$[0].users").doesNotExist())
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void testFindBetween_FiltersByDateAndTeacher() throws Exception {
+        Teacher otherTeacher = new Teacher();
+        otherTeacher.setFirstName("Jane");
+        otherTeacher.setLastName("Roe");
+        otherTeacher = teacherRepository.save(otherTeacher);
+
+        Session otherSession = new Session();
+        otherSession.setName("Other Teacher Session");
+        otherSession.setDate(testSession.getDate());
+        otherSession.setDescription("Other Description");
+        otherSession.setTeacher(otherTeacher);
+        otherSession.setUsers(new ArrayList<>());
+        sessionRepository.save(otherSession);
+
+        Session laterSession = new Session();
+        laterSession.setName("Later Session");
+        laterSession.setDate(new Date(testSession.getDate().getTime() + 30L * 24 * 3600 * 1000));
+        laterSession.setDescription("Later Description");
+        laterSession.setTeacher(testTeacher);
+        laterSession.setUsers(new ArrayList<>());
+        sessionRepository.save(laterSession);
+
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+        String from = format.format(testSession.getDate());
+        String to = format.format(new Date(testSession.getDate().getTime() + 7L * 24 * 3600 * 1000));
+
+        mockMvc.perform(get("/api/session")
+                .param("from", from)
+                .param("to", to)
+                .param("teacherId", String.valueOf(testTeacher.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(testSession.getId()));
+
+        mockMvc.perform(get("/api/session")
+                .param("from", from)
+                .param("to", to))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + testSession.getId() + ")]").exists())
+                .andExpect(jsonPath("$[?(@.name == 'Other Teacher Session')]").exists())
+                .andExpect(jsonPath("$[?(@.name == 'Later Session')]").doesNotExist());
+    }
+
     @Test
     void testFindAll_Unauthorized() throws Exception {
         mockMvc.perform(get("/api/session")
@@ -124,11 +220,13 @@ public class SessionControllerIntegrationTest {
     }
 
     @Test
+    @QueryBudget(7)
     @WithMockUser
     void testCreate_Success() throws Exception {
         SessionDto sessionDto = new SessionDto();
         sessionDto.setName("New Session");
-        sessionDto.setDate(new Date());
+        // Le lendemain, pour ne pas chevaucher testSession du même professeur
+        sessionDto.setDate(new Date(System.currentTimeMillis() + 24L * 3600 * 1000));
         sessionDto.setDescription("New Description");
         sessionDto.setTeacher_id(testTeacher.getId());
 
@@ -141,6 +239,7 @@ public class SessionControllerIntegrationTest {
     }
 
     @Test
+    @QueryBudget(8)
     @WithMockUser
     void testUpdate_Success() throws Exception {
         SessionDto sessionDto = new SessionDto();
@@ -182,40 +281,112 @@ public class SessionControllerIntegrationTest {
     }
 
     @Test
+    @QueryBudget(4)
     @WithMockUser
     void testParticipate_Success() throws Exception {
-        mockMvc.perform(post("/api/session/" + testSession.getId() + "/participate/" + testUser.getId())
+        MvcResult participation = mockMvc.perform(post("/api/session/" + testSession.getId() + "/participate/" + testUser.getId())
                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(participation))
                 .andExpect(status().isOk());
     }
 
     @Test
     @WithMockUser
     void testParticipate_SessionNotFound() throws Exception {
-        mockMvc.perform(post("/api/session/999999/participate/" + testUser.getId())
+        MvcResult participation = mockMvc.perform(post("/api/session/999999/participate/" + testUser.getId())
                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(participation))
                 .andExpect(status().isNotFound());
     }
 
     @Test
+    @QueryBudget(4)
     @WithMockUser
     void testNoLongerParticipate_Success() throws Exception {
         // D'abord participer à la session
-        mockMvc.perform(post("/api/session/" + testSession.getId() + "/participate/" + testUser.getId())
+        MvcResult participation = mockMvc.perform(post("/api/session/" + testSession.getId() + "/participate/" + testUser.getId())
                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(participation))
                 .andExpect(status().isOk());
 
         // Ensuite ne plus participer
-        mockMvc.perform(delete("/api/session/" + testSession.getId() + "/participate/" + testUser.getId())
+        MvcResult withdrawal = mockMvc.perform(delete("/api/session/" + testSession.getId() + "/participate/" + testUser.getId())
                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(withdrawal))
                 .andExpect(status().isOk());
     }
 
     @Test
     @WithMockUser
     void testNoLongerParticipate_SessionNotFound() throws Exception {
-        mockMvc.perform(delete("/api/session/999999/participate/" + testUser.getId())
+        MvcResult withdrawal = mockMvc.perform(delete("/api/session/999999/participate/" + testUser.getId())
                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(withdrawal))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "test@test.com")
+    void testFindByParticipant_Me() throws Exception {
+        Session otherSession = new Session();
+        otherSession.setName("Not Enrolled");
+        otherSession.setDate(new Date());
+        otherSession.setDescription("Other Description");
+        otherSession.setTeacher(testTeacher);
+        otherSession.setUsers(new ArrayList<>());
+        sessionRepository.save(otherSession);
+
+        testSession.getUsers().add(testUser);
+        sessionRepository.save(testSession);
+
+        mockMvc.perform(get("/api/session").param("participant", "me"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(testSession.getId()))
+                .andExpect(jsonPath("$.content[0].name").value(testSession.getName()))
+                .andExpect(jsonPath("$.content[0].teacher_id").value(testTeacher.getId()))
+                .andExpect(jsonPath("$.content[0].users").doesNotExist())
+                .andExpect(jsonPath("$.content[0].description").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(username = "test@test.com")
+    void testFindByParticipant_Other() throws Exception {
+        mockMvc.perform(get("/api/session").param("participant", "someone"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void testCreate_TeacherDoubleBooked() throws Exception {
+        SessionDto sessionDto = new SessionDto();
+        sessionDto.setName("Overlapping Session");
+        sessionDto.setDate(new Date(testSession.getDate().getTime() + 30L * 60 * 1000));
+        sessionDto.setDuration(45);
+        sessionDto.setDescription("Overlapping Description");
+        sessionDto.setTeacher_id(testTeacher.getId());
+
+        mockMvc.perform(post("/api/session")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sessionDto)))
+                .andExpect(status().isConflict());
+
+        // Juste après la fin de testSession (60 minutes par défaut) : accepté
+        sessionDto.setDate(new Date(testSession.getDate().getTime() + 60L * 60 * 1000));
+        mockMvc.perform(post("/api/session")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sessionDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duration").value(45));
+    }
+}
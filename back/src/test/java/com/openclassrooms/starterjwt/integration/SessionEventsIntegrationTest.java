@@ -0,0 +1,157 @@
+package com.openclassrooms.starterjwt.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
+import com.openclassrooms.starterjwt.services.SessionEvents;
+
+/**
+ * Les événements ne sont poussés qu'après validation de la transaction : les données sont donc
+ * enregistrées hors transaction de test et supprimées après chaque test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class SessionEventsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SessionEvents sessionEvents;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private Session session;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("events@test.com");
+        user.setFirstName("Event");
+        user.setLastName("User");
+        user.setPassword("password123");
+        user = userRepository.save(user);
+
+        session = new Session();
+        session.setName("Pushed Session");
+        session.setDescription("Server-sent events");
+        session.setDate(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)));
+        session.setUsers(new ArrayList<>());
+        session = sessionRepository.save(session);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionRepository.deleteById(session.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @WithMockUser
+    void testEvents_PushesParticipationAfterCommit() throws Exception {
+        MvcResult subscription = mockMvc.perform(get("/api/session/events"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertTrue(sessionEvents.subscribers() > 0);
+
+        MvcResult participation = mockMvc.perform(post("/api/session/" + session.getId() + "/participate/" + user.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(participation)).andExpect(status().isOk());
+
+        MockHttpServletResponse response = subscription.getResponse();
+        String expected = "event:participation\ndata:{\"type\":\"PARTICIPATION\",\"sessionId\":" + session.getId()
+                + ",\"participants\":1}";
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!response.getContentAsString().contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(response.getContentAsString().contains(expected), response.getContentAsString());
+        assertEquals("text/event-stream", response.getContentType());
+    }
+
+    @Test
+    @WithMockUser
+    void testEvents_RolledBackWriteIsNotPushed() throws Exception {
+        MvcResult subscription = mockMvc.perform(get("/api/session/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Participation refusée : l'utilisateur inconnu fait annuler la transaction
+        MvcResult participation = mockMvc.perform(post("/api/session/" + session.getId() + "/participate/999999"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(participation)).andExpect(status().isNotFound());
+
+        Thread.sleep(200);
+        assertFalse(subscription.getResponse().getContentAsString().contains("participation"));
+    }
+
+    @Test
+    @WithMockUser(username = "events@test.com")
+    void testEventsToken_Issued() throws Exception {
+        mockMvc.perform(post("/api/session/events/token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isString());
+    }
+
+    @Test
+    void testEvents_EventSourceToken() throws Exception {
+        String token = jwtUtils.generateEventsToken(user.getEmail());
+
+        // Sans en-tête Authorization, comme un EventSource
+        mockMvc.perform(get("/api/session/events").param("token", token))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        // Le token du flux n'ouvre pas le reste de l'API
+        mockMvc.perform(get("/api/session").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/session").param("token", token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testEvents_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/session/events"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,160 @@
+package com.openclassrooms.starterjwt.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.dto.SessionDto;
+import com.openclassrooms.starterjwt.models.OutboxEvent;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.OutboxEventRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.services.SessionOutbox;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class SessionOutboxIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private SessionOutbox sessionOutbox;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Teacher testTeacher;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testTeacher = new Teacher();
+        testTeacher.setFirstName("John");
+        testTeacher.setLastName("Doe");
+        testTeacher = teacherRepository.save(testTeacher);
+
+        testUser = new User();
+        testUser.setEmail("outbox@test.com");
+        testUser.setFirstName("Test");
+        testUser.setLastName("User");
+        testUser.setPassword("password123");
+        testUser = userRepository.save(testUser);
+    }
+
+    @Test
+    @WithMockUser
+    void testOutbox_RelaysSessionLifecycleInOrder() throws Exception {
+        Long sessionId = create();
+        SessionDto update = sessionDto();
+        update.setName("Updated Session");
+        mockMvc.perform(put("/api/session/" + sessionId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+        participation(post("/api/session/" + sessionId + "/participate/" + testUser.getId()));
+        participation(delete("/api/session/" + sessionId + "/participate/" + testUser.getId()));
+        mockMvc.perform(delete("/api/session/" + sessionId)).andExpect(status().isOk());
+
+        List<OutboxEvent> published = new ArrayList<>();
+        while (sessionOutbox.relay(published::addAll, 2) > 0) {
+            // lots de deux jusqu'à vider la file
+        }
+
+        List<OutboxEvent> events = published.stream()
+                .filter(event -> sessionId.equals(event.getSessionId()))
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(OutboxEvent.Type.SESSION_CREATED, OutboxEvent.Type.SESSION_UPDATED,
+                OutboxEvent.Type.PARTICIPANT_ADDED, OutboxEvent.Type.PARTICIPANT_REMOVED,
+                OutboxEvent.Type.SESSION_DELETED),
+                events.stream().map(OutboxEvent::getType).collect(Collectors.toList()));
+        assertEquals(testUser.getId(), events.get(2).getUserId());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    @WithMockUser
+    void testOutbox_FailedPublicationKeepsEvents() throws Exception {
+        Long sessionId = create();
+
+        assertThrows(IllegalStateException.class, () -> sessionOutbox.relay(events -> {
+            throw new IllegalStateException("broker down");
+        }, 10));
+
+        assertTrue(outboxEventRepository.findAll().stream()
+                .anyMatch(event -> sessionId.equals(event.getSessionId())));
+    }
+
+    @Test
+    @WithMockUser
+    void testOutbox_RejectedWriteLeavesNoEvent() throws Exception {
+        long before = outboxEventRepository.count();
+
+        participation(post("/api/session/999999/participate/" + testUser.getId()));
+
+        assertEquals(before, outboxEventRepository.count());
+    }
+
+    private void participation(org.springframework.test.web.servlet.RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result));
+    }
+
+    private Long create() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/session")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sessionDto())))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private SessionDto sessionDto() {
+        SessionDto sessionDto = new SessionDto();
+        sessionDto.setName("Outbox Session");
+        sessionDto.setDate(new Date(System.currentTimeMillis() + 24L * 3600 * 1000));
+        sessionDto.setDescription("Outbox");
+        sessionDto.setTeacher_id(testTeacher.getId());
+        return sessionDto;
+    }
+}
@@ -0,0 +1,119 @@
+package com.openclassrooms.starterjwt.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.openclassrooms.starterjwt.dto.ReminderDto;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.monitoring.SqlStatementCounter;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.services.SessionReminderService;
+
+/**
+ * MockMvc n'est pas utilisé, mais le configurer permet de partager le contexte des autres tests
+ * d'intégration et la base H2 qu'il initialise.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class SessionReminderIntegrationTest {
+
+    private static final long LEAD_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Autowired
+    private SessionReminderService sessionReminderService;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Date now = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(3650));
+
+    private Session soon;
+    private Session later;
+    private final List<User> participants = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 30; i++) {
+            User user = new User();
+            user.setEmail("reminder" + i + "@test.com");
+            user.setFirstName("User" + i);
+            user.setLastName("Reminder");
+            user.setPassword("password123");
+            participants.add(userRepository.save(user));
+        }
+        soon = session("Soon", now.getTime() + TimeUnit.MINUTES.toMillis(30), participants);
+        later = session("Later", now.getTime() + TimeUnit.HOURS.toMillis(3), participants.subList(0, 2));
+        sessionRepository.flush();
+    }
+
+    @Test
+    void testClaimDue_LoadsParticipantsOfTheWindowInTwoStatements() {
+        SqlStatementCounter counter = SqlStatementCounter.start();
+        List<ReminderDto> reminders;
+        try {
+            reminders = sessionReminderService.claimDue(now, LEAD_MS, 1000);
+        } finally {
+            SqlStatementCounter.stop(counter);
+        }
+
+        assertEquals(2, counter.getStatements());
+        assertEquals(participants.size(), reminders.size());
+        assertTrue(reminders.stream().allMatch(reminder -> soon.getId().equals(reminder.getSessionId())));
+        assertEquals("Soon", reminders.get(0).getSessionName());
+        assertEquals(participants.stream().map(User::getId).sorted().collect(Collectors.toList()),
+                reminders.stream().map(ReminderDto::getUserId).collect(Collectors.toList()));
+        assertEquals("reminder0@test.com", reminders.get(0).getEmail());
+    }
+
+    @Test
+    void testClaimDue_NeverClaimsTwice() {
+        List<ReminderDto> first = sessionReminderService.claimDue(now, LEAD_MS, 20);
+        List<ReminderDto> second = sessionReminderService.claimDue(now, LEAD_MS, 20);
+        List<ReminderDto> third = sessionReminderService.claimDue(now, LEAD_MS, 20);
+
+        assertEquals(20, first.size());
+        assertEquals(participants.size() - 20, second.size());
+        assertTrue(third.isEmpty());
+    }
+
+    @Test
+    void testClaimDue_LaterSessionOnceInTheWindow() {
+        sessionReminderService.claimDue(now, LEAD_MS, 1000);
+
+        Date inTwoHours = new Date(now.getTime() + TimeUnit.HOURS.toMillis(2) + 1);
+        List<ReminderDto> reminders = sessionReminderService.claimDue(inTwoHours, LEAD_MS, 1000);
+
+        assertEquals(2, reminders.size());
+        assertTrue(reminders.stream().allMatch(reminder -> later.getId().equals(reminder.getSessionId())));
+    }
+
+    private Session session(String name, long date, List<User> users) {
+        Session session = new Session();
+        session.setName(name);
+        session.setDescription("Reminder");
+        session.setDate(new Date(date));
+        session.setUsers(new ArrayList<>(users));
+        return sessionRepository.save(session);
+    }
+}
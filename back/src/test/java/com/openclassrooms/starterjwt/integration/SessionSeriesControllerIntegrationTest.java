@@ -0,0 +1,178 @@
+package com.openclassrooms.starterjwt.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.dto.SessionSeriesDto;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class SessionSeriesControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Teacher testTeacher;
+
+    @BeforeEach
+    void setUp() {
+        testTeacher = new Teacher();
+        testTeacher.setFirstName("John");
+        testTeacher.setLastName("Doe");
+        testTeacher = teacherRepository.save(testTeacher);
+    }
+
+    @Test
+    @WithMockUser
+    void testCreate_MaterializesRollingWindowAndExpandsOnRead() throws Exception {
+        Calendar start = Calendar.getInstance();
+        start.add(Calendar.DAY_OF_MONTH, 1);
+        start.set(Calendar.HOUR_OF_DAY, 18);
+        start.set(Calendar.MINUTE, 0);
+
+        SessionSeriesDto seriesDto = new SessionSeriesDto();
+        seriesDto.setName("Weekly Vinyasa");
+        seriesDto.setDescription("Every week");
+        seriesDto.setTeacher_id(testTeacher.getId());
+        seriesDto.setStartDate(start.getTime());
+        seriesDto.setRecurrence("FREQ=WEEKLY");
+
+        MvcResult creation = mockMvc.perform(post("/api/series")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(seriesDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(creation))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Weekly Vinyasa"))
+                .andExpect(jsonPath("$.teacher_id").value(testTeacher.getId()))
+                .andReturn();
+        Long seriesId = objectMapper.readValue(result.getResponse().getContentAsString(), SessionSeriesDto.class).getId();
+
+        // Seules les 4 semaines de la fenêtre glissante sont stockées
+        Date farFuture = new Date(start.getTimeInMillis() + 365L * 24 * 3600 * 1000);
+        assertEquals(4, sessionRepository.findBySeriesIdAndDateGreaterThanEqual(seriesId, new Date(0)).size());
+
+        // La lecture d'une plage lointaine calcule les occurrences à la volée
+        Calendar rangeStart = (Calendar) start.clone();
+        rangeStart.add(Calendar.WEEK_OF_YEAR, 20);
+        Calendar rangeEnd = (Calendar) rangeStart.clone();
+        rangeEnd.add(Calendar.WEEK_OF_YEAR, 3);
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+
+        mockMvc.perform(get("/api/session")
+                .param("from", format.format(rangeStart.getTime()))
+                .param("to", format.format(rangeEnd.getTime())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").doesNotExist())
+                .andExpect(jsonPath("$[0].series_id").value(seriesId))
+                .andExpect(jsonPath("$[0].name").value("Weekly Vinyasa"));
+
+        mockMvc.perform(delete("/api/series/" + seriesId))
+                .andExpect(status().isOk());
+        assertEquals(0, sessionRepository.findBySeriesIdAndDateGreaterThanEqual(seriesId, new Date(0)).size());
+        assertEquals(0, sessionRepository.findBetween(new Date(), farFuture).stream()
+                .filter(s -> seriesId.equals(s.getSeriesId())).count());
+    }
+
+    @Test
+    @WithMockUser
+    void testCreate_TeacherAlreadyBooked() throws Exception {
+        Calendar start = Calendar.getInstance();
+        start.add(Calendar.DAY_OF_MONTH, 1);
+        start.set(Calendar.HOUR_OF_DAY, 18);
+        start.set(Calendar.MINUTE, 0);
+
+        // Le professeur a déjà une session pendant la deuxième occurrence
+        Session booked = new Session();
+        booked.setName("Private class");
+        booked.setDescription("Already booked");
+        booked.setTeacher(testTeacher);
+        booked.setDate(new Date(start.getTimeInMillis() + 7L * 24 * 3600 * 1000 + 30L * 60 * 1000));
+        sessionRepository.save(booked);
+
+        SessionSeriesDto seriesDto = new SessionSeriesDto();
+        seriesDto.setName("Weekly Vinyasa");
+        seriesDto.setDescription("Every week");
+        seriesDto.setTeacher_id(testTeacher.getId());
+        seriesDto.setStartDate(start.getTime());
+        seriesDto.setRecurrence("FREQ=WEEKLY");
+
+        MvcResult creation = mockMvc.perform(post("/api/series")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(seriesDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(creation))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser
+    void testCreate_InvalidRecurrence() throws Exception {
+        SessionSeriesDto seriesDto = new SessionSeriesDto();
+        seriesDto.setName("Broken");
+        seriesDto.setDescription("Broken rule");
+        seriesDto.setTeacher_id(testTeacher.getId());
+        seriesDto.setStartDate(new Date());
+        seriesDto.setRecurrence("FREQ=HOURLY");
+
+        MvcResult creation = mockMvc.perform(post("/api/series")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(seriesDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(creation))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void testFindById_NotFound() throws Exception {
+        mockMvc.perform(get("/api/series/999999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void testFindBetween_InvalidDate() throws Exception {
+        mockMvc.perform(get("/api/session").param("from", "not-a-date").param("to", "2024-01-08"))
+                .andExpect(status().isBadRequest());
+    }
+}
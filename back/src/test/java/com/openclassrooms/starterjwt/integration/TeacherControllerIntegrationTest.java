@@ -4,6 +4,12 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +21,9 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.openclassrooms.starterjwt.models.Session;
 import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
 import com.openclassrooms.starterjwt.repository.TeacherRepository;
 
 @SpringBootTest
@@ -30,6 +38,9 @@ public class TeacherControllerIntegrationTest {
     @Autowired
     private TeacherRepository teacherRepository;
 
+    @Autowired
+    private SessionRepository sessionRepository;
+
     private Teacher testTeacher;
 
     @BeforeEach
@@ -42,6 +53,7 @@ public class TeacherControllerIntegrationTest {
     }
 
     @Test
+    @QueryBudget(1)
     @WithMockUser
     void testFindById_Success() throws Exception {
         mockMvc.perform(get("/api/teacher/" + testTeacher.getId())
@@ -85,4 +97,50 @@ public class TeacherControllerIntegrationTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isUnauthorized());
     }
-}
\ No newline at end of file
+
+    @Test
+    @QueryBudget(3)
+    @WithMockUser
+    void testFindAvailability() throws Exception {
+        Calendar day = Calendar.getInstance();
+        day.add(Calendar.DAY_OF_MONTH, 1);
+        day.set(Calendar.HOUR_OF_DAY, 0);
+        day.set(Calendar.MINUTE, 0);
+        day.set(Calendar.SECOND, 0);
+        day.set(Calendar.MILLISECOND, 0);
+        Calendar sessionStart = (Calendar) day.clone();
+        sessionStart.set(Calendar.HOUR_OF_DAY, 10);
+
+        Session session = new Session();
+        session.setName("Morning Session");
+        session.setDescription("Morning");
+        session.setDate(sessionStart.getTime());
+        session.setDuration(90);
+        session.setTeacher(testTeacher);
+        session.setUsers(new ArrayList<>());
+        sessionRepository.save(session);
+
+        Calendar nextDay = (Calendar) day.clone();
+        nextDay.add(Calendar.DAY_OF_MONTH, 1);
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+        SimpleDateFormat json = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'+00:00'");
+        json.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        mockMvc.perform(get("/api/teacher/" + testTeacher.getId() + "/availability")
+                .param("from", format.format(day.getTime()))
+                .param("to", format.format(nextDay.getTime())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].end").value(json.format(sessionStart.getTime())))
+                .andExpect(jsonPath("$[1].start").value(json.format(new Date(sessionStart.getTimeInMillis() + 90L * 60 * 1000))));
+    }
+
+    @Test
+    @WithMockUser
+    void testFindAvailability_NotFound() throws Exception {
+        mockMvc.perform(get("/api/teacher/999999/availability")
+                .param("from", "2024-01-01")
+                .param("to", "2024-01-02"))
+                .andExpect(status().isNotFound());
+    }
+}
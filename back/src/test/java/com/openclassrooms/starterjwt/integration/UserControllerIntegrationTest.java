@@ -5,6 +5,10 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +20,9 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.openclassrooms.starterjwt.models.Session;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
 import com.openclassrooms.starterjwt.repository.UserRepository;
 import com.openclassrooms.starterjwt.security.jwt.JwtUtils;
 import com.openclassrooms.starterjwt.security.services.UserDetailsImpl;
@@ -33,6 +39,9 @@ public class UserControllerIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SessionRepository sessionRepository;
+
     @Autowired
     private JwtUtils jwtUtils;
 
@@ -52,6 +61,7 @@ public class UserControllerIntegrationTest {
     }
 
     @Test
+    @QueryBudget(1)
     @WithMockUser(username = "test@test.com")
     void testFindById_Success() throws Exception {
         mockMvc.perform(get("/api/user/" + testUser.getId())
@@ -110,4 +120,39 @@ public class UserControllerIntegrationTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "test@test.com")
+    void testFindSessions_Paginated() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Session session = new Session();
+            session.setName("Session " + i);
+            session.setDate(new Date(System.currentTimeMillis() + i * 1000L));
+            session.setDescription("Description");
+            session.setUsers(new ArrayList<>(Collections.singletonList(testUser)));
+            sessionRepository.save(session);
+        }
+
+        mockMvc.perform(get("/api/user/" + testUser.getId() + "/sessions")
+                .param("page", "0")
+                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("Session 0"));
+    }
+
+    @Test
+    @WithMockUser(username = "other@test.com")
+    void testFindSessions_OtherUser() throws Exception {
+        mockMvc.perform(get("/api/user/" + testUser.getId() + "/sessions"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "test@test.com")
+    void testFindSessions_InvalidId() throws Exception {
+        mockMvc.perform(get("/api/user/invalid/sessions"))
+                .andExpect(status().isBadRequest());
+    }
+}
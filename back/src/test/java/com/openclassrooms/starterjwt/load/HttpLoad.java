@@ -0,0 +1,101 @@
+package com.openclassrooms.starterjwt.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.concurrency.VirtualThreads;
+
+/**
+ * Clients HTTP des scénarios de charge lancés contre une application démarrée sur un port :
+ * connexion du compte de test, puis {@code connections} clients enchaînant le même GET.
+ */
+final class HttpLoad {
+
+    private static final String PASSWORD = "test!1234";
+
+    private HttpLoad() {
+    }
+
+    /**
+     * Chaque client répète le GET jusqu'à l'échéance; un appel en erreur ou sans réponse compte comme une erreur.
+     */
+    static LoadStats load(int connections, long durationMs, String url, String token) throws Exception {
+        ExecutorService executor = VirtualThreads.isSupported()
+                ? VirtualThreads.newExecutor("load-client-")
+                : Executors.newFixedThreadPool(connections);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+        List<Future<LoadStats>> futures = new ArrayList<>();
+        for (int client = 0; client < connections; client++) {
+            futures.add(executor.submit(() -> {
+                LoadStats stats = new LoadStats();
+                while (System.nanoTime() < deadline) {
+                    long started = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = get(url, token) == 200;
+                    } catch (IOException e) {
+                        ok = false;
+                    }
+                    stats.record(ok, System.nanoTime() - started);
+                }
+                return stats;
+            }));
+        }
+
+        LoadStats total = new LoadStats();
+        for (Future<LoadStats> future : futures) {
+            total.merge(future.get());
+        }
+        executor.shutdown();
+        return total;
+    }
+
+    static int get(String url, String token) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(10000);
+        connection.setReadTimeout(30000);
+        connection.setRequestProperty("Authorization", "Bearer " + token);
+        connection.setRequestProperty("Accept", "application/json");
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (in != null) {
+            byte[] buffer = new byte[4096];
+            while (in.read(buffer) != -1) {
+                // drained so that the connection goes back to the keep-alive cache
+            }
+            in.close();
+        }
+        return status;
+    }
+
+    static String login(String base, ObjectMapper objectMapper) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(base + "/api/auth/login").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(("{\"email\":\"yoga@studio.com\",\"password\":\"" + PASSWORD + "\"}")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = connection.getInputStream()) {
+            byte[] buffer = new byte[4096];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                body.write(buffer, 0, read);
+            }
+        }
+        return objectMapper.readTree(body.toByteArray()).get("token").asText();
+    }
+}
@@ -0,0 +1,116 @@
+package com.openclassrooms.starterjwt.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.openclassrooms.starterjwt.dataset.DatasetGenerator;
+import com.openclassrooms.starterjwt.dataset.DatasetSize;
+
+/**
+ * Scénario de charge sur un gros volume : génère le jeu de données synthétique dans H2 puis
+ * mesure la latence des lectures de session. Lancé par {@code mvn test -Pload-test}; les volumes
+ * {@code load.teachers}, {@code load.users}, {@code load.sessions}, {@code load.participations}
+ * et le nombre d'appels {@code load.calls} se passent en -D.
+ * Résultats dans target/load-tests/large-dataset.csv.
+ */
+@Tag("load")
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:largedb;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.jpa.show-sql=false",
+        "oc.app.sql.queryBudget=1000",
+        "oc.app.dataset.batchSize=5000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class LargeDatasetLoadTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testReadLatencyOnLargeDataset() throws Exception {
+        DatasetSize size = new DatasetSize(
+                Integer.getInteger("load.teachers", 50),
+                Integer.getInteger("load.users", 100_000),
+                Integer.getInteger("load.sessions", 20_000),
+                Integer.getInteger("load.participations", 1_000_000));
+        int calls = Integer.getInteger("load.calls", 50);
+
+        long started = System.nanoTime();
+        datasetGenerator.generate(size);
+        long generationMs = (System.nanoTime() - started) / 1_000_000;
+
+        long sessionId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM SESSIONS", Long.class);
+        long teacherId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM TEACHERS", Long.class);
+        String participant = jdbcTemplate.queryForObject(
+                "SELECT u.email FROM USERS u JOIN PARTICIPATE p ON p.user_id = u.id ORDER BY u.id DESC LIMIT 1",
+                String.class);
+
+        Map<String, RequestBuilder> scenarios = new LinkedHashMap<>();
+        scenarios.put("session_by_id", get("/api/session/" + sessionId).with(user("yoga@studio.com")));
+        scenarios.put("session_compact", get("/api/session").param("view", "compact").with(user("yoga@studio.com")));
+        scenarios.put("sessions_of_participant", get("/api/session").param("participant", "me")
+                .with(user(participant)));
+        scenarios.put("teacher_availability", get("/api/teacher/" + teacherId + "/availability")
+                .param("from", "2026-01-05").param("to", "2026-01-12").with(user("yoga@studio.com")));
+
+        Map<String, LoadStats> results = new LinkedHashMap<>();
+        for (Map.Entry<String, RequestBuilder> scenario : scenarios.entrySet()) {
+            LoadStats stats = new LoadStats();
+            for (int i = 0; i < calls; i++) {
+                long callStarted = System.nanoTime();
+                int status = mockMvc.perform(scenario.getValue()).andReturn().getResponse().getStatus();
+                stats.record(status == 200, System.nanoTime() - callStarted);
+            }
+            results.put(scenario.getKey(), stats);
+        }
+
+        write(size, generationMs, results);
+        results.forEach((name, stats) -> assertEquals(0, stats.getErrors(), name));
+    }
+
+    private void write(DatasetSize size, long generationMs, Map<String, LoadStats> results) throws IOException {
+        Path file = Paths.get("target", "load-tests", "large-dataset.csv");
+        Files.createDirectories(file.getParent());
+        log.info("[large-dataset] generated {} in {} ms", size, generationMs);
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("scenario,users,participations,calls,errors,p50_ms,p99_ms");
+            for (Map.Entry<String, LoadStats> result : results.entrySet()) {
+                LoadStats stats = result.getValue();
+                String line = String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.1f,%.1f", result.getKey(), size.getUsers(),
+                        size.getParticipations(), stats.getOk() + stats.getErrors(), stats.getErrors(),
+                        stats.percentileMs(0.5), stats.percentileMs(0.99));
+                out.println(line);
+                log.info("[large-dataset] {}", line);
+            }
+        }
+    }
+}
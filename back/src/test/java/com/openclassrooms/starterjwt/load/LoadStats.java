@@ -0,0 +1,54 @@
+package com.openclassrooms.starterjwt.load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Résultats d'un client de charge : réponses réussies, erreurs et latences.
+ */
+class LoadStats {
+    private long ok;
+    private long errors;
+    private final List<Long> latencies = new ArrayList<>();
+
+    void record(boolean success, long nanos) {
+        if (success) {
+            ok++;
+        } else {
+            errors++;
+        }
+        latencies.add(nanos);
+    }
+
+    void merge(LoadStats other) {
+        ok += other.ok;
+        errors += other.errors;
+        latencies.addAll(other.latencies);
+    }
+
+    long getOk() {
+        return ok;
+    }
+
+    long getErrors() {
+        return errors;
+    }
+
+    double throughput(long durationMs) {
+        return ok * 1000.0 / durationMs;
+    }
+
+    double errorRate() {
+        long total = ok + errors;
+        return total == 0 ? 0 : (double) errors / total;
+    }
+
+    double percentileMs(double percentile) {
+        if (latencies.isEmpty()) {
+            return 0;
+        }
+        latencies.sort(null);
+        int index = (int) Math.min(latencies.size() - 1, Math.ceil(latencies.size() * percentile) - 1);
+        return latencies.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,174 @@
+package com.openclassrooms.starterjwt.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Scénario de charge : mesure le débit des endpoints de session pour plusieurs tailles de pool
+ * et indique celle où il plafonne. Les lectures ne sont pas regroupées : chaque requête prend sa
+ * propre connexion. Lancé par {@code mvn test -Pload-test}; les paramètres {@code load.poolSizes},
+ * {@code load.clients} et {@code load.durationMs} se passent en -D.
+ * Résultats dans target/load-tests/pool-sizing.csv.
+ */
+@Tag("load")
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:loaddb;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.jpa.show-sql=false",
+        "oc.app.sql.queryBudget=1000",
+        "oc.app.reads.coalesce=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PoolSizingLoadTest {
+
+    private static final int SESSIONS = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Test
+    void testFindPeakThroughputPoolSize() throws Exception {
+        int[] poolSizes = Arrays.stream(System.getProperty("load.poolSizes", "1,2,4,8,16").split(","))
+                .mapToInt(size -> Integer.parseInt(size.trim()))
+                .toArray();
+        int clients = Integer.getInteger("load.clients", 32);
+        long durationMs = Long.getLong("load.durationMs", 5000L);
+
+        List<Long> sessionIds = seed();
+        HikariConfigMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariConfigMXBean();
+
+        Map<Integer, LoadStats> results = new LinkedHashMap<>();
+        for (int poolSize : poolSizes) {
+            pool.setMaximumPoolSize(poolSize);
+            pool.setMinimumIdle(poolSize);
+            run(clients, durationMs / 5, sessionIds);
+            results.put(poolSize, run(clients, durationMs, sessionIds));
+        }
+
+        int peak = results.entrySet().stream()
+                .max(Comparator.comparingDouble(entry -> entry.getValue().throughput(durationMs)))
+                .get().getKey();
+        write(results, peak, clients, durationMs);
+        assertTrue(results.get(peak).getOk() > 0);
+    }
+
+    private List<Long> seed() {
+        Teacher teacher = new Teacher();
+        teacher.setFirstName("Load");
+        teacher.setLastName("Test");
+        teacher = teacherRepository.save(teacher);
+
+        List<Long> ids = new ArrayList<>();
+        long start = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1);
+        for (int i = 0; i < SESSIONS; i++) {
+            Session session = new Session();
+            session.setName("Load " + i);
+            session.setDescription("Load test session");
+            session.setDate(new Date(start + TimeUnit.HOURS.toMillis(2L * i)));
+            session.setTeacher(teacher);
+            session.setUsers(new ArrayList<>());
+            ids.add(sessionRepository.save(session).getId());
+        }
+        return ids;
+    }
+
+    private LoadStats run(int clients, long durationMs, List<Long> sessionIds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+        List<Future<LoadStats>> futures = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            int offset = client;
+            futures.add(executor.submit(() -> {
+                LoadStats stats = new LoadStats();
+                for (int i = offset; System.nanoTime() < deadline; i++) {
+                    long started = System.nanoTime();
+                    int status = mockMvc.perform(request(i, sessionIds)).andReturn().getResponse().getStatus();
+                    stats.record(status == 200, System.nanoTime() - started);
+                }
+                return stats;
+            }));
+        }
+
+        LoadStats total = new LoadStats();
+        for (Future<LoadStats> future : futures) {
+            total.merge(future.get());
+        }
+        executor.shutdown();
+        return total;
+    }
+
+    private RequestBuilder request(int i, List<Long> sessionIds) {
+        switch (i % 3) {
+            case 0:
+                return get("/api/session").with(user("yoga@studio.com"));
+            case 1:
+                return get("/api/session").param("view", "compact").with(user("yoga@studio.com"));
+            default:
+                return get("/api/session/" + sessionIds.get(i % sessionIds.size())).with(user("yoga@studio.com"));
+        }
+    }
+
+    private void write(Map<Integer, LoadStats> results, int peak, int clients, long durationMs) throws IOException {
+        Path file = Paths.get("target", "load-tests", "pool-sizing.csv");
+        Files.createDirectories(file.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("pool_size,clients,requests,errors,throughput_rps,p99_ms");
+            for (Map.Entry<Integer, LoadStats> result : results.entrySet()) {
+                LoadStats stats = result.getValue();
+                String line = String.format(Locale.ROOT, "%d,%d,%d,%d,%.1f,%.1f", result.getKey(), clients,
+                        stats.getOk(), stats.getErrors(), stats.throughput(durationMs), stats.percentileMs(0.99));
+                out.println(line);
+                log.info("[pool-sizing] {}", line);
+            }
+        }
+        log.info("[pool-sizing] peak throughput at pool size {}", peak);
+    }
+}
@@ -0,0 +1,115 @@
+package com.openclassrooms.starterjwt.load;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Requêtes de ressources/postman/yoga.postman_collection.json, rejouables contre le serveur de test :
+ * seuls la méthode, le chemin et le corps sont repris, l'hôte est celui du harnais.
+ */
+class PostmanCollection {
+    private final ObjectMapper objectMapper;
+    private final JsonNode root;
+
+    private PostmanCollection(ObjectMapper objectMapper, JsonNode root) {
+        this.objectMapper = objectMapper;
+        this.root = root;
+    }
+
+    static PostmanCollection load(Path file, ObjectMapper objectMapper) throws IOException {
+        return new PostmanCollection(objectMapper, objectMapper.readTree(file.toFile()));
+    }
+
+    /**
+     * La requête {@code name} du dossier {@code folder}, par exemple ("session", "participe").
+     */
+    Request request(String folder, String name) {
+        for (JsonNode group : root.path("item")) {
+            if (!folder.equals(group.path("name").asText())) {
+                continue;
+            }
+            for (JsonNode item : group.path("item")) {
+                if (name.equals(item.path("name").asText())) {
+                    return toRequest(item.path("request"));
+                }
+            }
+        }
+        throw new IllegalArgumentException("No request " + folder + "/" + name + " in the Postman collection");
+    }
+
+    private Request toRequest(JsonNode request) {
+        List<String> segments = new ArrayList<>();
+        request.path("url").path("path").forEach(segment -> segments.add(segment.asText()));
+
+        ObjectNode body = null;
+        String raw = request.path("body").path("raw").asText("");
+        if (!raw.trim().isEmpty()) {
+            try {
+                body = (ObjectNode) objectMapper.readTree(raw);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Unreadable body in the Postman collection: " + raw, e);
+            }
+        }
+        return new Request(request.path("method").asText(), segments, body);
+    }
+
+    class Request {
+        private final String method;
+        private final List<String> segments;
+        private final ObjectNode body;
+
+        private Request(String method, List<String> segments, ObjectNode body) {
+            this.method = method;
+            this.segments = segments;
+            this.body = body;
+        }
+
+        String getMethod() {
+            return method;
+        }
+
+        /**
+         * Chemin avec les variables Postman (":id") remplacées par {@code variables}.
+         */
+        String path(Map<String, ?> variables) {
+            StringBuilder path = new StringBuilder();
+            for (String segment : segments) {
+                path.append('/');
+                if (segment.startsWith(":")) {
+                    Object value = variables.get(segment.substring(1));
+                    if (value == null) {
+                        throw new IllegalArgumentException("No value for path variable " + segment);
+                    }
+                    path.append(value);
+                } else {
+                    path.append(segment);
+                }
+            }
+            return path.toString();
+        }
+
+        String path() {
+            return path(Collections.emptyMap());
+        }
+
+        /**
+         * Corps de la collection avec les champs de {@code overrides} remplacés, ou null sans corps.
+         */
+        String body(Map<String, ?> overrides) throws IOException {
+            if (body == null) {
+                return null;
+            }
+            ObjectNode copy = body.deepCopy();
+            overrides.forEach((field, value) -> copy.set(field, objectMapper.valueToTree(value)));
+            return objectMapper.writeValueAsString(copy);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.openclassrooms.starterjwt.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+
+/**
+ * Harnais de charge HTTP : rejoue les parcours de la collection Postman (login, liste des sessions,
+ * participation, désinscription) contre l'application démarrée sur un port local avec H2.
+ * Lancé par {@code mvn test -Pload-test -Dtest=PostmanReplayLoadTest}; paramètres en -D :
+ * {@code load.users}, {@code load.durationMs}, {@code load.sessions}, {@code load.maxErrorRate},
+ * {@code load.collection}. Résultats par étape dans target/load-tests/postman-replay.csv.
+ */
+@Tag("load")
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:replaydb;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.jpa.show-sql=false",
+        "oc.app.sql.queryBudget=1000",
+        "oc.app.writes.async=true"
+})
+@ActiveProfiles("test")
+public class PostmanReplayLoadTest {
+
+    private static final String[] STEPS = { "login", "list sessions", "participate", "unparticipate" };
+
+    private static final String PASSWORD = "test!1234";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    private PostmanCollection collection;
+
+    @Test
+    void testReplayCollection() throws Exception {
+        int users = Integer.getInteger("load.users", 16);
+        long durationMs = Long.getLong("load.durationMs", 10000L);
+        int sessions = Integer.getInteger("load.sessions", 20);
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01"));
+        collection = PostmanCollection.load(
+                Paths.get(System.getProperty("load.collection", "../ressources/postman/yoga.postman_collection.json")),
+                objectMapper);
+
+        List<Long> sessionIds = seed(sessions);
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            virtualUsers.add(register(i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+        List<Future<Map<String, LoadStats>>> futures = new ArrayList<>();
+        for (VirtualUser virtualUser : virtualUsers) {
+            futures.add(executor.submit(() -> virtualUser.run(deadline, sessionIds)));
+        }
+
+        Map<String, LoadStats> steps = new LinkedHashMap<>();
+        LoadStats total = new LoadStats();
+        for (String step : STEPS) {
+            steps.put(step, new LoadStats());
+        }
+        for (Future<Map<String, LoadStats>> future : futures) {
+            future.get().forEach((step, stats) -> {
+                steps.get(step).merge(stats);
+                total.merge(stats);
+            });
+        }
+        executor.shutdown();
+        steps.put("total", total);
+
+        write(steps, users, durationMs);
+        assertTrue(total.getOk() > 0);
+        assertTrue(total.errorRate() <= maxErrorRate, "error rate " + total.errorRate());
+    }
+
+    private List<Long> seed(int sessions) {
+        Teacher teacher = new Teacher();
+        teacher.setFirstName("Load");
+        teacher.setLastName("Test");
+        teacher = teacherRepository.save(teacher);
+
+        List<Long> ids = new ArrayList<>();
+        long start = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1);
+        for (int i = 0; i < sessions; i++) {
+            Session session = new Session();
+            session.setName("Replay " + i);
+            session.setDescription("Load test session");
+            session.setDate(new Date(start + TimeUnit.HOURS.toMillis(2L * i)));
+            session.setTeacher(teacher);
+            session.setUsers(new ArrayList<>());
+            ids.add(sessionRepository.save(session).getId());
+        }
+        return ids;
+    }
+
+    private VirtualUser register(int index) throws IOException {
+        String email = "load" + index + "@studio.com";
+        Map<String, Object> account = new HashMap<>();
+        account.put("email", email);
+        account.put("password", PASSWORD);
+        PostmanCollection.Request register = collection.request("auth", "register");
+        Response response = send(register.getMethod(), register.path(), register.body(account), null);
+        if (response.status != 200) {
+            throw new IllegalStateException("Cannot register " + email + ": " + response.status);
+        }
+
+        VirtualUser virtualUser = new VirtualUser(index, email);
+        virtualUser.login();
+        return virtualUser;
+    }
+
+    private Response send(String method, String path, String body, String token) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        connection.setRequestMethod(method);
+        if (token != null) {
+            connection.setRequestProperty("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        if (in != null) {
+            try (InputStream stream = in) {
+                byte[] buffer = new byte[8192];
+                for (int read; (read = stream.read(buffer)) != -1; ) {
+                    content.write(buffer, 0, read);
+                }
+            }
+        }
+        return new Response(status, new String(content.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private void write(Map<String, LoadStats> steps, int users, long durationMs) throws IOException {
+        Path file = Paths.get("target", "load-tests", "postman-replay.csv");
+        Files.createDirectories(file.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("step,users,requests,errors,error_rate,throughput_rps,p50_ms,p95_ms,p99_ms");
+            for (Map.Entry<String, LoadStats> step : steps.entrySet()) {
+                LoadStats stats = step.getValue();
+                String line = String.format(Locale.ROOT, "%s,%d,%d,%d,%.4f,%.1f,%.1f,%.1f,%.1f", step.getKey(), users,
+                        stats.getOk(), stats.getErrors(), stats.errorRate(), stats.throughput(durationMs),
+                        stats.percentileMs(0.50), stats.percentileMs(0.95), stats.percentileMs(0.99));
+                out.println(line);
+                log.info("[postman-replay] {}", line);
+            }
+        }
+    }
+
+    private static class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Un utilisateur qui enchaîne login, liste, participation et désinscription sur les sessions à tour de rôle.
+     */
+    private class VirtualUser {
+        private final int index;
+        private final String email;
+        private Long id;
+        private String token;
+
+        VirtualUser(int index, String email) {
+            this.index = index;
+            this.email = email;
+        }
+
+        boolean login() throws IOException {
+            Map<String, Object> credentials = new HashMap<>();
+            credentials.put("email", email);
+            credentials.put("password", PASSWORD);
+            PostmanCollection.Request login = collection.request("auth", "login");
+            Response response = send(login.getMethod(), login.path(), login.body(credentials), null);
+            if (response.status != 200) {
+                return false;
+            }
+            JsonNode jwt = objectMapper.readTree(response.body);
+            token = jwt.path("token").asText();
+            id = jwt.path("id").asLong();
+            return true;
+        }
+
+        Map<String, LoadStats> run(long deadline, List<Long> sessionIds) {
+            Map<String, LoadStats> steps = new LinkedHashMap<>();
+            for (String step : STEPS) {
+                steps.put(step, new LoadStats());
+            }
+
+            PostmanCollection.Request list = collection.request("session", "find all");
+            PostmanCollection.Request participate = collection.request("session", "participe");
+            PostmanCollection.Request unparticipate = collection.request("session", "no longer participe");
+
+            for (int i = index; System.nanoTime() < deadline; i++) {
+                Map<String, Object> variables = new HashMap<>();
+                variables.put("id", sessionIds.get(i % sessionIds.size()));
+                variables.put("userId", id);
+
+                timed(steps.get("login"), this::login);
+                timed(steps.get("list sessions"), () -> send(list.getMethod(), list.path(), null, token).status == 200);
+                timed(steps.get("participate"), () -> send(participate.getMethod(), participate.path(variables), null,
+                        token).status == 200);
+                timed(steps.get("unparticipate"), () -> send(unparticipate.getMethod(), unparticipate.path(variables),
+                        null, token).status == 200);
+            }
+            return steps;
+        }
+
+        private void timed(LoadStats stats, Step step) {
+            long started = System.nanoTime();
+            boolean success;
+            try {
+                success = step.call();
+            } catch (IOException e) {
+                success = false;
+            }
+            stats.record(success, System.nanoTime() - started);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        boolean call() throws IOException;
+    }
+}
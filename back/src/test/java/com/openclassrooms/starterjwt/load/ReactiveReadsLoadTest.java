@@ -0,0 +1,116 @@
+package com.openclassrooms.starterjwt.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.SpringBootSecurityJwtApplication;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+
+/**
+ * Scénario de charge comparant la liste des sessions servie par le contrôleur MVC bloquant
+ * ({@code /api/session}) et par sa variante réactive ({@code /api/reactive/session}), sur la même
+ * application et la même base H2 à laquelle est ajoutée la latence réseau de MySQL. Seul le modèle
+ * d'exécution diffère : les lectures ne sont ni regroupées ni mises en cache, et une page réactive
+ * contient toutes les sessions, si bien que chaque requête des deux côtés lit la liste en une requête SQL.
+ * Lancé par {@code mvn test -Pload-test -Dtest=ReactiveReadsLoadTest}; paramètres en -D :
+ * {@code load.connections}, {@code load.durationMs}, {@code load.dbLatencyMs}, {@code load.sessions},
+ * {@code load.tomcatThreads}. Résultats dans target/load-tests/reactive-reads.csv.
+ */
+@Tag("load")
+@Slf4j
+public class ReactiveReadsLoadTest {
+
+    private static final String[] PATHS = { "/api/session", "/api/reactive/session" };
+
+    @Test
+    void testCompareMvcAndReactiveReads() throws Exception {
+        int connections = Integer.getInteger("load.connections", 1000);
+        long durationMs = Long.getLong("load.durationMs", 10000L);
+        long dbLatencyMs = Long.getLong("load.dbLatencyMs", 5L);
+        int sessions = Integer.getInteger("load.sessions", 100);
+        int tomcatThreads = Integer.getInteger("load.tomcatThreads", 200);
+
+        Map<String, LoadStats> results = new LinkedHashMap<>();
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(
+                SpringBootSecurityJwtApplication.class, VirtualThreadsLoadTest.SimulatedDatabaseLatency.class)
+                .profiles("test")
+                // Des arguments et non des propriétés par défaut, que application.properties écraserait
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:reactivereads;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "--spring.jpa.show-sql=false",
+                        "--oc.app.sql.queryBudget=1000",
+                        "--oc.app.load.dbLatencyMs=" + dbLatencyMs,
+                        "--oc.app.reads.coalesce=false",
+                        // Une page pleine ferait lire une page suivante, vide
+                        "--oc.app.reactive.pageSize=" + (sessions + 1),
+                        "--oc.app.reactive.queueSize=" + (connections * 2),
+                        "--server.tomcat.threads.max=" + tomcatThreads,
+                        "--server.tomcat.max-connections=" + (connections * 2),
+                        "--server.tomcat.accept-count=" + connections)) {
+            String base = "http://localhost:" + context.getWebServer().getPort();
+            seed(context.getBean(SessionRepository.class), sessions);
+            String token = HttpLoad.login(base, context.getBean(ObjectMapper.class));
+
+            for (String path : PATHS) {
+                HttpLoad.load(connections, durationMs / 5, base + path, token);
+                results.put(path, HttpLoad.load(connections, durationMs, base + path, token));
+            }
+        }
+
+        write(results, connections, durationMs, dbLatencyMs, sessions, tomcatThreads);
+        for (LoadStats stats : results.values()) {
+            assertTrue(stats.getOk() > 0);
+        }
+    }
+
+    private static void seed(SessionRepository sessionRepository, int count) {
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Session session = new Session();
+            session.setName("Reactive " + i);
+            session.setDescription("Reactive reads load test");
+            session.setDate(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1) + i));
+            session.setUsers(new ArrayList<>());
+            sessions.add(session);
+        }
+        sessionRepository.saveAll(sessions);
+    }
+
+    private void write(Map<String, LoadStats> results, int connections, long durationMs, long dbLatencyMs,
+                       int sessions, int tomcatThreads) throws IOException {
+        Path file = Paths.get("target", "load-tests", "reactive-reads.csv");
+        Files.createDirectories(file.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("path,connections,db_latency_ms,sessions,tomcat_threads,requests,errors,throughput_rps,p50_ms,p99_ms");
+            for (Map.Entry<String, LoadStats> result : results.entrySet()) {
+                LoadStats stats = result.getValue();
+                String line = String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%.1f,%.1f,%.1f", result.getKey(),
+                        connections, dbLatencyMs, sessions, tomcatThreads, stats.getOk(), stats.getErrors(),
+                        stats.throughput(durationMs), stats.percentileMs(0.5), stats.percentileMs(0.99));
+                out.println(line);
+                log.info("[reactive-reads] {}", line);
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.openclassrooms.starterjwt.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openclassrooms.starterjwt.SpringBootSecurityJwtApplication;
+import com.openclassrooms.starterjwt.concurrency.VirtualThreads;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Scénario de charge comparant le pool de threads de Tomcat et les threads virtuels : l'application
+ * est démarrée deux fois, une par mode, et chaque base H2 simule la latence réseau de MySQL.
+ * Les lectures ne sont ni regroupées ni mises en cache : chaque requête attend sa propre connexion,
+ * sans quoi le scénario mesurerait la coalescence des lectures identiques et non les threads.
+ * Les threads virtuels demandent Java 21; sur un JDK plus ancien seul le mode plateforme est mesuré.
+ * Lancé par {@code mvn test -Pload-test -Dtest=VirtualThreadsLoadTest}; paramètres en -D :
+ * {@code load.connections}, {@code load.durationMs}, {@code load.dbLatencyMs}, {@code load.poolSize}
+ * (et {@code http.maxConnections} pour garder les connexions clientes ouvertes).
+ * Résultats dans target/load-tests/virtual-threads.csv.
+ */
+@Tag("load")
+@Slf4j
+public class VirtualThreadsLoadTest {
+
+    @Test
+    void testCompareThreadModels() throws Exception {
+        int connections = Integer.getInteger("load.connections", 5000);
+        long durationMs = Long.getLong("load.durationMs", 10000L);
+        long dbLatencyMs = Long.getLong("load.dbLatencyMs", 5L);
+        int poolSize = Integer.getInteger("load.poolSize", 50);
+
+        Map<String, LoadStats> results = new LinkedHashMap<>();
+        results.put("platform", run(false, connections, durationMs, dbLatencyMs, poolSize));
+        if (VirtualThreads.isSupported()) {
+            results.put("virtual", run(true, connections, durationMs, dbLatencyMs, poolSize));
+        } else {
+            log.info("[virtual-threads] Java {} has no virtual threads, platform baseline only",
+                    System.getProperty("java.version"));
+        }
+
+        write(results, connections, durationMs, dbLatencyMs, poolSize);
+        assertTrue(results.get("platform").getOk() > 0);
+    }
+
+    private LoadStats run(boolean virtual, int connections, long durationMs, long dbLatencyMs, int poolSize)
+            throws Exception {
+        String mode = virtual ? "virtual" : "platform";
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(
+                SpringBootSecurityJwtApplication.class, SimulatedDatabaseLatency.class)
+                .profiles("test")
+                // Des arguments et non des propriétés par défaut, que application.properties écraserait
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:threads" + mode + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "--spring.jpa.show-sql=false",
+                        "--oc.app.sql.queryBudget=1000",
+                        "--oc.app.threads.virtual=" + virtual,
+                        "--oc.app.reads.coalesce=false",
+                        "--oc.app.load.dbLatencyMs=" + dbLatencyMs,
+                        "--server.tomcat.max-connections=" + (connections * 2),
+                        "--server.tomcat.accept-count=" + connections,
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                        "--spring.datasource.hikari.connection-timeout=30000")) {
+            String base = "http://localhost:" + context.getWebServer().getPort();
+            Session session = new Session();
+            session.setName("Threads");
+            session.setDescription("Thread model load test");
+            session.setDate(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)));
+            session.setUsers(new ArrayList<>());
+            Long sessionId = context.getBean(SessionRepository.class).save(session).getId();
+            String token = HttpLoad.login(base, context.getBean(ObjectMapper.class));
+
+            String path = base + "/api/session/" + sessionId;
+            HttpLoad.load(connections, durationMs / 5, path, token);
+            return HttpLoad.load(connections, durationMs, path, token);
+        }
+    }
+
+    private void write(Map<String, LoadStats> results, int connections, long durationMs, long dbLatencyMs,
+                       int poolSize) throws IOException {
+        Path file = Paths.get("target", "load-tests", "virtual-threads.csv");
+        Files.createDirectories(file.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("threads,connections,db_latency_ms,pool_size,requests,errors,throughput_rps,p50_ms,p99_ms");
+            for (Map.Entry<String, LoadStats> result : results.entrySet()) {
+                LoadStats stats = result.getValue();
+                String line = String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%.1f,%.1f,%.1f", result.getKey(),
+                        connections, dbLatencyMs, poolSize, stats.getOk(), stats.getErrors(),
+                        stats.throughput(durationMs), stats.percentileMs(0.5), stats.percentileMs(0.99));
+                out.println(line);
+                log.info("[virtual-threads] {}", line);
+            }
+        }
+    }
+
+    /**
+     * Ajoute à chaque requête SQL la latence d'un aller-retour réseau vers MySQL, que H2 en mémoire n'a pas.
+     */
+    static class SimulatedDatabaseLatency {
+        @Bean
+        static BeanPostProcessor simulatedDatabaseLatencyPostProcessor(
+                @Value("${oc.app.load.dbLatencyMs}") long latencyMs) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource)) {
+                        return bean;
+                    }
+                    return ProxyDataSourceBuilder.create((DataSource) bean)
+                            .listener(new QueryExecutionListener() {
+                                @Override
+                                public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                    try {
+                                        Thread.sleep(latencyMs);
+                                    } catch (InterruptedException e) {
+                                        Thread.currentThread().interrupt();
+                                    }
+                                }
+
+                                @Override
+                                public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                }
+                            })
+                            .build();
+                }
+            };
+        }
+    }
+}
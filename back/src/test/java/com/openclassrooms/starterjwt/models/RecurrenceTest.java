@@ -0,0 +1,128 @@
+package com.openclassrooms.starterjwt.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour la classe Recurrence
+ */
+public class RecurrenceTest {
+
+    // Lundi 1er janvier 2024 à 18h
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 18, 0);
+
+    /**
+     * Test le parsing d'une règle complète
+     */
+    @Test
+    public void testParse() {
+        Recurrence recurrence = Recurrence.parse("FREQ=WEEKLY;INTERVAL=2;COUNT=10;BYDAY=MO,WE");
+
+        assertEquals(Recurrence.Frequency.WEEKLY, recurrence.getFrequency());
+        assertEquals(2, recurrence.getInterval());
+        assertEquals(10, recurrence.getCount());
+        assertNull(recurrence.getUntil());
+        assertEquals(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY), recurrence.getByDay());
+    }
+
+    /**
+     * Test que les règles invalides sont rejetées
+     */
+    @Test
+    public void testParse_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("INTERVAL=1"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=MONTHLY"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=WEEKLY;INTERVAL=0"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=DAILY;BYDAY=MO"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=WEEKLY;BYDAY=XX"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=WEEKLY;COUNT=2;UNTIL=20240201"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=WEEKLY;UNTIL=2024"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("FREQ=WEEKLY;FOO"));
+    }
+
+    /**
+     * Test une récurrence hebdomadaire sur plusieurs jours
+     */
+    @Test
+    public void testBetween_WeeklyByDay() {
+        Recurrence recurrence = Recurrence.parse("FREQ=WEEKLY;BYDAY=MO,WE");
+
+        List<LocalDateTime> occurrences = recurrence.between(START, START, START.plusWeeks(2));
+
+        assertEquals(Arrays.asList(
+                START,
+                START.plusDays(2),
+                START.plusWeeks(1),
+                START.plusWeeks(1).plusDays(2)), occurrences);
+    }
+
+    /**
+     * Test que seule la fenêtre demandée est calculée, même loin du début de la série
+     */
+    @Test
+    public void testBetween_WindowFarFromStart() {
+        Recurrence recurrence = Recurrence.parse("FREQ=WEEKLY;INTERVAL=2");
+        LocalDateTime from = START.plusWeeks(100).minusDays(1);
+
+        List<LocalDateTime> occurrences = recurrence.between(START, from, from.plusWeeks(4));
+
+        assertEquals(Arrays.asList(START.plusWeeks(100), START.plusWeeks(102)), occurrences);
+    }
+
+    /**
+     * Test que COUNT limite le nombre total d'occurrences
+     */
+    @Test
+    public void testBetween_Count() {
+        Recurrence recurrence = Recurrence.parse("FREQ=DAILY;COUNT=3");
+
+        List<LocalDateTime> occurrences = recurrence.between(START, START.plusDays(1), START.plusDays(10));
+
+        assertEquals(Arrays.asList(START.plusDays(1), START.plusDays(2)), occurrences);
+    }
+
+    /**
+     * Test que UNTIL termine la série
+     */
+    @Test
+    public void testBetween_Until() {
+        Recurrence recurrence = Recurrence.parse("FREQ=WEEKLY;UNTIL=20240115");
+
+        List<LocalDateTime> occurrences = recurrence.between(START, START, START.plusWeeks(10));
+
+        assertEquals(Arrays.asList(START, START.plusWeeks(1), START.plusWeeks(2)), occurrences);
+    }
+
+    /**
+     * Test un UNTIL en UTC, suffixé par Z
+     * Vérifie qu'il est converti dans le fuseau de la série avant de terminer celle-ci
+     */
+    @Test
+    public void testBetween_UtcUntil() {
+        Recurrence recurrence = Recurrence.parse("FREQ=DAILY;UNTIL=20240103T170000Z", ZoneId.of("Europe/Paris"));
+
+        List<LocalDateTime> occurrences = recurrence.between(START, START, START.plusDays(10));
+
+        assertEquals(LocalDateTime.of(2024, 1, 3, 18, 0), recurrence.getUntil());
+        assertEquals(Arrays.asList(START, START.plusDays(1), START.plusDays(2)), occurrences);
+    }
+
+    /**
+     * Test qu'une plage vide ne produit aucune occurrence
+     */
+    @Test
+    public void testBetween_EmptyRange() {
+        Recurrence recurrence = Recurrence.parse("FREQ=DAILY");
+
+        assertTrue(recurrence.between(START, START.plusDays(2), START.plusDays(1)).isEmpty());
+    }
+}
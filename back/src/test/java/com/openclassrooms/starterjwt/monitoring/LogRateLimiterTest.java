@@ -0,0 +1,50 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour LogRateLimiter
+ */
+public class LogRateLimiterTest {
+
+    /**
+     * Test la limite par fenêtre
+     * Vérifie que les événements au-delà de la limite sont écartés, clé par clé
+     */
+    @Test
+    public void testAcquire_DropsOverLimit() {
+        // GIVEN
+        LogRateLimiter limiter = new LogRateLimiter(2, TimeUnit.MINUTES.toNanos(1));
+
+        // WHEN / THEN
+        assertEquals(0, limiter.acquire("expired"));
+        assertEquals(0, limiter.acquire("expired"));
+        assertEquals(-1, limiter.acquire("expired"));
+        assertEquals(0, limiter.acquire("malformed"));
+    }
+
+    /**
+     * Test le report des événements écartés
+     * Vérifie que le premier événement de la fenêtre suivante compte ceux qui ont été écartés
+     */
+    @Test
+    public void testAcquire_ReportsSuppressedInNextWindow() throws Exception {
+        // GIVEN
+        LogRateLimiter limiter = new LogRateLimiter(1, TimeUnit.MILLISECONDS.toNanos(20));
+        limiter.acquire("expired");
+        limiter.acquire("expired");
+        limiter.acquire("expired");
+
+        // WHEN
+        Thread.sleep(30);
+        long suppressed = limiter.acquire("expired");
+
+        // THEN
+        assertEquals(2, suppressed);
+        assertEquals(-1, limiter.acquire("expired"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.openclassrooms.starterjwt.monitoring.RequestTrace.Phase;
+import net.ttddyy.dsproxy.ExecutionInfo;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour RequestTrace
+ */
+public class RequestTraceTest {
+
+    @AfterEach
+    public void tearDown() {
+        if (RequestTrace.current() != null) {
+            RequestTrace.stop(RequestTrace.current());
+        }
+    }
+
+    /**
+     * Test les phases sans trace ouverte
+     * Vérifie que les appels hors requête HTTP sont ignorés
+     */
+    @Test
+    public void testEnter_WithoutTrace() {
+        // WHEN
+        RequestTrace.enter(Phase.SERVICE);
+        RequestTrace.enter(Phase.SQL);
+        RequestTrace.exit();
+        RequestTrace.exit();
+
+        // THEN
+        assertNull(RequestTrace.current());
+    }
+
+    /**
+     * Test les phases imbriquées
+     * Vérifie que chaque phase ne garde que son propre temps
+     */
+    @Test
+    public void testEnter_NestedPhasesKeepTheirOwnTime() throws Exception {
+        // GIVEN
+        RequestTrace trace = RequestTrace.start("abc");
+
+        // WHEN
+        RequestTrace.enter(Phase.CONTROLLER);
+        RequestTrace.enter(Phase.SERVICE);
+        RequestTrace.enter(Phase.REPOSITORY);
+        Thread.sleep(30);
+        RequestTrace.exit();
+        RequestTrace.exit();
+        RequestTrace.exit();
+        RequestTrace.stop(trace);
+
+        // THEN
+        assertTrue(trace.getNanos(Phase.REPOSITORY) >= TimeUnit.MILLISECONDS.toNanos(30));
+        assertTrue(trace.getNanos(Phase.SERVICE) < TimeUnit.MILLISECONDS.toNanos(30));
+        assertTrue(trace.getNanos(Phase.CONTROLLER) < TimeUnit.MILLISECONDS.toNanos(30));
+        long sum = 0;
+        for (Phase phase : Phase.values()) {
+            sum += trace.getNanos(phase);
+        }
+        assertEquals(trace.getTotalNanos(), sum);
+        assertEquals("abc", trace.getTraceId());
+        assertNull(RequestTrace.current());
+    }
+
+    /**
+     * Test le temps SQL
+     * Vérifie qu'il est retiré de la phase en cours, même pour une requête de moins d'une milliseconde
+     */
+    @Test
+    public void testSqlListener_MovesTimeFromRunningPhase() throws Exception {
+        // GIVEN
+        SqlStatementCountingListener listener = new SqlStatementCountingListener();
+        RequestTrace trace = RequestTrace.start("abc");
+        RequestTrace.enter(Phase.MAPPING);
+        Thread.sleep(10);
+
+        // WHEN
+        listener.beforeQuery(new ExecutionInfo(), Collections.emptyList());
+        Thread.sleep(20);
+        listener.afterQuery(new ExecutionInfo(), Collections.emptyList());
+        listener.beforeQuery(new ExecutionInfo(), Collections.emptyList());
+        listener.afterQuery(new ExecutionInfo(), Collections.emptyList());
+        RequestTrace.exit();
+        RequestTrace.stop(trace);
+
+        // THEN
+        assertTrue(trace.getNanos(Phase.SQL) >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(trace.getNanos(Phase.MAPPING) >= TimeUnit.MILLISECONDS.toNanos(10));
+        assertTrue(trace.getNanos(Phase.MAPPING) < TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    /**
+     * Test la partie d'une requête exécutée sur un autre thread
+     * Vérifie que les phases de la trace dérivée s'ajoutent à celles de la requête
+     */
+    @Test
+    public void testFork_AddsPhasesToParent() throws Exception {
+        // GIVEN
+        RequestTrace trace = RequestTrace.start("abc");
+        RequestTrace.detach(trace);
+
+        // WHEN
+        Thread worker = new Thread(() -> {
+            RequestTrace fork = RequestTrace.fork(trace);
+            RequestTrace.enter(Phase.SERVICE);
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            RequestTrace.exit();
+            RequestTrace.stop(fork);
+        });
+        worker.start();
+        worker.join();
+        RequestTrace.attach(trace);
+        RequestTrace.stop(trace);
+
+        // THEN
+        assertTrue(trace.getNanos(Phase.SERVICE) >= TimeUnit.MILLISECONDS.toNanos(30));
+        assertTrue(trace.getTotalNanos() >= TimeUnit.MILLISECONDS.toNanos(30));
+        assertNull(RequestTrace.current());
+    }
+}
@@ -0,0 +1,89 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.openclassrooms.starterjwt.monitoring.RequestTrace.Phase;
+
+import javax.servlet.FilterChain;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour RequestTracingFilter
+ */
+public class RequestTracingFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private RequestTracingFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        request = new MockHttpServletRequest("GET", "/api/session/1");
+        response = new MockHttpServletResponse();
+        filter = new RequestTracingFilter(registry, 1.0, 1000);
+    }
+
+    /**
+     * Test le découpage d'une requête HTTP
+     * Vérifie l'en-tête d'identifiant de trace et les métriques par phase
+     */
+    @Test
+    public void testDoFilter_RecordsPhases() throws Exception {
+        // GIVEN
+        String[] traceIdInChain = new String[1];
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/session/{id}");
+            traceIdInChain[0] = MDC.get(RequestTracingFilter.TRACE_ID_MDC_KEY);
+            RequestTrace.enter(Phase.CONTROLLER);
+            RequestTrace.enter(Phase.SERVICE);
+            RequestTrace.exit();
+            RequestTrace.exit();
+        };
+
+        // WHEN
+        filter.doFilter(request, response, chain);
+
+        // THEN
+        String traceId = response.getHeader(RequestTracingFilter.TRACE_ID_HEADER);
+        assertNotNull(traceId);
+        assertEquals(32, traceId.length());
+        assertEquals(traceId, traceIdInChain[0]);
+        assertEquals(1, registry.timer("http.server.phase", "method", "GET", "uri", "/api/session/{id}",
+                "phase", "controller").count());
+        assertEquals(1, registry.timer("http.server.phase", "method", "GET", "uri", "/api/session/{id}",
+                "phase", "service").count());
+        assertNull(registry.find("http.server.phase").tag("phase", "sql").timer());
+        assertNull(RequestTrace.current());
+        assertNull(MDC.get(RequestTracingFilter.TRACE_ID_MDC_KEY));
+    }
+
+    /**
+     * Test l'identifiant de trace reçu
+     * Vérifie qu'un identifiant valide est repris et qu'un identifiant invalide est remplacé
+     */
+    @Test
+    public void testDoFilter_PropagatesValidIncomingTraceId() throws Exception {
+        // GIVEN
+        request.addHeader(RequestTracingFilter.TRACE_ID_HEADER, "upstream-42");
+        MockHttpServletRequest invalid = new MockHttpServletRequest("GET", "/api/session/1");
+        invalid.addHeader(RequestTracingFilter.TRACE_ID_HEADER, "bad id\r\n");
+        MockHttpServletResponse invalidResponse = new MockHttpServletResponse();
+
+        // WHEN
+        filter.doFilter(request, response, (req, res) -> { });
+        filter.doFilter(invalid, invalidResponse, (req, res) -> { });
+
+        // THEN
+        assertEquals("upstream-42", response.getHeader(RequestTracingFilter.TRACE_ID_HEADER));
+        assertNotEquals("bad id\r\n", invalidResponse.getHeader(RequestTracingFilter.TRACE_ID_HEADER));
+    }
+}
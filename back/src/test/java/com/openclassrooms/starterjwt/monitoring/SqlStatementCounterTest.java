@@ -0,0 +1,73 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour SqlStatementCounter
+ */
+public class SqlStatementCounterTest {
+
+    @AfterEach
+    public void tearDown() {
+        while (SqlStatementCounter.current() != null) {
+            SqlStatementCounter.stop(SqlStatementCounter.current());
+        }
+    }
+
+    /**
+     * Test l'enregistrement sans compteur ouvert
+     * Vérifie que les requêtes hors requête HTTP sont ignorées
+     */
+    @Test
+    public void testRecord_WithoutCounter() {
+        // WHEN
+        SqlStatementCounter.record(5);
+
+        // THEN
+        assertNull(SqlStatementCounter.current());
+    }
+
+    /**
+     * Test les compteurs imbriqués
+     * Vérifie qu'une requête est comptée par tous les compteurs ouverts
+     */
+    @Test
+    public void testRecord_NestedCounters() {
+        // GIVEN
+        SqlStatementCounter outer = SqlStatementCounter.start();
+        SqlStatementCounter.record(2);
+        SqlStatementCounter inner = SqlStatementCounter.start();
+
+        // WHEN
+        SqlStatementCounter.record(3);
+        SqlStatementCounter.stop(inner);
+        SqlStatementCounter.record(4);
+
+        // THEN
+        assertEquals(1, inner.getStatements());
+        assertEquals(3, inner.getElapsedMillis());
+        assertEquals(3, outer.getStatements());
+        assertEquals(9, outer.getElapsedMillis());
+        assertSame(outer, SqlStatementCounter.current());
+    }
+
+    /**
+     * Test la fermeture d'un compteur parent
+     * Vérifie que les compteurs ouverts après lui sont aussi fermés
+     */
+    @Test
+    public void testStop_ClosesNestedCounters() {
+        // GIVEN
+        SqlStatementCounter outer = SqlStatementCounter.start();
+        SqlStatementCounter.start();
+
+        // WHEN
+        SqlStatementCounter.stop(outer);
+
+        // THEN
+        assertNull(SqlStatementCounter.current());
+    }
+}
@@ -0,0 +1,114 @@
+package com.openclassrooms.starterjwt.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour SqlStatementCountingFilter
+ */
+public class SqlStatementCountingFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        request = new MockHttpServletRequest("GET", "/api/session/1");
+        response = new MockHttpServletResponse();
+    }
+
+    /**
+     * Test le comptage des requêtes SQL d'une requête HTTP
+     * Vérifie les en-têtes et les métriques par route
+     */
+    @Test
+    public void testDoFilter_ExposesCounts() throws Exception {
+        // GIVEN
+        SqlStatementCountingFilter filter = new SqlStatementCountingFilter(registry, 10, true);
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/session/{id}");
+            SqlStatementCounter.record(4);
+            SqlStatementCounter.record(6);
+            res.getWriter().write("{}");
+        };
+
+        // WHEN
+        filter.doFilter(request, response, chain);
+
+        // THEN
+        assertEquals("2", response.getHeader(SqlStatementCountingFilter.STATEMENTS_HEADER));
+        assertEquals("10", response.getHeader(SqlStatementCountingFilter.TIME_HEADER));
+        assertEquals(2.0, registry.summary("http.server.sql.statements", "method", "GET", "uri", "/api/session/{id}")
+                .totalAmount());
+        assertNull(SqlStatementCounter.current());
+    }
+
+    /**
+     * Test la désactivation des en-têtes
+     * Vérifie que les métriques sont enregistrées sans en-têtes
+     */
+    @Test
+    public void testDoFilter_WithoutHeaders() throws Exception {
+        // GIVEN
+        SqlStatementCountingFilter filter = new SqlStatementCountingFilter(registry, 0, false);
+        FilterChain chain = (req, res) -> SqlStatementCounter.record(1);
+
+        // WHEN
+        filter.doFilter(request, response, chain);
+
+        // THEN
+        assertNull(response.getHeader(SqlStatementCountingFilter.STATEMENTS_HEADER));
+        assertEquals(1, registry.summary("http.server.sql.statements", "method", "GET", "uri", "UNKNOWN").count());
+    }
+
+    /**
+     * Test une requête asynchrone
+     * Vérifie que les requêtes SQL des autres threads sont comptées et enregistrées à la fin de l'échange
+     */
+    @Test
+    public void testDoFilter_AsyncRecordedByCompletingDispatch() throws Exception {
+        // GIVEN
+        SqlStatementCountingFilter filter = new SqlStatementCountingFilter(registry, 10, true);
+        request.setAsyncSupported(true);
+        filter.doFilter(request, response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/session/{id}");
+            SqlStatementCounter.record(1);
+            req.startAsync();
+        });
+        assertNull(response.getHeader(SqlStatementCountingFilter.STATEMENTS_HEADER));
+        assertNull(registry.find("http.server.sql.statements").summary());
+
+        // WHEN
+        SqlStatementCounter counter = (SqlStatementCounter) request.getAttribute(SqlStatementCountingFilter.COUNTER_ATTRIBUTE);
+        Thread worker = new Thread(() -> {
+            SqlStatementCounter previous = SqlStatementCounter.attach(counter);
+            SqlStatementCounter.record(2);
+            SqlStatementCounter.record(3);
+            SqlStatementCounter.detach(previous);
+        });
+        worker.start();
+        worker.join();
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, response, (req, res) -> res.getWriter().write("{}"));
+
+        // THEN
+        assertEquals("3", response.getHeader(SqlStatementCountingFilter.STATEMENTS_HEADER));
+        assertEquals(3.0, registry.summary("http.server.sql.statements", "method", "GET", "uri", "/api/session/{id}")
+                .totalAmount());
+        assertEquals(1, registry.summary("http.server.sql.statements", "method", "GET", "uri", "/api/session/{id}")
+                .count());
+        assertNull(SqlStatementCounter.current());
+    }
+}
@@ -15,9 +15,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
 
 import com.openclassrooms.starterjwt.security.services.UserDetailsServiceImpl;
 
@@ -44,6 +48,9 @@ class AuthTokenFilterTest {
     @Mock
     private UserDetails userDetails;
 
+    @Mock
+    private HandlerExceptionResolver handlerExceptionResolver;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -180,4 +187,81 @@ class AuthTokenFilterTest {
             authTokenFilter.doFilterInternal(request, response, filterChain);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDoFilterInternal_EventsTokenInQuery() throws ServletException, IOException {
+        // Arrange
+        String token = "events_token";
+        String username = "test@test.com";
+        when(request.getParameter("token")).thenReturn(token);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getServletPath()).thenReturn("/api/session/events");
+        when(jwtUtils.validateJwtToken(token)).thenReturn(true);
+        when(jwtUtils.getUserNameFromEventsToken(token)).thenReturn(username);
+        when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
+
+        // Act
+        authTokenFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(filterChain).doFilter(request, response);
+        verify(userDetailsService).loadUserByUsername(username);
+        verify(jwtUtils, never()).getUserNameFromJwtToken(token);
+    }
+
+    @Test
+    void testDoFilterInternal_EventsTokenIgnoredOutsideTheStream() throws ServletException, IOException {
+        // Arrange
+        when(request.getParameter("token")).thenReturn("events_token");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getServletPath()).thenReturn("/api/session");
+
+        // Act
+        authTokenFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(jwtUtils);
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void testDoFilterInternal_PoolExhaustedAnsweredByTheResolver() throws ServletException, IOException {
+        // Arrange
+        String token = "valid_token";
+        String username = "test@test.com";
+        CannotCreateTransactionException exception =
+                new CannotCreateTransactionException("Could not open JPA EntityManager for transaction");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtils.validateJwtToken(token)).thenReturn(true);
+        when(jwtUtils.getUserNameFromJwtToken(token)).thenReturn(username);
+        when(userDetailsService.loadUserByUsername(username)).thenThrow(exception);
+        when(handlerExceptionResolver.resolveException(request, response, null, exception))
+                .thenReturn(new ModelAndView());
+
+        // Act
+        authTokenFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(handlerExceptionResolver).resolveException(request, response, null, exception);
+        verify(filterChain, never()).doFilter(request, response);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testDoFilterInternal_UnresolvedDataAccessExceptionRethrown() {
+        // Arrange
+        String token = "valid_token";
+        String username = "test@test.com";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtils.validateJwtToken(token)).thenReturn(true);
+        when(jwtUtils.getUserNameFromJwtToken(token)).thenReturn(username);
+        when(userDetailsService.loadUserByUsername(username)).thenThrow(new QueryTimeoutException("timeout"));
+
+        // Act & Assert
+        assertThrows(QueryTimeoutException.class, () -> {
+            authTokenFilter.doFilterInternal(request, response, filterChain);
+        });
+        verifyNoInteractions(filterChain);
+    }
+}
@@ -14,6 +14,8 @@ import io.jsonwebtoken.SignatureException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 /**
  * Tests unitaires pour JwtUtils
@@ -32,6 +34,7 @@ public class JwtUtilsTest {
         jwtUtils = new JwtUtils();
         ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "bezKoderSecretKey");
         ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.setField(jwtUtils, "eventsTokenExpirationMs", 60000);
 
         // Configuration des mocks
         authentication = mock(Authentication.class);
@@ -199,4 +202,42 @@ public class JwtUtilsTest {
         // THEN
         assertFalse(isValid);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test le comptage des tokens rejetés
+     * Vérifie que le compteur est incrémenté avec la raison du rejet
+     */
+    @Test
+    public void testValidateJwtToken_CountsRejections() {
+        // GIVEN
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+
+        try {
+            // WHEN
+            jwtUtils.validateJwtToken("");
+
+            // THEN
+            assertEquals(1.0, registry.counter("jwt.validation.rejected", "reason", "empty").count());
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+
+    /**
+     * Test le token du flux d'événements
+     * Vérifie qu'il n'est accepté que pour le flux, et qu'un token d'API ne l'est pas pour le flux
+     */
+    @Test
+    public void testGenerateEventsToken() {
+        // GIVEN
+        String eventsToken = jwtUtils.generateEventsToken("test@test.com");
+        String apiToken = jwtUtils.generateJwtToken(authentication);
+
+        // THEN
+        assertTrue(jwtUtils.validateJwtToken(eventsToken));
+        assertEquals("test@test.com", jwtUtils.getUserNameFromEventsToken(eventsToken));
+        assertNull(jwtUtils.getUserNameFromJwtToken(eventsToken));
+        assertNull(jwtUtils.getUserNameFromEventsToken(apiToken));
+    }
+}
@@ -78,6 +78,23 @@ public class UserDetailsImplTest {
         assertTrue(authorities.isEmpty());
     }
 
+    /**
+     * Test la méthode getAuthorities pour un administrateur
+     * Vérifie que le rôle ADMIN est accordé
+     */
+    @Test
+    public void testGetAuthorities_Admin() {
+        // GIVEN
+        UserDetailsImpl userDetails = UserDetailsImpl.builder().admin(true).build();
+
+        // WHEN
+        Collection<? extends GrantedAuthority> authorities = userDetails.getAuthorities();
+
+        // THEN
+        assertEquals(1, authorities.size());
+        assertEquals("ROLE_ADMIN", authorities.iterator().next().getAuthority());
+    }
+
     /**
      * Test la méthode equals avec le même objet
      * Vérifie que l'objet est égal à lui-même
@@ -0,0 +1,114 @@
+package com.openclassrooms.starterjwt.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour OutboxRelay
+ */
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+
+    @Mock
+    private SessionOutbox sessionOutbox;
+
+    @Mock
+    private ObjectProvider<OutboxSink> sinkProvider;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OutboxSink sink;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        when(sinkProvider.getIfAvailable(any(Supplier.class))).thenReturn(sink);
+        outboxRelay = new OutboxRelay(sessionOutbox, sinkProvider, eventPublisher, meterRegistry, true, 2, 3);
+    }
+
+    /**
+     * Test le relais d'une file de plusieurs lots
+     * Vérifie que les lots sont publiés jusqu'à un lot incomplet
+     */
+    @Test
+    public void testRelay_DrainsUntilShortBatch() throws Exception {
+        // GIVEN
+        when(sessionOutbox.relay(sink, 2)).thenReturn(2, 1);
+
+        // WHEN
+        outboxRelay.relay();
+
+        // THEN
+        verify(sessionOutbox, times(2)).relay(sink, 2);
+        assertEquals(3.0, meterRegistry.counter("outbox.published").count());
+    }
+
+    /**
+     * Test une file plus longue que le nombre de lots par passage
+     * Vérifie que le passage s'arrête, la suite étant publiée au passage suivant
+     */
+    @Test
+    public void testRelay_StopsAfterMaxBatches() throws Exception {
+        // GIVEN
+        when(sessionOutbox.relay(sink, 2)).thenReturn(2);
+
+        // WHEN
+        outboxRelay.relay();
+
+        // THEN
+        verify(sessionOutbox, times(3)).relay(sink, 2);
+        assertEquals(6.0, meterRegistry.counter("outbox.published").count());
+    }
+
+    /**
+     * Test l'échec de la destination
+     * Vérifie que l'échec est compté et que le passage s'arrête sans exception
+     */
+    @Test
+    public void testRelay_FailureStopsTheRun() throws Exception {
+        // GIVEN
+        when(sessionOutbox.relay(sink, 2)).thenThrow(new IllegalStateException("broker down"));
+
+        // WHEN
+        outboxRelay.relay();
+
+        // THEN
+        verify(sessionOutbox, times(1)).relay(sink, 2);
+        assertEquals(1.0, meterRegistry.counter("outbox.relay.failures").count());
+        assertEquals(0.0, meterRegistry.counter("outbox.published").count());
+    }
+
+    /**
+     * Test le relais désactivé
+     * Vérifie que l'outbox n'est pas lue
+     */
+    @Test
+    public void testRelay_Disabled() throws Exception {
+        // GIVEN
+        outboxRelay = new OutboxRelay(sessionOutbox, sinkProvider, eventPublisher, meterRegistry, false, 2, 3);
+
+        // WHEN
+        outboxRelay.relay();
+
+        // THEN
+        verifyNoInteractions(sessionOutbox);
+    }
+}
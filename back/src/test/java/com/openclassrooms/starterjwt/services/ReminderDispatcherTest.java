@@ -0,0 +1,134 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.dto.ReminderDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ReminderDispatcher
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReminderDispatcherTest {
+
+    @Mock
+    private SessionReminderService sessionReminderService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<List<ReminderDto>> batches = new ArrayList<>();
+
+    private final ReminderNotifier notifier = reminders -> batches.add(new ArrayList<>(reminders));
+
+    /**
+     * Test l'envoi des rappels d'une séance
+     * Vérifie qu'ils partent par lots, au rythme autorisé
+     */
+    @Test
+    public void testDispatchDue_SendsPacedBatches() {
+        // GIVEN
+        when(sessionReminderService.claimDue(any(Date.class), eq(TimeUnit.MINUTES.toMillis(60)), eq(1000)))
+                .thenReturn(reminders(5));
+        ReminderDispatcher dispatcher = dispatcher(notifier, true, 100);
+
+        // WHEN
+        long start = System.nanoTime();
+        dispatcher.dispatchDue();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // THEN
+        assertEquals(3, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(1, batches.get(2).size());
+        assertTrue(elapsedMs >= 35, "elapsed " + elapsedMs);
+        assertEquals(5.0, meterRegistry.counter("reminders.sent").count());
+    }
+
+    /**
+     * Test l'échec d'un lot
+     * Vérifie qu'il est compté sans être renvoyé et que les lots suivants partent
+     */
+    @Test
+    public void testDispatchDue_FailedBatchIsNotRetried() {
+        // GIVEN
+        when(sessionReminderService.claimDue(any(Date.class), anyLong(), anyInt())).thenReturn(reminders(4));
+        List<List<ReminderDto>> attempts = new ArrayList<>();
+        ReminderDispatcher dispatcher = dispatcher(reminders -> {
+            attempts.add(reminders);
+            if (attempts.size() == 1) {
+                throw new IllegalStateException("smtp down");
+            }
+        }, true, 1000);
+
+        // WHEN
+        dispatcher.dispatchDue();
+
+        // THEN
+        assertEquals(2, attempts.size());
+        assertEquals(2.0, meterRegistry.counter("reminders.failed").count());
+        assertEquals(2.0, meterRegistry.counter("reminders.sent").count());
+    }
+
+    /**
+     * Test des rappels déjà réservés par une autre instance
+     * Vérifie que rien n'est envoyé et que la tâche se poursuit au passage suivant
+     */
+    @Test
+    public void testDispatchDue_ClaimConflictSendsNothing() {
+        // GIVEN
+        when(sessionReminderService.claimDue(any(Date.class), anyLong(), anyInt()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(reminders(1));
+        ReminderDispatcher dispatcher = dispatcher(notifier, true, 1000);
+
+        // WHEN
+        dispatcher.dispatchDue();
+        dispatcher.dispatchDue();
+
+        // THEN
+        assertEquals(1, batches.size());
+    }
+
+    /**
+     * Test les rappels désactivés
+     * Vérifie qu'aucun rappel n'est réservé
+     */
+    @Test
+    public void testDispatchDue_Disabled() {
+        // GIVEN
+        ReminderDispatcher dispatcher = dispatcher(notifier, false, 1000);
+
+        // WHEN
+        dispatcher.dispatchDue();
+
+        // THEN
+        verifyNoInteractions(sessionReminderService);
+    }
+
+    private ReminderDispatcher dispatcher(ReminderNotifier notifier, boolean enabled, int perSecond) {
+        return new ReminderDispatcher(sessionReminderService, notifier, meterRegistry, Runnable::run, enabled, 60,
+                1000, 2, perSecond);
+    }
+
+    private List<ReminderDto> reminders(int count) {
+        List<ReminderDto> reminders = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            reminders.add(new ReminderDto(1L, "Yoga", new Date(), i, "user" + i + "@test.com", "User"));
+        }
+        return reminders;
+    }
+}
@@ -0,0 +1,138 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.models.Session;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour SessionReadCoalescer
+ */
+public class SessionReadCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SessionReadCoalescer coalescer = new SessionReadCoalescer(meterRegistry);
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Test de l'invalidation dans une transaction
+     * Vérifie que les lectures en cours ne sont détachées qu'à la fin de la transaction
+     */
+    @Test
+    public void testInvalidate_WaitsForTransactionCompletion() throws Exception {
+        // GIVEN
+        CountDownLatch release = new CountDownLatch(1);
+        Session before = new Session();
+        CompletableFuture<Session> running = CompletableFuture.supplyAsync(() -> coalescer.getById(1L, () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return before;
+        }));
+        awaitCount("leader");
+        TransactionSynchronizationManager.initSynchronization();
+
+        // WHEN
+        coalescer.invalidate();
+        CompletableFuture<Session> beforeCommit = CompletableFuture.supplyAsync(() -> coalescer.getById(1L, Session::new));
+        awaitCount("collapsed");
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        Session afterCommit = coalescer.getById(1L, Session::new);
+        release.countDown();
+
+        // THEN
+        assertSame(before, beforeCommit.get(5, TimeUnit.SECONDS));
+        assertSame(before, running.get(5, TimeUnit.SECONDS));
+        assertNotSame(before, afterCommit);
+    }
+
+    /**
+     * Test le catalogue en cache
+     * Vérifie que la liste est servie sans requête puis rechargée par la lecture qui suit une écriture
+     */
+    @Test
+    public void testFindAll_ServesCatalogueAndReloadsAfterWrite() {
+        // GIVEN
+        SessionReadCoalescer cached = new SessionReadCoalescer(meterRegistry, true, true, 60000, 300000);
+        AtomicInteger queries = new AtomicInteger();
+        Supplier<List<Session>> query = () -> {
+            queries.incrementAndGet();
+            return Collections.singletonList(new Session());
+        };
+        List<Session> first = cached.findAll(query);
+
+        // WHEN
+        List<Session> second = cached.findAll(query);
+        cached.invalidate();
+        List<Session> afterWrite = cached.findAll(query);
+
+        // THEN
+        assertSame(first, second);
+        assertNotSame(first, afterWrite);
+        assertSame(afterWrite, cached.findAll(query));
+        assertEquals(2, queries.get());
+        cached.shutdown();
+    }
+
+    /**
+     * Test la coalescence désactivée
+     * Vérifie qu'une lecture concurrente du même id lance sa propre requête au lieu d'attendre la première
+     */
+    @Test
+    public void testGetById_UncoalescedRunsEveryQuery() throws Exception {
+        // GIVEN
+        SessionReadCoalescer uncoalesced = new SessionReadCoalescer(meterRegistry, false, false, 0, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Session first = new Session();
+        CompletableFuture<Session> running = CompletableFuture.supplyAsync(() -> uncoalesced.getById(1L, () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return first;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // WHEN
+        Session second = uncoalesced.getById(1L, Session::new);
+        release.countDown();
+
+        // THEN
+        assertNotSame(first, second);
+        assertSame(first, running.get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, meterRegistry.counter("singleflight.calls", "name", "session.getById", "result", "leader").count());
+    }
+
+    private void awaitCount(String result) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("singleflight.calls", "name", "session.getById", "result", result).count() < 1) {
+            assertTrue(System.nanoTime() < deadline, "waiting for a " + result + " call");
+            Thread.sleep(5);
+        }
+    }
+}
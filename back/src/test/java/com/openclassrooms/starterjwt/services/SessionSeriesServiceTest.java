@@ -0,0 +1,301 @@
+package com.openclassrooms.starterjwt.services;
+
+import com.openclassrooms.starterjwt.audit.AuditAction;
+import com.openclassrooms.starterjwt.audit.AuditLog;
+import com.openclassrooms.starterjwt.dto.TimeSlotDto;
+import com.openclassrooms.starterjwt.exception.BadRequestException;
+import com.openclassrooms.starterjwt.exception.ConflictException;
+import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionSeries;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionRepository;
+import com.openclassrooms.starterjwt.repository.SessionSeriesRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour le service SessionSeriesService
+ */
+@ExtendWith(MockitoExtension.class)
+public class SessionSeriesServiceTest {
+
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    @Mock
+    private SessionSeriesRepository sessionSeriesRepository;
+
+    @Mock
+    private SessionRepository sessionRepository;
+
+    @Mock
+    private TeacherRepository teacherRepository;
+
+    @Mock
+    private SessionChangeLog sessionChangeLog;
+
+    @Mock
+    private SessionOutbox sessionOutbox;
+
+    @Mock
+    private AuditLog auditLog;
+
+    private SessionSeriesService sessionSeriesService;
+
+    private SessionSeries series;
+
+    /**
+     * Configuration initiale avant chaque test
+     */
+    @BeforeEach
+    public void setup() {
+        sessionSeriesService = new SessionSeriesService(sessionSeriesRepository, sessionRepository, teacherRepository, sessionChangeLog, sessionOutbox, auditLog, 28);
+
+        Teacher teacher = new Teacher();
+        teacher.setId(1L);
+
+        series = new SessionSeries();
+        series.setId(1L);
+        series.setName("Vinyasa");
+        series.setDescription("Weekly class");
+        series.setTeacher(teacher);
+        series.setStartDate(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)));
+        series.setRecurrence("FREQ=DAILY");
+    }
+
+    /**
+     * Test la création d'une série
+     * Vérifie que seules les occurrences de la fenêtre glissante sont matérialisées
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCreate_MaterializesWindow() {
+        // GIVEN
+        when(sessionSeriesRepository.save(series)).thenReturn(series);
+
+        // WHEN
+        SessionSeries created = sessionSeriesService.create(series);
+
+        // THEN
+        ArgumentCaptor<List<Session>> captor = ArgumentCaptor.forClass(List.class);
+        verify(sessionRepository).saveAll(captor.capture());
+        assertEquals(28, captor.getValue().size());
+        Session first = captor.getValue().get(0);
+        assertEquals("Vinyasa", first.getName());
+        assertEquals(1L, first.getSeriesId());
+        assertEquals(series.getStartDate(), first.getDate());
+        assertNotNull(created.getMaterializedUntil());
+        verify(teacherRepository).lockById(1L);
+        verify(auditLog).record(eq(AuditAction.SESSION_CREATED), anyList());
+    }
+
+    /**
+     * Test la création d'une série chevauchant une session du professeur
+     * Vérifie qu'une ConflictException est lancée et que rien n'est stocké
+     */
+    @Test
+    public void testCreate_TeacherConflict() {
+        // GIVEN
+        Date booked = new Date(series.getStartDate().getTime() + 3 * DAY_MS + TimeUnit.MINUTES.toMillis(30));
+        when(sessionSeriesRepository.save(series)).thenReturn(series);
+        when(sessionRepository.findTeacherSlotsStartingBetween(eq(1L), any(Date.class), any(Date.class)))
+                .thenReturn(Collections.singletonList(new TimeSlotDto(7L, booked, 60)));
+
+        // WHEN
+        assertThrows(ConflictException.class, () -> sessionSeriesService.create(series));
+
+        // THEN
+        verify(teacherRepository).lockById(1L);
+        verify(sessionRepository, never()).saveAll(anyList());
+    }
+
+    /**
+     * Test la création d'une série commencée dans le passé
+     * Vérifie que seules les occurrences à venir sont matérialisées
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCreate_PastStartDate() {
+        // GIVEN
+        Date now = new Date();
+        series.setStartDate(new Date(now.getTime() - 365 * DAY_MS + TimeUnit.HOURS.toMillis(1)));
+        when(sessionSeriesRepository.save(series)).thenReturn(series);
+
+        // WHEN
+        sessionSeriesService.create(series);
+
+        // THEN
+        ArgumentCaptor<List<Session>> captor = ArgumentCaptor.forClass(List.class);
+        verify(sessionRepository).saveAll(captor.capture());
+        assertEquals(28, captor.getValue().size());
+        assertTrue(captor.getValue().stream().noneMatch(s -> s.getDate().before(now)));
+    }
+
+    /**
+     * Test la création d'une série avec une règle invalide
+     * Vérifie qu'une BadRequestException est lancée
+     */
+    @Test
+    public void testCreate_InvalidRecurrence() {
+        series.setRecurrence("FREQ=YEARLY");
+
+        assertThrows(BadRequestException.class, () -> sessionSeriesService.create(series));
+        verify(sessionSeriesRepository, never()).save(any());
+    }
+
+    /**
+     * Test l'extension de la fenêtre
+     * Vérifie que seule la partie non matérialisée est générée
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExtendWindows_OnlyMissingPart() {
+        // GIVEN
+        series.setMaterializedUntil(new Date(series.getStartDate().getTime() + 25 * DAY_MS + 1));
+        when(sessionSeriesRepository.findNotMaterializedBefore(any(Date.class))).thenReturn(Arrays.asList(series));
+
+        // WHEN
+        int created = sessionSeriesService.extendWindows();
+
+        // THEN
+        ArgumentCaptor<List<Session>> captor = ArgumentCaptor.forClass(List.class);
+        verify(sessionRepository).saveAll(captor.capture());
+        assertEquals(2, created);
+        assertEquals(2, captor.getValue().size());
+        verify(sessionSeriesRepository).save(series);
+    }
+
+    /**
+     * Test l'extension de la fenêtre quand une occurrence chevauche une session du professeur
+     * Vérifie que seule l'occurrence en conflit est écartée
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExtendWindows_SkipsTeacherConflicts() {
+        // GIVEN
+        series.setMaterializedUntil(new Date(series.getStartDate().getTime() + 25 * DAY_MS + 1));
+        Date booked = new Date(series.getStartDate().getTime() + 26 * DAY_MS);
+        when(sessionSeriesRepository.findNotMaterializedBefore(any(Date.class))).thenReturn(Arrays.asList(series));
+        when(sessionRepository.findTeacherSlotsStartingBetween(eq(1L), any(Date.class), any(Date.class)))
+                .thenReturn(Collections.singletonList(new TimeSlotDto(7L, booked, 60)));
+
+        // WHEN
+        int created = sessionSeriesService.extendWindows();
+
+        // THEN
+        ArgumentCaptor<List<Session>> captor = ArgumentCaptor.forClass(List.class);
+        verify(sessionRepository).saveAll(captor.capture());
+        assertEquals(1, created);
+        assertEquals(new Date(series.getStartDate().getTime() + 27 * DAY_MS), captor.getValue().get(0).getDate());
+    }
+
+    /**
+     * Test l'expansion à la lecture
+     * Vérifie que les occurrences non matérialisées sont calculées sans être stockées
+     */
+    @Test
+    public void testExpand() {
+        // GIVEN
+        Date materializedUntil = new Date(series.getStartDate().getTime() + 28 * DAY_MS);
+        series.setMaterializedUntil(materializedUntil);
+        Date from = new Date(series.getStartDate().getTime() + 20 * DAY_MS);
+        Date to = new Date(series.getStartDate().getTime() + 35 * DAY_MS);
+        when(sessionSeriesRepository.findNotMaterializedBefore(to)).thenReturn(Arrays.asList(series));
+
+        // WHEN
+        List<Session> occurrences = sessionSeriesService.expand(from, to, null);
+
+        // THEN
+        assertEquals(7, occurrences.size());
+        assertTrue(occurrences.stream().allMatch(s -> s.getId() == null && !s.getDate().before(materializedUntil)));
+        verifyNoInteractions(sessionRepository);
+        assertTrue(sessionSeriesService.expand(from, to, 2L).isEmpty());
+    }
+
+    /**
+     * Test l'expansion d'une plage commencée dans le passé
+     * Vérifie que, comme à la matérialisation, aucune occurrence passée n'est retournée
+     */
+    @Test
+    public void testExpand_SkipsPastOccurrences() {
+        // GIVEN
+        Date now = new Date();
+        series.setStartDate(new Date(now.getTime() - 10 * DAY_MS + TimeUnit.HOURS.toMillis(1)));
+        Date from = new Date(now.getTime() - 10 * DAY_MS);
+        Date to = new Date(now.getTime() + 3 * DAY_MS);
+        when(sessionSeriesRepository.findNotMaterializedBefore(to)).thenReturn(Arrays.asList(series));
+
+        // WHEN
+        List<Session> occurrences = sessionSeriesService.expand(from, to, null);
+
+        // THEN
+        assertEquals(3, occurrences.size());
+        assertTrue(occurrences.stream().noneMatch(s -> s.getDate().before(now)));
+    }
+
+    /**
+     * Test la suppression d'une série
+     * Vérifie que les occurrences futures sont supprimées et les passées détachées, chacune auditée
+     */
+    @Test
+    public void testDelete() {
+        // GIVEN
+        Session occurrence = new Session();
+        occurrence.setId(5L);
+        List<Session> upcoming = Collections.singletonList(occurrence);
+        when(sessionSeriesRepository.findById(1L)).thenReturn(Optional.of(series));
+        when(sessionRepository.findBySeriesIdAndDateGreaterThanEqual(eq(1L), any(Date.class))).thenReturn(upcoming);
+        when(sessionRepository.findIdsBySeriesId(1L)).thenReturn(Collections.singletonList(3L));
+
+        // WHEN
+        sessionSeriesService.delete(1L);
+
+        // THEN
+        verify(sessionRepository).deleteAll(upcoming);
+        verify(sessionRepository).detachFromSeries(1L);
+        verify(sessionSeriesRepository).delete(series);
+        verify(auditLog).record(AuditAction.SESSION_DELETED, Collections.singletonList(5L));
+        verify(auditLog).record(AuditAction.SESSION_UPDATED, Collections.singletonList(3L));
+    }
+
+    /**
+     * Test la suppression d'une série inexistante
+     */
+    @Test
+    public void testDelete_NotFound() {
+        when(sessionSeriesRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> sessionSeriesService.delete(1L));
+        verify(sessionRepository, never()).deleteAll(anyList());
+    }
+
+    /**
+     * Test la récupération des séries
+     */
+    @Test
+    public void testFindAllAndGetById() {
+        when(sessionSeriesRepository.findAll()).thenReturn(Arrays.asList(series));
+        when(sessionSeriesRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertEquals(1, sessionSeriesService.findAll().size());
+        assertNull(sessionSeriesService.getById(2L));
+    }
+}
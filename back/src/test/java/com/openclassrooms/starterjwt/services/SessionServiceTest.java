@@ -1,20 +1,38 @@
 package com.openclassrooms.starterjwt.services;
 
+import com.openclassrooms.starterjwt.audit.AuditLog;
+import com.openclassrooms.starterjwt.dto.SessionCompactDto;
+import com.openclassrooms.starterjwt.dto.SessionSummaryDto;
 import com.openclassrooms.starterjwt.exception.BadRequestException;
 import com.openclassrooms.starterjwt.exception.NotFoundException;
+import com.openclassrooms.starterjwt.models.OutboxEvent;
 import com.openclassrooms.starterjwt.models.Session;
+import com.openclassrooms.starterjwt.models.SessionChange;
 import com.openclassrooms.starterjwt.models.User;
+import com.openclassrooms.starterjwt.dto.TimeSlotDto;
+import com.openclassrooms.starterjwt.exception.ConflictException;
+import com.openclassrooms.starterjwt.models.Teacher;
+import com.openclassrooms.starterjwt.repository.SessionChangeRepository;
 import com.openclassrooms.starterjwt.repository.SessionRepository;
-import com.openclassrooms.starterjwt.repository.UserRepository;
+import com.openclassrooms.starterjwt.repository.TeacherRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,7 +49,25 @@ public class SessionServiceTest {
     private SessionRepository sessionRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private TeacherRepository teacherRepository;
+
+    @Mock
+    private SessionSeriesService sessionSeriesService;
+
+    @Mock
+    private SessionChangeLog sessionChangeLog;
+
+    @Mock
+    private SessionChangeRepository sessionChangeRepository;
+
+    @Mock
+    private SessionOutbox sessionOutbox;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @Spy
+    private SessionReadCoalescer sessionReadCoalescer = new SessionReadCoalescer(new SimpleMeterRegistry());
 
     @InjectMocks
     private SessionService sessionService;
@@ -89,6 +125,24 @@ public class SessionServiceTest {
         verify(sessionRepository, times(1)).deleteById(1L);
     }
 
+    /**
+     * Test la récupération compacte des sessions
+     * Vérifie que le service délègue à la requête d'agrégation
+     */
+    @Test
+    public void testFindAllCompact() {
+        // GIVEN
+        List<SessionCompactDto> sessions = Arrays.asList(new SessionCompactDto(1L, "Yoga", new Date(), 60, 1L, 3L));
+        when(sessionRepository.findAllCompact()).thenReturn(sessions);
+
+        // WHEN
+        List<SessionCompactDto> result = sessionService.findAllCompact();
+
+        // THEN
+        assertEquals(sessions, result);
+        verify(sessionRepository, never()).findAll();
+    }
+
     /**
      * Test la récupération de toutes les sessions
      * Vérifie que la méthode findAll du repository est appelée et retourne la liste
@@ -109,6 +163,49 @@ public class SessionServiceTest {
         verify(sessionRepository, times(1)).findAll();
     }
 
+    /**
+     * Test la récupération des sessions d'une plage de dates
+     * Vérifie que les occurrences non matérialisées des séries sont fusionnées
+     * dans l'ordre chronologique
+     */
+    @Test
+    public void testFindBetween() {
+        // GIVEN
+        Date from = new Date(0);
+        Date to = new Date(10000);
+        session.setDate(new Date(5000));
+        Session occurrence = new Session();
+        occurrence.setDate(new Date(1000));
+        when(sessionRepository.findBetween(from, to)).thenReturn(Arrays.asList(session));
+        when(sessionSeriesService.expand(from, to, null)).thenReturn(Arrays.asList(occurrence));
+
+        // WHEN
+        List<Session> sessions = sessionService.findBetween(from, to, null);
+
+        // THEN
+        assertEquals(Arrays.asList(occurrence, session), sessions);
+    }
+
+    /**
+     * Test la récupération des sessions d'un professeur sur une plage de dates
+     * Vérifie que la requête indexée par professeur est utilisée
+     */
+    @Test
+    public void testFindBetween_ForTeacher() {
+        // GIVEN
+        Date from = new Date(0);
+        Date to = new Date(10000);
+        when(sessionRepository.findByTeacherBetween(2L, from, to)).thenReturn(Arrays.asList(session));
+        when(sessionSeriesService.expand(from, to, 2L)).thenReturn(new ArrayList<>());
+
+        // WHEN
+        List<Session> sessions = sessionService.findBetween(from, to, 2L);
+
+        // THEN
+        assertEquals(Arrays.asList(session), sessions);
+        verify(sessionRepository, never()).findBetween(any(), any());
+    }
+
     /**
      * Test la récupération d'une session par ID quand elle existe
      * Vérifie que la méthode findById du repository est appelée et retourne la
@@ -187,24 +284,24 @@ public class SessionServiceTest {
 
     /**
      * Test l'inscription d'un utilisateur à une session avec succès
-     * Vérifie que la session et l'utilisateur sont trouvés et que l'utilisateur est
-     * ajouté
+     * Vérifie que l'utilisateur est ajouté sans être chargé et que le nombre de participants est publié
      */
     @Test
     public void testParticipate_Success() {
         // GIVEN
         when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(sessionRepository.save(any(Session.class))).thenReturn(session);
+        when(sessionRepository.addParticipant(1L, 1L)).thenReturn(1);
 
         // WHEN
         sessionService.participate(1L, 1L);
 
         // THEN
         verify(sessionRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).findById(1L);
-        verify(sessionRepository, times(1)).save(session);
-        assertTrue(session.getUsers().contains(user));
+        verify(sessionRepository, times(1)).addParticipant(1L, 1L);
+        verify(sessionRepository, never()).save(any());
+        InOrder inOrder = inOrder(sessionChangeLog, sessionOutbox);
+        inOrder.verify(sessionChangeLog).participation(1L, 1);
+        inOrder.verify(sessionOutbox).append(OutboxEvent.Type.PARTICIPANT_ADDED, 1L, 1L);
     }
 
     /**
@@ -220,6 +317,21 @@ public class SessionServiceTest {
         assertThrows(NotFoundException.class, () -> sessionService.participate(999L, 1L));
     }
 
+    /**
+     * Test l'inscription d'un utilisateur qui n'existe pas
+     * Vérifie qu'aucune ligne n'est insérée, qu'une NotFoundException est lancée et que rien n'est publié
+     */
+    @Test
+    public void testParticipate_UserNotFound() {
+        // GIVEN
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+        when(sessionRepository.addParticipant(1L, 999L)).thenReturn(0);
+
+        // WHEN & THEN
+        assertThrows(NotFoundException.class, () -> sessionService.participate(1L, 999L));
+        verifyNoInteractions(sessionChangeLog, sessionOutbox);
+    }
+
     /**
      * Test l'inscription à une session quand l'utilisateur est déjà inscrit
      * Vérifie qu'une BadRequestException est lancée
@@ -229,30 +341,49 @@ public class SessionServiceTest {
         // GIVEN
         session.getUsers().add(user);
         when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         // WHEN & THEN
         assertThrows(BadRequestException.class, () -> sessionService.participate(1L, 1L));
+        verify(sessionRepository, never()).addParticipant(any(), any());
     }
 
     /**
      * Test la désinscription d'un utilisateur d'une session avec succès
-     * Vérifie que l'utilisateur est bien retiré de la liste des participants
+     * Vérifie que seule sa ligne de participation est supprimée et que le nombre restant est publié
      */
     @Test
     public void testNoLongerParticipate_Success() {
         // GIVEN
         session.getUsers().add(user);
         when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
-        when(sessionRepository.save(any(Session.class))).thenReturn(session);
+        when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(1);
 
         // WHEN
         sessionService.noLongerParticipate(1L, 1L);
 
         // THEN
         verify(sessionRepository, times(1)).findById(1L);
-        verify(sessionRepository, times(1)).save(session);
-        assertFalse(session.getUsers().contains(user));
+        verify(sessionRepository, times(1)).removeParticipant(1L, 1L);
+        verify(sessionRepository, never()).save(any());
+        InOrder inOrder = inOrder(sessionChangeLog, sessionOutbox);
+        inOrder.verify(sessionChangeLog).participation(1L, 0);
+        inOrder.verify(sessionOutbox).append(OutboxEvent.Type.PARTICIPANT_REMOVED, 1L, 1L);
+    }
+
+    /**
+     * Test la désinscription concurrente d'un utilisateur déjà retiré depuis la lecture de la session
+     * Vérifie qu'une BadRequestException est lancée et que rien n'est publié
+     */
+    @Test
+    public void testNoLongerParticipate_RemovedConcurrently() {
+        // GIVEN
+        session.getUsers().add(user);
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+        when(sessionRepository.removeParticipant(1L, 1L)).thenReturn(0);
+
+        // WHEN & THEN
+        assertThrows(BadRequestException.class, () -> sessionService.noLongerParticipate(1L, 1L));
+        verifyNoInteractions(sessionChangeLog, sessionOutbox);
     }
 
     /**
@@ -280,4 +411,225 @@ public class SessionServiceTest {
         // WHEN & THEN
         assertThrows(BadRequestException.class, () -> sessionService.noLongerParticipate(1L, 1L));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test la récupération paginée des sessions d'un participant
+     * Vérifie que la taille de page est bornée
+     */
+    @Test
+    public void testFindByParticipant() {
+        // GIVEN
+        Page<SessionSummaryDto> page = new PageImpl<>(Collections.emptyList());
+        when(sessionRepository.findSummariesByParticipant(eq(1L), any(Pageable.class))).thenReturn(page);
+
+        // WHEN
+        Page<SessionSummaryDto> result = sessionService.findByParticipant(1L, -1, 10000);
+
+        // THEN
+        assertEquals(page, result);
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(sessionRepository).findSummariesByParticipant(eq(1L), captor.capture());
+        assertEquals(0, captor.getValue().getPageNumber());
+        assertEquals(100, captor.getValue().getPageSize());
+    }
+
+    /**
+     * Test la création d'une session qui chevauche une autre session du même professeur
+     * Vérifie qu'une ConflictException est lancée et que rien n'est enregistré
+     */
+    @Test
+    public void testCreate_TeacherConflict() {
+        // GIVEN
+        Teacher teacher = new Teacher();
+        teacher.setId(2L);
+        session.setTeacher(teacher);
+        session.setDate(new Date(3600000L));
+        session.setDuration(60);
+        when(sessionRepository.findTeacherSlotsStartingBetween(eq(2L), any(Date.class), any(Date.class)))
+                .thenReturn(Arrays.asList(new TimeSlotDto(5L, new Date(3000000L), 30)));
+
+        // WHEN & THEN
+        assertThrows(ConflictException.class, () -> sessionService.create(session));
+        verify(teacherRepository).lockById(2L);
+        verify(sessionRepository, never()).save(any());
+    }
+
+    /**
+     * Test la mise à jour d'une session sans changer son créneau
+     * Vérifie que la session ne rentre pas en conflit avec elle-même
+     * et qu'une session terminée avant le début est ignorée
+     */
+    @Test
+    public void testUpdate_NoConflictWithItself() {
+        // GIVEN
+        Teacher teacher = new Teacher();
+        teacher.setId(2L);
+        session.setTeacher(teacher);
+        session.setDate(new Date(3600000L));
+        when(sessionRepository.findById(1L)).thenReturn(Optional.of(session));
+        when(sessionRepository.findTeacherSlotsStartingBetween(eq(2L), any(Date.class), any(Date.class)))
+                .thenReturn(Arrays.asList(
+                        new TimeSlotDto(1L, new Date(3600000L), 60),
+                        new TimeSlotDto(6L, new Date(0L), 60)));
+        when(sessionRepository.save(session)).thenReturn(session);
+
+        // WHEN
+        Session result = sessionService.update(1L, session);
+
+        // THEN
+        assertEquals(session, result);
+    }
+
+    /**
+     * Test qu'une occurrence non matérialisée d'une série bloque aussi le créneau
+     */
+    @Test
+    public void testFindTeacherBookings_IncludesSeriesOccurrences() {
+        // GIVEN
+        Session occurrence = new Session();
+        occurrence.setDate(new Date(3600000L));
+        occurrence.setDuration(60);
+        when(sessionRepository.findTeacherSlotsStartingBetween(eq(2L), any(Date.class), any(Date.class)))
+                .thenReturn(new ArrayList<>());
+        when(sessionSeriesService.expand(any(Date.class), any(Date.class), eq(2L)))
+                .thenReturn(Arrays.asList(occurrence));
+
+        // WHEN
+        List<TimeSlotDto> bookings = sessionService.findTeacherBookings(2L, new Date(3600000L), new Date(7200000L));
+
+        // THEN
+        assertEquals(1, bookings.size());
+        assertNull(bookings.get(0).getSessionId());
+    }
+
+    /**
+     * Test la première synchronisation
+     * Vérifie que le client est réinitialisé avec la première page des sessions, par id, et le curseur courant
+     */
+    @Test
+    public void testFindChanges_ResetsWithoutCursor() {
+        // GIVEN
+        Session other = Session.builder().id(2L).name("Other").build();
+        when(sessionChangeRepository.findSequence()).thenReturn(Collections.singletonList(sequence(7L, null)));
+        when(sessionRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(Arrays.asList(1L, 2L, 3L));
+        when(sessionRepository.findWithParticipantsByIdIn(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(other, session));
+
+        // WHEN
+        SessionChanges changes = sessionService.findChanges(-1, null, 2);
+
+        // THEN
+        assertTrue(changes.isReset());
+        assertTrue(changes.isMore());
+        assertEquals(2L, changes.getAfter());
+        assertEquals(7L, changes.getCursor());
+        assertEquals(Arrays.asList(session, other), changes.getSessions());
+        verify(sessionRepository, never()).findAll();
+        verify(sessionChangeRepository, never()).findBySeqGreaterThanOrderBySeq(anyLong(), any(Pageable.class));
+        verify(sessionChangeLog, never()).number(anyList());
+    }
+
+    /**
+     * Test la suite d'une réinitialisation
+     * Vérifie que la page suivante part du dernier id envoyé et garde le curseur de la première page
+     */
+    @Test
+    public void testFindChanges_ContinuesResetAfterLastId() {
+        // GIVEN
+        Session third = Session.builder().id(3L).name("Third").build();
+        when(sessionChangeRepository.findSequence()).thenReturn(Collections.singletonList(sequence(9L, null)));
+        when(sessionRepository.findIdsAfter(eq(2L), any(Pageable.class))).thenReturn(Collections.singletonList(3L));
+        when(sessionRepository.findWithParticipantsByIdIn(Collections.singletonList(3L)))
+                .thenReturn(Arrays.asList(third));
+
+        // WHEN
+        SessionChanges changes = sessionService.findChanges(7, 2L, 2);
+
+        // THEN
+        assertFalse(changes.isReset());
+        assertFalse(changes.isMore());
+        assertNull(changes.getAfter());
+        assertEquals(7L, changes.getCursor());
+        assertEquals(Arrays.asList(third), changes.getSessions());
+        verify(sessionChangeRepository, never()).findBySeqGreaterThanOrderBySeq(anyLong(), any(Pageable.class));
+    }
+
+    /**
+     * Test une synchronisation incrémentale
+     * Vérifie qu'une session modifiée puis supprimée est renvoyée comme pierre tombale
+     */
+    @Test
+    public void testFindChanges_MissingSessionIsDeleted() {
+        // GIVEN
+        when(sessionChangeRepository.findSequence()).thenReturn(Collections.singletonList(sequence(9L, null)));
+        when(sessionChangeRepository.findBySeqGreaterThanOrderBySeq(eq(5L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(new SessionChange(1L, 6L, false), new SessionChange(2L, 7L, false),
+                        new SessionChange(3L, 8L, true)));
+        when(sessionRepository.findWithParticipantsByIdIn(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(session));
+
+        // WHEN
+        SessionChanges changes = sessionService.findChanges(5, null, 2);
+
+        // THEN
+        assertFalse(changes.isReset());
+        assertTrue(changes.isMore());
+        assertEquals(7L, changes.getCursor());
+        assertEquals(Arrays.asList(session), changes.getSessions());
+        assertEquals(Arrays.asList(2L), changes.getDeleted());
+    }
+
+    /**
+     * Test une synchronisation après des écritures
+     * Vérifie que les changements en attente sont numérotés avant d'être lus
+     */
+    @Test
+    public void testFindChanges_NumbersPendingChanges() {
+        // GIVEN
+        when(sessionChangeRepository.findSequence()).thenReturn(Arrays.asList(sequence(9L, 1L), sequence(9L, 2L)));
+        when(sessionChangeLog.number(Arrays.asList(1L, 2L))).thenReturn(11L);
+        when(sessionChangeRepository.findBySeqGreaterThanOrderBySeq(eq(9L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(new SessionChange(1L, 10L, true), new SessionChange(2L, 11L, true)));
+
+        // WHEN
+        SessionChanges changes = sessionService.findChanges(9, null, 500);
+
+        // THEN
+        InOrder inOrder = inOrder(sessionChangeLog, sessionChangeRepository);
+        inOrder.verify(sessionChangeLog).number(Arrays.asList(1L, 2L));
+        inOrder.verify(sessionChangeRepository).findBySeqGreaterThanOrderBySeq(eq(9L), any(Pageable.class));
+        assertEquals(11L, changes.getCursor());
+        assertEquals(Arrays.asList(1L, 2L), changes.getDeleted());
+    }
+
+    /**
+     * Test la première synchronisation avec des changements en attente
+     * Vérifie que le curseur couvre les changements numérotés, déjà inclus dans toutes les sessions
+     */
+    @Test
+    public void testFindChanges_ResetAfterNumbering() {
+        // GIVEN
+        when(sessionChangeRepository.findSequence()).thenReturn(Collections.singletonList(sequence(7L, 1L)));
+        when(sessionChangeLog.number(Collections.singletonList(1L))).thenReturn(8L);
+        when(sessionRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        // WHEN
+        SessionChanges changes = sessionService.findChanges(-1, null, 500);
+
+        // THEN
+        assertTrue(changes.isReset());
+        assertEquals(8L, changes.getCursor());
+    }
+
+    private static SessionChangeRepository.Sequence sequence(long lastSeq, Long pendingSessionId) {
+        return new SessionChangeRepository.Sequence() {
+            @Override
+            public long getLastSeq() {
+                return lastSeq;
+            }
+
+            @Override
+            public Long getPendingSessionId() {
+                return pendingSessionId;
+            }
+        };
+    }
+}
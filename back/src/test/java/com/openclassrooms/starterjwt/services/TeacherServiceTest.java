@@ -1,5 +1,6 @@
 package com.openclassrooms.starterjwt.services;
 
+import com.openclassrooms.starterjwt.dto.TimeSlotDto;
 import com.openclassrooms.starterjwt.models.Teacher;
 import com.openclassrooms.starterjwt.repository.TeacherRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +12,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +28,9 @@ public class TeacherServiceTest {
     @Mock
     private TeacherRepository teacherRepository;
 
+    @Mock
+    private SessionService sessionService;
+
     @InjectMocks
     private TeacherService teacherService;
 
@@ -109,4 +114,29 @@ public class TeacherServiceTest {
         assertNull(foundTeacher);
         verify(teacherRepository, times(1)).findById(999L);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test le calcul des créneaux libres d'un professeur
+     * Vérifie que les trous entre les sessions réservées sont retournés,
+     * y compris quand des sessions se chevauchent
+     */
+    @Test
+    public void testFindAvailability() {
+        // GIVEN
+        Date from = new Date(0);
+        Date to = new Date(100);
+        when(sessionService.findTeacherBookings(1L, from, to)).thenReturn(Arrays.asList(
+                new TimeSlotDto(1L, new Date(10), new Date(30)),
+                new TimeSlotDto(2L, new Date(20), new Date(25)),
+                new TimeSlotDto(3L, new Date(50), new Date(60))));
+
+        // WHEN
+        List<TimeSlotDto> free = teacherService.findAvailability(1L, from, to);
+
+        // THEN
+        assertEquals(Arrays.asList(
+                new TimeSlotDto(null, new Date(0), new Date(10)),
+                new TimeSlotDto(null, new Date(30), new Date(50)),
+                new TimeSlotDto(null, new Date(60), new Date(100))), free);
+    }
+}
@@ -1,5 +1,7 @@
 package com.openclassrooms.starterjwt.services;
 
+import com.openclassrooms.starterjwt.audit.AuditAction;
+import com.openclassrooms.starterjwt.audit.AuditLog;
 import com.openclassrooms.starterjwt.models.User;
 import com.openclassrooms.starterjwt.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,6 +26,9 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private AuditLog auditLog;
+
     @InjectMocks
     private UserService userService;
 
@@ -47,7 +52,7 @@ public class UserServiceTest {
 
     /**
      * Test la suppression d'un utilisateur
-     * Vérifie que la méthode deleteById du repository est bien appelée
+     * Vérifie que la méthode deleteById du repository est bien appelée et la suppression auditée
      */
     @Test
     public void testDelete() {
@@ -56,6 +61,7 @@ public class UserServiceTest {
 
         // THEN
         verify(userRepository, times(1)).deleteById(1L);
+        verify(auditLog).record(AuditAction.USER_DELETED, 1L);
     }
 
     /**
@@ -97,4 +103,19 @@ public class UserServiceTest {
         assertNull(foundUser);
         verify(userRepository, times(1)).findById(999L);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test la récupération d'un utilisateur par email
+     * Vérifie que null est retourné quand l'email est inconnu
+     */
+    @Test
+    public void testFindByEmail() {
+        // GIVEN
+        when(userRepository.findByEmail("test@test.com")).thenReturn(Optional.of(user));
+        when(userRepository.findByEmail("unknown@test.com")).thenReturn(Optional.empty());
+
+        // WHEN & THEN
+        assertEquals(user, userService.findByEmail("test@test.com"));
+        assertNull(userService.findByEmail("unknown@test.com"));
+    }
+}
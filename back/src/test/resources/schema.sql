@@ -5,12 +5,26 @@ CREATE TABLE TEACHERS (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
+CREATE TABLE SESSION_SERIES (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(50),
+    description VARCHAR(2000),
+    teacher_id int,
+    start_date TIMESTAMP,
+    recurrence VARCHAR(255),
+    duration INT NOT NULL DEFAULT 60,
+    materialized_until TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
 CREATE TABLE SESSIONS (
     id INT PRIMARY KEY AUTO_INCREMENT,
     name VARCHAR(50),
     description VARCHAR(2000),
     date TIMESTAMP,
+    duration INT NOT NULL DEFAULT 60,
     teacher_id int,
+    series_id int,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
@@ -25,7 +39,46 @@ CREATE TABLE USERS (
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
 CREATE TABLE PARTICIPATE (user_id INT, session_id INT);
+CREATE TABLE SESSION_CHANGE_SEQUENCE (id INT PRIMARY KEY, last_seq BIGINT NOT NULL);
+INSERT INTO SESSION_CHANGE_SEQUENCE (id, last_seq) VALUES (1, 0);
+CREATE TABLE SESSION_CHANGES (
+    session_id INT PRIMARY KEY,
+    seq BIGINT,
+    deleted BOOLEAN NOT NULL DEFAULT false,
+    changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE TABLE SESSION_OUTBOX (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    type VARCHAR(32) NOT NULL,
+    session_id INT NOT NULL,
+    user_id INT,
+    occurred_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE TABLE SESSION_REMINDERS (
+    session_id INT NOT NULL,
+    user_id INT NOT NULL,
+    claim_id VARCHAR(36) NOT NULL,
+    claimed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (session_id, user_id)
+);
+CREATE TABLE AUDIT_LOG (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    occurred_at TIMESTAMP NOT NULL,
+    actor VARCHAR(255) NOT NULL,
+    action VARCHAR(32) NOT NULL,
+    target_id INT
+);
+CREATE INDEX idx_sessions_date ON SESSIONS (date);
+CREATE INDEX idx_sessions_teacher_date ON SESSIONS (teacher_id, date);
+CREATE UNIQUE INDEX ux_participate_user_session ON PARTICIPATE (user_id, session_id);
+CREATE UNIQUE INDEX ux_session_changes_seq ON SESSION_CHANGES (seq);
+CREATE INDEX idx_session_reminders_claim ON SESSION_REMINDERS (claim_id);
+CREATE INDEX idx_audit_log_occurred_at ON AUDIT_LOG (occurred_at);
+ALTER TABLE SESSIONS
+ADD FOREIGN KEY (teacher_id) REFERENCES TEACHERS (id);
 ALTER TABLE SESSIONS
+ADD FOREIGN KEY (series_id) REFERENCES SESSION_SERIES (id);
+ALTER TABLE SESSION_SERIES
 ADD FOREIGN KEY (teacher_id) REFERENCES TEACHERS (id);
 ALTER TABLE PARTICIPATE
 ADD FOREIGN KEY (user_id) REFERENCES USERS (id);
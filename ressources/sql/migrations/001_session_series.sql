@@ -0,0 +1,18 @@
+USE app_test;
+
+CREATE TABLE `SESSION_SERIES` (
+  `id` INT PRIMARY KEY AUTO_INCREMENT,
+  `name` VARCHAR(50),
+  `description` VARCHAR(2000),
+  `teacher_id` int,
+  `start_date` TIMESTAMP,
+  `recurrence` VARCHAR(255),
+  `materialized_until` TIMESTAMP NULL,
+  `created_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+ALTER TABLE `SESSIONS` ADD COLUMN `series_id` int;
+
+ALTER TABLE `SESSIONS` ADD FOREIGN KEY (`series_id`) REFERENCES `SESSION_SERIES` (`id`);
+ALTER TABLE `SESSION_SERIES` ADD FOREIGN KEY (`teacher_id`) REFERENCES `TEACHERS` (`id`);
@@ -0,0 +1,7 @@
+USE app_test;
+
+-- Serves GET /api/session?from=&to= as a range scan.
+CREATE INDEX `idx_sessions_date` ON `SESSIONS` (`date`);
+
+-- Serves GET /api/session?from=&to=&teacherId= and also backs the teacher_id foreign key.
+CREATE INDEX `idx_sessions_teacher_date` ON `SESSIONS` (`teacher_id`, `date`);
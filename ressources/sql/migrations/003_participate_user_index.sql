@@ -0,0 +1,5 @@
+USE app_test;
+
+-- Reverse participation index: the sessions of one user are read without scanning PARTICIPATE.
+-- It also replaces the implicit user_id foreign key index and forbids duplicate enrolments.
+CREATE UNIQUE INDEX `ux_participate_user_session` ON `PARTICIPATE` (`user_id`, `session_id`);
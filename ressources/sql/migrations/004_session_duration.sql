@@ -0,0 +1,5 @@
+USE app_test;
+
+-- Duration in minutes; teacher overlaps are checked on [date, date + duration).
+ALTER TABLE `SESSIONS` ADD COLUMN `duration` INT NOT NULL DEFAULT 60;
+ALTER TABLE `SESSION_SERIES` ADD COLUMN `duration` INT NOT NULL DEFAULT 60;
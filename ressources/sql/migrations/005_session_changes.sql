@@ -0,0 +1,18 @@
+USE app_test;
+
+-- Change feed behind GET /api/session/changes?since=: one row per session, kept as a tombstone
+-- once the session is deleted, numbered from a single counter row. Since 009 the writes leave
+-- their row unnumbered, and only the reader that numbers the pending rows locks the counter.
+CREATE TABLE `SESSION_CHANGE_SEQUENCE` (
+  `id` INT PRIMARY KEY,
+  `last_seq` BIGINT NOT NULL
+);
+INSERT INTO `SESSION_CHANGE_SEQUENCE` (`id`, `last_seq`) VALUES (1, 0);
+
+CREATE TABLE `SESSION_CHANGES` (
+  `session_id` INT PRIMARY KEY,
+  `seq` BIGINT NOT NULL,
+  `deleted` BOOLEAN NOT NULL DEFAULT false,
+  `changed_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE UNIQUE INDEX `ux_session_changes_seq` ON `SESSION_CHANGES` (`seq`);
@@ -0,0 +1,12 @@
+USE app_test;
+
+-- Session domain events, written in the transaction of the session write and removed once the
+-- relay has published them. The ids of a session follow commit order: they are appended after
+-- the write upserts the SESSION_CHANGES row of the session, and that row stays locked until commit.
+CREATE TABLE `SESSION_OUTBOX` (
+  `id` BIGINT PRIMARY KEY AUTO_INCREMENT,
+  `type` VARCHAR(32) NOT NULL,
+  `session_id` INT NOT NULL,
+  `user_id` INT,
+  `occurred_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,12 @@
+USE app_test;
+
+-- Session reminders claimed before they are sent: one row per session and participant, so that
+-- a reminder is sent at most once, across restarts and nodes.
+CREATE TABLE `SESSION_REMINDERS` (
+  `session_id` INT NOT NULL,
+  `user_id` INT NOT NULL,
+  `claim_id` VARCHAR(36) NOT NULL,
+  `claimed_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`session_id`, `user_id`)
+);
+CREATE INDEX `idx_session_reminders_claim` ON `SESSION_REMINDERS` (`claim_id`);
@@ -0,0 +1,11 @@
+USE app_test;
+
+-- Audit trail of the session writes and user deletions, inserted by batches behind the writes.
+CREATE TABLE `AUDIT_LOG` (
+  `id` BIGINT PRIMARY KEY AUTO_INCREMENT,
+  `occurred_at` TIMESTAMP NOT NULL,
+  `actor` VARCHAR(255) NOT NULL,
+  `action` VARCHAR(32) NOT NULL,
+  `target_id` INT
+);
+CREATE INDEX `idx_audit_log_occurred_at` ON `AUDIT_LOG` (`occurred_at`);
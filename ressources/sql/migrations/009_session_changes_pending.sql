@@ -0,0 +1,5 @@
+USE app_test;
+
+-- Session writes no longer lock SESSION_CHANGE_SEQUENCE: they leave their change without a
+-- sequence and the next GET /api/session/changes numbers it under the counter lock.
+ALTER TABLE `SESSION_CHANGES` MODIFY `seq` BIGINT NULL;